@@ -0,0 +1,55 @@
+package org.team1619.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.team1619.behavior.Drivetrain_Swerve;
+import org.team1619.behavior.Drivetrain_Zero;
+import org.team1619.utilities.recording.FlightRecorder;
+import org.uacr.utilities.Config;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the per frame cost of the behaviors run by the states service
+ */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BehaviorBenchmarks {
+
+    private Drivetrain_Swerve mSwerve;
+    private Drivetrain_Zero mZero;
+
+    @Setup
+    public void setup() {
+        BenchmarkRobot robot = new BenchmarkRobot();
+
+        mSwerve = new Drivetrain_Swerve(robot.getInputValues(), robot.getOutputValues(), new Config("single_state", Map.of()), robot.getRobotConfiguration(),
+                robot.getInjector().getInstance(FlightRecorder.class));
+        mSwerve.initialize("st_drivetrain_swerve", new Config("single_state", Map.of()));
+
+        // Never zeroes so update() keeps doing the full check
+        robot.getInputValues().setBoolean("ipb_drivetrain_has_been_zeroed", false);
+        mZero = new Drivetrain_Zero(robot.getInputValues(), robot.getOutputValues(), new Config("single_state", Map.of()), robot.getRobotConfiguration());
+        mZero.initialize("st_drivetrain_zero", new Config("single_state", Map.of("timeout_time", 1000000, "zeroing_threshold", -1.0)));
+    }
+
+    @Benchmark
+    public void drivetrainSwerveUpdate() {
+        mSwerve.update();
+    }
+
+    @Benchmark
+    public void drivetrainZeroUpdate() {
+        mZero.update();
+    }
+
+    @Benchmark
+    public boolean drivetrainZeroIsDone() {
+        return mZero.isDone();
+    }
+}
@@ -0,0 +1,65 @@
+package org.team1619.benchmark;
+
+import org.team1619.state.SimModule;
+import org.uacr.shared.abstractions.InputValues;
+import org.uacr.shared.abstractions.OutputValues;
+import org.uacr.shared.abstractions.RobotConfiguration;
+import org.uacr.shared.concretions.SharedRobotConfiguration;
+import org.uacr.utilities.injection.Injector;
+
+import java.util.Map;
+
+/**
+ * Builds the in-memory shared values and configuration used by the benchmarks.
+ * Uses the sim module so no hardware is touched, only the shared InputValues and OutputValues maps.
+ */
+
+public class BenchmarkRobot {
+
+    private final Injector fInjector;
+    private final InputValues fSharedInputValues;
+    private final OutputValues fSharedOutputValues;
+    private final RobotConfiguration fRobotConfiguration;
+
+    public BenchmarkRobot() {
+        fInjector = new Injector(new SimModule());
+        fInjector.getInstance(SharedRobotConfiguration.class).initialize();
+
+        fSharedInputValues = fInjector.getInstance(InputValues.class);
+        fSharedOutputValues = fInjector.getInstance(OutputValues.class);
+        fRobotConfiguration = fInjector.getInstance(RobotConfiguration.class);
+
+        // Give the joysticks and sensors realistic non zero values so every branch does real math
+        fSharedInputValues.setNumeric("ipn_driver_left_y", 0.6);
+        fSharedInputValues.setNumeric("ipn_driver_left_x", -0.3);
+        fSharedInputValues.setNumeric("ipn_driver_right_y", 0.2);
+        fSharedInputValues.setNumeric("ipn_driver_right_x", 0.4);
+        // The drive behaviors read the joysticks after the input shaping service, which the benchmarks do not run
+        fSharedInputValues.setNumeric("ipn_driver_left_y_shaped", 0.6);
+        fSharedInputValues.setNumeric("ipn_driver_left_x_shaped", -0.3);
+        fSharedInputValues.setNumeric("ipn_driver_right_y_shaped", 0.2);
+        fSharedInputValues.setNumeric("ipn_driver_right_x_shaped", 0.4);
+        fSharedInputValues.setNumeric("ipn_drivetrain_front_right_angle", 10.0);
+        fSharedInputValues.setNumeric("ipn_drivetrain_front_left_angle", 20.0);
+        fSharedInputValues.setNumeric("ipn_drivetrain_back_left_angle", 100.0);
+        fSharedInputValues.setNumeric("ipn_drivetrain_back_right_angle", -80.0);
+        fSharedInputValues.setVector("ipv_navx", Map.of("angle", 45.0));
+        fSharedInputValues.setBoolean("ipb_swerve_field_centric", true);
+    }
+
+    public Injector getInjector() {
+        return fInjector;
+    }
+
+    public InputValues getInputValues() {
+        return fSharedInputValues;
+    }
+
+    public OutputValues getOutputValues() {
+        return fSharedOutputValues;
+    }
+
+    public RobotConfiguration getRobotConfiguration() {
+        return fRobotConfiguration;
+    }
+}
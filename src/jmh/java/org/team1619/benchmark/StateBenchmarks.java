@@ -0,0 +1,68 @@
+package org.team1619.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.team1619.state.AutoRegistry;
+import org.team1619.state.StateControls;
+import org.team1619.state.StateTable;
+import org.team1619.state.StateTracer;
+import org.team1619.state.modelogic.AutonomousModeLogic;
+import org.team1619.utilities.recording.FlightRecorder;
+import org.team1619.utilities.swerve.SwerveOdometry;
+import org.uacr.shared.abstractions.FMS;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the per frame cost of the state controls and mode logic
+ */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StateBenchmarks {
+
+    private StateControls mStateControls;
+    private AutonomousModeLogic mAutonomousModeLogic;
+
+    @Setup
+    public void setup() {
+        BenchmarkRobot robot = new BenchmarkRobot();
+
+        mStateControls = new StateControls(robot.getInputValues(), robot.getRobotConfiguration(), robot.getInjector().getInstance(SwerveOdometry.class),
+                robot.getInjector().getInstance(FlightRecorder.class), robot.getInjector().getInstance(StateTable.class),
+                robot.getInjector().getInstance(AutoRegistry.class), robot.getInjector().getInstance(StateTracer.class));
+        mStateControls.initialize(FMS.Mode.TELEOP);
+
+        robot.getInputValues().setString("ips_auto_origin", "None");
+        robot.getInputValues().setString("ips_auto_destination", "None");
+        robot.getInputValues().setString("ips_auto_action", "None");
+        robot.getInputValues().setBoolean("ipb_robot_has_been_zeroed", true);
+        robot.getInputValues().setBoolean("ipb_drivetrain_has_been_zeroed", true);
+        mAutonomousModeLogic = new AutonomousModeLogic(robot.getInputValues(), robot.getRobotConfiguration(),
+                robot.getInjector().getInstance(StateTable.class), robot.getInjector().getInstance(StateTracer.class), robot.getInjector().getInstance(AutoRegistry.class));
+        mAutonomousModeLogic.initialize();
+    }
+
+    @Benchmark
+    public void stateControlsUpdate() {
+        mStateControls.update();
+    }
+
+    @Benchmark
+    public boolean autonomousIsReadyZero() {
+        return mAutonomousModeLogic.isReady("st_drivetrain_zero");
+    }
+
+    @Benchmark
+    public boolean autonomousIsReadyAuto() {
+        return mAutonomousModeLogic.isReady("sq_auto_none_none_none");
+    }
+
+    @Benchmark
+    public boolean autonomousIsReadyOther() {
+        return mAutonomousModeLogic.isReady("st_drivetrain_swerve");
+    }
+}
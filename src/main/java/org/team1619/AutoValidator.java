@@ -0,0 +1,234 @@
+package org.team1619;
+
+import org.team1619.state.AutoRegistry;
+import org.team1619.state.SimModule;
+import org.team1619.utilities.configuration.CompiledConfiguration;
+import org.team1619.utilities.logging.AsyncLogManager;
+import org.team1619.utilities.recording.FlightRecorder;
+import org.team1619.utilities.swerve.SwerveKinematics;
+import org.team1619.utilities.tuning.SwervePlant;
+import org.uacr.shared.abstractions.FMS;
+import org.uacr.shared.abstractions.InputValues;
+import org.uacr.shared.abstractions.RobotConfiguration;
+import org.uacr.utilities.injection.Injector;
+import org.uacr.utilities.logging.LogManager;
+import org.uacr.utilities.logging.Logger;
+
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Runs every auto that can be picked with global_webdashboard -> auto_selector through the headless sim and reports whether it finished,
+ * how long it took and where the robot ended up. Selections that have no sq_auto_ sequencer are listed without being run.
+ * Each auto runs on a fork join pool worker with its own injector and sim on a virtual clock, driving a SwervePlant from the module outputs,
+ * so a full sweep takes about as long as the slowest auto does to simulate.
+ * Exits with 1 if any auto did not finish within the autonomous period, so it can gate a deploy.
+ * Having no auto to run, such as with the shipped [None] selector, is only a warning unless the requireAutos system property is true.
+ *
+ * Usage: AutoValidator [auto seconds]
+ */
+
+public class AutoValidator {
+
+    private static final Logger sLogger = LogManager.getLogger(AutoValidator.class);
+
+    private static final double DEFAULT_AUTO_SECONDS = 15.0;
+    // Disabled frames before autonomous so robot status selects the auto the same way it does on the field
+    private static final int DISABLED_FRAMES = 5;
+
+    private final double fAutoSeconds;
+
+    public AutoValidator(double autoSeconds) {
+        fAutoSeconds = autoSeconds;
+    }
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("logPath", "logs");
+
+        // general.yaml is read from the configuration compiled at build time
+        CompiledConfiguration.getLogLevel().ifPresent(AsyncLogManager::setLogLevel);
+
+        double autoSeconds = args.length > 0 ? Double.parseDouble(args[0]) : DEFAULT_AUTO_SECONDS;
+
+        List<Result> results = new AutoValidator(autoSeconds).run();
+        boolean ranAny = results.stream().anyMatch(result -> result.getStatus() != Status.NO_AUTO);
+        boolean requireAutos = Boolean.getBoolean("requireAutos");
+        if (!ranAny && requireAutos) {
+            sLogger.error("No auto was run and requireAutos is set");
+        }
+        System.exit((ranAny || !requireAutos) && results.stream().allMatch(result -> result.getStatus() != Status.FAILED && result.getStatus() != Status.TIMED_OUT) ? 0 : 1);
+    }
+
+    /**
+     * Runs every selectable auto on all cores, logs a report and returns the results in selector order
+     */
+    public List<Result> run() throws Exception {
+        long start = System.nanoTime();
+
+        Object sequencers = CompiledConfiguration.loadYaml("states.yaml").get("sequencer_state");
+        Set<?> sequencerNames = sequencers instanceof Map ? ((Map<?, ?>) sequencers).keySet() : Set.of();
+        Object webdashboard = CompiledConfiguration.loadYaml("robot-configuration.yaml").get("global_webdashboard");
+        Map<?, ?> autoSelector = webdashboard instanceof Map && ((Map<?, ?>) webdashboard).get("auto_selector") instanceof Map ?
+                (Map<?, ?>) ((Map<?, ?>) webdashboard).get("auto_selector") : Map.of();
+
+        List<Result> results = new ArrayList<>();
+        List<Callable<Result>> autos = new ArrayList<>();
+        for (AutoRegistry.Selection selection : AutoRegistry.getSelections(autoSelector)) {
+            String name = selection.getName();
+            if (sequencerNames.contains(name)) {
+                autos.add(() -> runAuto(name, selection.getOrigin(), selection.getDestination(), selection.getAction()));
+            } else {
+                results.add(new Result(name, Status.NO_AUTO, 0.0, 0.0, 0.0, 0.0, ""));
+            }
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        try {
+            for (Future<Result> result : pool.invokeAll(autos)) {
+                results.add(result.get());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        results.sort(Comparator.comparing(Result::getName));
+
+        double wallSeconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        for (Result result : results) {
+            sLogger.info("{}", result);
+        }
+        long failed = results.stream().filter(result -> result.getStatus() == Status.FAILED || result.getStatus() == Status.TIMED_OUT).count();
+        sLogger.info("Ran {} autos of {} selections in {} seconds, {} did not finish", autos.size(), results.size(), wallSeconds, failed);
+        if (autos.isEmpty()) {
+            sLogger.warn("No auto was run, none of the {} global_webdashboard -> auto_selector selections has an sq_auto_ sequencer in sequencer_state",
+                    results.size());
+        }
+        return results;
+    }
+
+    // Runs on a pool worker, everything the auto touches is created here and only used by this worker
+    private Result runAuto(String name, String origin, String destination, String action) {
+        HeadlessSim sim = null;
+        try {
+            Injector injector = new Injector(new SimModule());
+            sim = new HeadlessSim(injector);
+            InputValues inputValues = injector.getInstance(InputValues.class);
+            RobotConfiguration robotConfiguration = injector.getInstance(RobotConfiguration.class);
+            FlightRecorder flightRecorder = injector.getInstance(FlightRecorder.class);
+            SwervePlant plant = new SwervePlant(inputValues, new SwerveKinematics(robotConfiguration), robotConfiguration);
+
+            inputValues.setString("ips_auto_origin", origin);
+            inputValues.setString("ips_auto_destination", destination);
+            inputValues.setString("ips_auto_action", action);
+
+            sim.start();
+            sim.setMode(FMS.Mode.DISABLED);
+            for (int f = 0; f < DISABLED_FRAMES; f++) {
+                runFrame(sim, plant, flightRecorder);
+            }
+
+            sim.setMode(FMS.Mode.AUTONOMOUS);
+            long autoStart = sim.getClock().getMillis();
+            long autoMillis = (long) (fAutoSeconds * 1000);
+            // Autonomous mode logic clears ipb_auto_complete on its first frame and sets it when the auto's sequencer is done
+            runFrame(sim, plant, flightRecorder);
+            while (!inputValues.getBoolean("ipb_auto_complete") && sim.getClock().getMillis() - autoStart < autoMillis) {
+                runFrame(sim, plant, flightRecorder);
+            }
+            double seconds = (sim.getClock().getMillis() - autoStart) / 1000.0;
+
+            return new Result(name, inputValues.getBoolean("ipb_auto_complete") ? Status.COMPLETED : Status.TIMED_OUT, seconds,
+                    inputValues.getNumeric("ipn_odometry_x"), inputValues.getNumeric("ipn_odometry_y"), inputValues.getNumeric("ipn_odometry_heading"), "");
+        } catch (Exception e) {
+            return new Result(name, Status.FAILED, 0.0, 0.0, 0.0, 0.0, String.valueOf(e));
+        } finally {
+            if (sim != null) {
+                try {
+                    sim.stop();
+                } catch (Exception e) {
+                    sLogger.error("Could not stop the sim for {}: {}", name, e.getMessage());
+                }
+            }
+        }
+    }
+
+    // The plant moves between frames from the outputs the frame set, so the next frame's inputs see the robot move
+    // The headless sim has no flight recorder service, so the frame is committed here for the plant to read its outputs
+    private static void runFrame(HeadlessSim sim, SwervePlant plant, FlightRecorder flightRecorder) throws Exception {
+        sim.runFrame();
+        flightRecorder.commitFrame(sim.getClock().nanoTime());
+        plant.readOutputs(flightRecorder);
+        plant.step(sim.getClock().nanoTime(), HeadlessSim.FRAME_PERIOD_MILLIS * 1_000_000L);
+    }
+
+    public enum Status {
+        // The auto's sequencer finished within the autonomous period
+        COMPLETED,
+        // Still running at the end of the autonomous period
+        TIMED_OUT,
+        // The sim threw an exception
+        FAILED,
+        // No sq_auto_ sequencer matches the selection, nothing runs on the field
+        NO_AUTO
+    }
+
+    public static final class Result {
+
+        private final String fName;
+        private final Status fStatus;
+        private final double fSeconds;
+        private final double fX;
+        private final double fY;
+        private final double fHeading;
+        private final String fError;
+
+        public Result(String name, Status status, double seconds, double x, double y, double heading, String error) {
+            fName = name;
+            fStatus = status;
+            fSeconds = seconds;
+            fX = x;
+            fY = y;
+            fHeading = heading;
+            fError = error;
+        }
+
+        public String getName() {
+            return fName;
+        }
+
+        public Status getStatus() {
+            return fStatus;
+        }
+
+        // Time from the start of autonomous until the auto finished or the period ran out
+        public double getSeconds() {
+            return fSeconds;
+        }
+
+        // Final odometry pose
+        public double getX() {
+            return fX;
+        }
+
+        public double getY() {
+            return fY;
+        }
+
+        public double getHeading() {
+            return fHeading;
+        }
+
+        @Override
+        public String toString() {
+            switch (fStatus) {
+                case NO_AUTO:
+                    return fName + ": no auto in sequencer_state";
+                case FAILED:
+                    return fName + ": FAILED " + fError;
+                default:
+                    return String.format("%s: %s in %.2f s, ended at x %.1f y %.1f heading %.1f", fName, fStatus, fSeconds, fX, fY, fHeading);
+            }
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package org.team1619;
+
+import org.team1619.services.input.InputShapingService;
+import org.team1619.state.SimModule;
+import org.team1619.utilities.configuration.CompiledConfiguration;
+import org.team1619.utilities.logging.AsyncLogManager;
+import org.team1619.utilities.time.FrameClock;
+import org.team1619.utilities.time.VirtualClock;
+import org.uacr.services.input.InputService;
+import org.uacr.services.output.OutputService;
+import org.uacr.services.states.StatesService;
+import org.uacr.shared.abstractions.FMS;
+import org.uacr.shared.abstractions.InputValues;
+import org.uacr.shared.concretions.SharedRobotConfiguration;
+import org.uacr.utilities.injection.Injector;
+import org.uacr.utilities.logging.LogManager;
+import org.uacr.utilities.logging.Logger;
+import org.uacr.utilities.services.Service;
+
+/**
+ * Runs the input, input shaping, states and output services of the sim on a virtual clock as fast as the CPU allows.
+ * Each frame advances the clock by the core frame period so logic built on FrameTimer behaves as it does on the robot.
+ * The logging and webdashboard services are not run.
+ *
+ * Usage: HeadlessSim [auto seconds] [teleop seconds]
+ */
+
+public class HeadlessSim {
+
+    private static final Logger sLogger = LogManager.getLogger(HeadlessSim.class);
+
+    public static final long FRAME_PERIOD_MILLIS = 10;
+
+    private final Injector fInjector;
+    private final VirtualClock fClock;
+    private final Service fInputService;
+    private final InputShapingService fInputShapingService;
+    private final StatesService fStatesService;
+    private final OutputService fOutputService;
+    private final FMS fFMS;
+
+    private long mFrames;
+    private boolean mIsRunning;
+
+    public HeadlessSim() {
+        this(new Injector(new SimModule()));
+    }
+
+    public HeadlessSim(Injector injector) {
+        this(injector, injector.getInstance(InputService.class));
+    }
+
+    /**
+     * Runs the sim with a different service reading the inputs, such as a ReplayInputService
+     */
+    public HeadlessSim(Injector injector, Service inputService) {
+        fInjector = injector;
+        fInjector.getInstance(SharedRobotConfiguration.class).initialize();
+
+        fClock = new VirtualClock();
+        fInputService = inputService;
+        // Shapes the joystick values of replays the same way as live inputs
+        fInputShapingService = fInjector.getInstance(InputShapingService.class);
+        fStatesService = fInjector.getInstance(StatesService.class);
+        fOutputService = fInjector.getInstance(OutputService.class);
+        fFMS = fInjector.getInstance(FMS.class);
+
+        mFrames = 0;
+        mIsRunning = false;
+    }
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("logPath", "logs");
+
+        // general.yaml is read from the configuration compiled at build time
+        CompiledConfiguration.getLogLevel().ifPresent(AsyncLogManager::setLogLevel);
+
+        long autoMillis = (long) (args.length > 0 ? Double.parseDouble(args[0]) * 1000 : 15000);
+        long teleopMillis = (long) (args.length > 1 ? Double.parseDouble(args[1]) * 1000 : 135000);
+
+        HeadlessSim sim = new HeadlessSim();
+        sim.start();
+
+        long start = System.nanoTime();
+        sim.setMode(FMS.Mode.AUTONOMOUS);
+        sim.runFor(autoMillis);
+        sim.setMode(FMS.Mode.TELEOP);
+        sim.runFor(teleopMillis);
+        sim.setMode(FMS.Mode.DISABLED);
+        sim.runFrames(1);
+        long wallNanos = System.nanoTime() - start;
+
+        sim.stop();
+
+        double wallSeconds = wallNanos / 1_000_000_000.0;
+        sLogger.info("Headless sim ran {} frames ({} seconds of match time) in {} seconds, {} frames/second, {}x real time",
+                sim.getFrames(), sim.getClock().getMillis() / 1000.0, wallSeconds, sim.getFrames() / wallSeconds,
+                sim.getClock().getMillis() / 1000.0 / wallSeconds);
+    }
+
+    /**
+     * Starts the services on the current thread, which must also be the thread that runs the frames
+     */
+    public void start() throws Exception {
+        FrameClock.useTimeSource(fClock);
+
+        fInputService.startUp();
+        fInputShapingService.startUp();
+        fStatesService.startUp();
+        fOutputService.startUp();
+        mIsRunning = true;
+    }
+
+    public void setMode(FMS.Mode mode) {
+        fFMS.setMode(mode);
+    }
+
+    /**
+     * Runs core frames until the given amount of virtual time has passed
+     */
+    public void runFor(long millis) throws Exception {
+        runFrames(millis / FRAME_PERIOD_MILLIS);
+    }
+
+    public void runFrames(long frames) throws Exception {
+        for (long f = 0; f < frames; f++) {
+            runFrame();
+        }
+    }
+
+    public void runFrame() throws Exception {
+        runFrameAfterNanos(FRAME_PERIOD_MILLIS * 1_000_000L);
+    }
+
+    /**
+     * Advances the clock by the given time since the last frame and runs one frame, used to replay recorded frame times
+     */
+    public void runFrameAfterNanos(long periodNanos) throws Exception {
+        fClock.advanceNanos(periodNanos);
+
+        fInputService.runOneIteration();
+        fInputShapingService.runOneIteration();
+        fStatesService.runOneIteration();
+        fOutputService.runOneIteration();
+        mFrames++;
+    }
+
+    public void stop() throws Exception {
+        if (mIsRunning) {
+            mIsRunning = false;
+            fOutputService.shutDown();
+            fStatesService.shutDown();
+            fInputShapingService.shutDown();
+            fInputService.shutDown();
+        }
+        FrameClock.useSystemTime();
+    }
+
+    public long getFrames() {
+        return mFrames;
+    }
+
+    public VirtualClock getClock() {
+        return fClock;
+    }
+
+    public Injector getInjector() {
+        return fInjector;
+    }
+
+    public InputValues getInputValues() {
+        return fInjector.getInstance(InputValues.class);
+    }
+}
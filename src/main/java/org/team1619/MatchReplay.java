@@ -0,0 +1,222 @@
+package org.team1619;
+
+import org.team1619.services.recording.ReplayInputService;
+import org.team1619.state.SimModule;
+import org.team1619.utilities.configuration.CompiledConfiguration;
+import org.team1619.utilities.logging.AsyncLogManager;
+import org.team1619.utilities.recording.FlightRecorder;
+import org.team1619.utilities.recording.FlightRecording;
+import org.uacr.robot.ControlMode;
+import org.uacr.shared.abstractions.FMS;
+import org.uacr.shared.abstractions.InputValues;
+import org.uacr.utilities.injection.Injector;
+import org.uacr.utilities.logging.LogManager;
+import org.uacr.utilities.logging.Logger;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Replays a flight recording through the headless sim and compares the outputs, control mode and active states
+ * the current code produces against the recorded ones.
+ * Frames are streamed from the recording and run on the virtual clock with their recorded frame times, as fast as the CPU allows.
+ *
+ * Usage: MatchReplay [recording file] [tolerance]
+ */
+
+public class MatchReplay {
+
+    private static final Logger sLogger = LogManager.getLogger(MatchReplay.class);
+
+    private static final double DEFAULT_TOLERANCE = 1e-6;
+    // Only the first few differences are logged one by one, all of them are counted
+    private static final int LOGGED_DIFFERENCES = 20;
+
+    private final FlightRecording fRecording;
+    private final ReplayInputService fInputService;
+    private final HeadlessSim fSim;
+    private final FlightRecorder fFlightRecorder;
+    private final double fTolerance;
+
+    // Recorded output columns and the matching columns of the replay's recorder
+    private final int[] fRecordedOutputs;
+    private final int[] fReplayedOutputs;
+    private final long[] fOutputDifferences;
+    private final double[] fMaxOutputDifference;
+    private final int[] fReplayedSubsystems;
+
+    private long mFrames;
+    private long mFramesWithDifferences;
+    private long mControlModeDifferences;
+    private long mStateDifferences;
+    private int mLoggedDifferences;
+
+    public MatchReplay(FlightRecording recording, double tolerance) {
+        fRecording = recording;
+        fTolerance = tolerance;
+
+        Injector injector = new Injector(new SimModule());
+        fInputService = new ReplayInputService(injector.getInstance(InputValues.class), recording);
+        fSim = new HeadlessSim(injector, fInputService);
+        // Behaviors write their outputs through the recorder, so its committed frame holds the outputs of the last replayed frame
+        fFlightRecorder = injector.getInstance(FlightRecorder.class);
+
+        List<Integer> recordedOutputs = new ArrayList<>();
+        List<Integer> replayedOutputs = new ArrayList<>();
+        List<String> columnNames = recording.getColumnNames();
+        for (int c = 0; c < columnNames.size(); c++) {
+            if (recording.getColumnKind(c) != FlightRecorder.OUTPUT) {
+                continue;
+            }
+            int replayed = fFlightRecorder.getColumn(columnNames.get(c));
+            if (replayed < 0) {
+                sLogger.warn("Output {} is in the recording but not in global_flight_recorder -> outputs, it will not be compared", columnNames.get(c));
+                continue;
+            }
+            recordedOutputs.add(c);
+            replayedOutputs.add(replayed);
+        }
+        fRecordedOutputs = recordedOutputs.stream().mapToInt(Integer::intValue).toArray();
+        fReplayedOutputs = replayedOutputs.stream().mapToInt(Integer::intValue).toArray();
+        fOutputDifferences = new long[fRecordedOutputs.length];
+        fMaxOutputDifference = new double[fRecordedOutputs.length];
+
+        List<String> subsystems = recording.getSubsystemNames();
+        fReplayedSubsystems = new int[subsystems.size()];
+        for (int s = 0; s < subsystems.size(); s++) {
+            fReplayedSubsystems[s] = fFlightRecorder.getSubsystemIndex(subsystems.get(s));
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: MatchReplay [recording file] [tolerance]");
+            System.exit(2);
+        }
+
+        System.setProperty("logPath", "logs");
+
+        // general.yaml is read from the configuration compiled at build time
+        CompiledConfiguration.getLogLevel().ifPresent(AsyncLogManager::setLogLevel);
+
+        double tolerance = args.length > 1 ? Double.parseDouble(args[1]) : DEFAULT_TOLERANCE;
+
+        boolean matches;
+        try (FlightRecording recording = new FlightRecording(Paths.get(args[0]))) {
+            MatchReplay replay = new MatchReplay(recording, tolerance);
+            matches = replay.run();
+        }
+        System.exit(matches ? 0 : 1);
+    }
+
+    /**
+     * Replays every frame in the recording, logs a summary and returns true if nothing differed
+     */
+    public boolean run() throws Exception {
+        long start = System.nanoTime();
+        fSim.start();
+
+        FMS.Mode fmsMode = FMS.Mode.DISABLED;
+        fSim.setMode(fmsMode);
+        long lastTimeNanos = -1;
+        while (fInputService.advance()) {
+            if (fRecording.getFmsMode() != fmsMode) {
+                fmsMode = fRecording.getFmsMode();
+                fSim.setMode(fmsMode);
+            }
+
+            long timeNanos = fRecording.getTimeNanos();
+            long periodNanos = lastTimeNanos >= 0 ? Math.max(timeNanos - lastTimeNanos, 0) : HeadlessSim.FRAME_PERIOD_MILLIS * 1_000_000L;
+            lastTimeNanos = timeNanos;
+
+            fSim.runFrameAfterNanos(periodNanos);
+            // The headless sim has no flight recorder service, commit the frame here so it can be compared
+            fFlightRecorder.commitFrame(timeNanos);
+            compareFrame();
+            mFrames++;
+        }
+
+        fSim.stop();
+        double wallSeconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        logSummary(wallSeconds);
+        return mFramesWithDifferences == 0;
+    }
+
+    private void compareFrame() {
+        boolean different = false;
+        long frame = fRecording.getFrameNumber();
+
+        for (int o = 0; o < fRecordedOutputs.length; o++) {
+            double recorded = fRecording.getValue(fRecordedOutputs[o]);
+            double replayed = fFlightRecorder.getCommitted(fReplayedOutputs[o]);
+            // NaN is an output that was not set in the frame, it only matches another NaN
+            if (Double.isNaN(recorded) && Double.isNaN(replayed)) {
+                continue;
+            }
+            double difference = Math.abs(recorded - replayed);
+            if (difference > fTolerance || Double.isNaN(difference)) {
+                fOutputDifferences[o]++;
+                fMaxOutputDifference[o] = Math.max(fMaxOutputDifference[o], difference);
+                logDifference(frame, fRecording.getColumnNames().get(fRecordedOutputs[o]), recorded, replayed);
+                different = true;
+            }
+        }
+
+        ControlMode recordedMode = fRecording.getControlMode();
+        ControlMode replayedMode = fFlightRecorder.getControlMode();
+        if (recordedMode != null && recordedMode != replayedMode) {
+            mControlModeDifferences++;
+            logDifference(frame, "control mode", recordedMode, replayedMode);
+            different = true;
+        }
+
+        for (int s = 0; s < fReplayedSubsystems.length; s++) {
+            String recordedState = fRecording.getActiveStateName(s);
+            String replayedState = fReplayedSubsystems[s] >= 0 ? fFlightRecorder.getActiveStateName(fReplayedSubsystems[s]) : "";
+            if (!recordedState.equals(replayedState)) {
+                mStateDifferences++;
+                logDifference(frame, fRecording.getSubsystemNames().get(s) + " state", recordedState, replayedState);
+                different = true;
+            }
+        }
+
+        if (different) {
+            mFramesWithDifferences++;
+        }
+    }
+
+    private void logDifference(long frame, String name, Object recorded, Object replayed) {
+        if (mLoggedDifferences < LOGGED_DIFFERENCES) {
+            mLoggedDifferences++;
+            sLogger.info("Frame {}: {} was {} when recorded and {} when replayed", frame, name, recorded, Objects.toString(replayed));
+        }
+    }
+
+    private void logSummary(double wallSeconds) {
+        double matchSeconds = fSim.getClock().getMillis() / 1000.0;
+        sLogger.info("Replayed {} frames ({} seconds of match time) in {} seconds, {}x real time",
+                mFrames, matchSeconds, wallSeconds, matchSeconds / wallSeconds);
+
+        for (int o = 0; o < fRecordedOutputs.length; o++) {
+            if (fOutputDifferences[o] > 0) {
+                sLogger.info("Output {} differed in {} frames, by at most {}", fRecording.getColumnNames().get(fRecordedOutputs[o]),
+                        fOutputDifferences[o], fMaxOutputDifference[o]);
+            }
+        }
+        if (mControlModeDifferences > 0) {
+            sLogger.info("Control mode differed in {} frames", mControlModeDifferences);
+        }
+        if (mStateDifferences > 0) {
+            sLogger.info("Active states differed {} times", mStateDifferences);
+        }
+
+        if (mFramesWithDifferences == 0) {
+            sLogger.info("Replay matches the recording");
+        } else {
+            sLogger.info("Replay differs from the recording in {} of {} frames", mFramesWithDifferences, mFrames);
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package org.team1619;
+
+import org.team1619.state.SimModule;
+import org.team1619.utilities.configuration.CompiledConfiguration;
+import org.team1619.utilities.logging.AsyncLogManager;
+import org.team1619.utilities.tuning.PathEpisode;
+import org.uacr.models.exceptions.ConfigurationException;
+import org.uacr.shared.abstractions.InputValues;
+import org.uacr.shared.abstractions.RobotConfiguration;
+import org.uacr.shared.concretions.SharedRobotConfiguration;
+import org.uacr.utilities.injection.Injector;
+import org.uacr.utilities.logging.LogManager;
+import org.uacr.utilities.logging.Logger;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sweeps the path model settings listed in global_path_tuner -> sweep for one path and writes every candidate, best first, to a csv file.
+ * Each candidate is a PathEpisode followed on a simulated drivetrain and scored on its time to finish and tracking error.
+ * Candidates are picked at random between each setting's min and max, except the first which is the model as it is in paths.yaml.
+ * Every core runs a worker with its own injector, robot configuration and input values, so episodes share nothing and
+ * the same arguments always give the same results.
+ *
+ * Usage: PathTuner [path name] [candidates] [results file]
+ */
+
+public class PathTuner {
+
+    private static final Logger sLogger = LogManager.getLogger(PathTuner.class);
+
+    private static final int DEFAULT_CANDIDATES = 2000;
+    private static final long SEED = 1619;
+    // How many of the best candidates are logged
+    private static final int LOGGED_CANDIDATES = 5;
+
+    private final String fPathName;
+    private final Map<?, ?> fPathsYaml;
+    private final Map<?, ?> fSettings;
+    private final String[] fSweepNames;
+    private final double[] fSweepMin;
+    private final double[] fSweepMax;
+
+    public PathTuner(String pathName) {
+        fPathName = pathName;
+        fPathsYaml = CompiledConfiguration.loadYaml("paths.yaml");
+        Object settings = CompiledConfiguration.loadYaml("robot-configuration.yaml").get("global_path_tuner");
+        if (!(settings instanceof Map)) {
+            throw new ConfigurationException("robot-configuration.yaml is missing global_path_tuner");
+        }
+        fSettings = (Map<?, ?>) settings;
+
+        Map<?, ?> sweep = fSettings.get("sweep") instanceof Map ? (Map<?, ?>) fSettings.get("sweep") : Map.of();
+        fSweepNames = new String[sweep.size()];
+        fSweepMin = new double[sweep.size()];
+        fSweepMax = new double[sweep.size()];
+        int s = 0;
+        for (Map.Entry<?, ?> setting : sweep.entrySet()) {
+            fSweepNames[s] = setting.getKey().toString();
+            if (!(setting.getValue() instanceof List) || ((List<?>) setting.getValue()).size() != 2 ||
+                    !(((List<?>) setting.getValue()).get(0) instanceof Number) || !(((List<?>) setting.getValue()).get(1) instanceof Number)) {
+                throw new ConfigurationException("global_path_tuner -> sweep -> " + fSweepNames[s] + " must be [min, max]");
+            }
+            fSweepMin[s] = ((Number) ((List<?>) setting.getValue()).get(0)).doubleValue();
+            fSweepMax[s] = ((Number) ((List<?>) setting.getValue()).get(1)).doubleValue();
+            s++;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: PathTuner [path name] [candidates] [results file]");
+            System.exit(2);
+        }
+
+        System.setProperty("logPath", "logs");
+
+        // general.yaml is read from the configuration compiled at build time
+        CompiledConfiguration.getLogLevel().ifPresent(AsyncLogManager::setLogLevel);
+
+        int candidates = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_CANDIDATES;
+        Path resultsFile = Paths.get(args.length > 2 ? args[2] : "logs/path_tuner_" + args[0] + ".csv");
+
+        PathTuner tuner = new PathTuner(args[0]);
+        tuner.writeResults(tuner.run(candidates), resultsFile);
+        System.exit(0);
+    }
+
+    /**
+     * Runs every candidate on all cores and returns them best first
+     */
+    public List<Candidate> run(int candidateCount) throws Exception {
+        long start = System.nanoTime();
+        Candidate[] candidates = new Candidate[candidateCount];
+        AtomicInteger next = new AtomicInteger();
+
+        int workerCount = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), candidateCount));
+        ExecutorService executor = Executors.newFixedThreadPool(workerCount);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int w = 0; w < workerCount; w++) {
+                workers.add(executor.submit(() -> {
+                    PathEpisode episode = createEpisode();
+                    // Workers take the next candidate when they finish one so a slow candidate does not hold up a whole share
+                    for (int c = next.getAndIncrement(); c < candidateCount; c = next.getAndIncrement()) {
+                        Map<String, Double> modelSettings = getModelSettings(c, episode.getModel());
+                        candidates[c] = new Candidate(c, modelSettings, episode.run(modelSettings));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        List<Candidate> results = new ArrayList<>(Arrays.asList(candidates));
+        results.sort(Comparator.comparingDouble((Candidate candidate) -> candidate.getResult().getScore()).thenComparingInt(Candidate::getIndex));
+
+        double wallSeconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        sLogger.info("Ran {} candidates for {} on {} workers in {} seconds, {} candidates/second",
+                candidateCount, fPathName, workerCount, wallSeconds, candidateCount / wallSeconds);
+        for (int c = 0; c < Math.min(LOGGED_CANDIDATES, results.size()); c++) {
+            sLogger.info("{}", results.get(c));
+        }
+        results.stream().filter(candidate -> candidate.getIndex() == 0).findFirst()
+                .ifPresent(current -> sLogger.info("Current paths.yaml model {}", current));
+        return results;
+    }
+
+    public void writeResults(List<Candidate> results, Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            writer.write("candidate,score,finished,seconds,mean_tracking_error,max_tracking_error");
+            for (String name : fSweepNames) {
+                writer.write("," + name);
+            }
+            writer.newLine();
+            for (Candidate candidate : results) {
+                PathEpisode.Result result = candidate.getResult();
+                writer.write(candidate.getIndex() + "," + result.getScore() + "," + result.isFinished() + "," + result.getSeconds() + "," +
+                        result.getMeanTrackingError() + "," + result.getMaxTrackingError());
+                for (String name : fSweepNames) {
+                    writer.write("," + candidate.getModelSettings().get(name));
+                }
+                writer.newLine();
+            }
+        }
+        sLogger.info("Wrote {} candidates to {}", results.size(), file);
+    }
+
+    // Built on the worker thread so the worker's injector, configuration and input values are only ever used by that worker
+    private PathEpisode createEpisode() {
+        Injector injector = new Injector(new SimModule());
+        injector.getInstance(SharedRobotConfiguration.class).initialize();
+        return new PathEpisode(injector.getInstance(InputValues.class), injector.getInstance(RobotConfiguration.class), fPathsYaml, fPathName, fSettings);
+    }
+
+    // Candidate 0 is the model in paths.yaml, the rest are random but always the same for the same index
+    private Map<String, Double> getModelSettings(int candidate, Map<?, ?> model) {
+        Map<String, Double> settings = new LinkedHashMap<>();
+        SplittableRandom random = new SplittableRandom(SEED + candidate);
+        for (int s = 0; s < fSweepNames.length; s++) {
+            if (candidate == 0) {
+                Object current = model.get(fSweepNames[s]);
+                settings.put(fSweepNames[s], current instanceof Number ? ((Number) current).doubleValue() : fSweepMin[s]);
+            } else {
+                settings.put(fSweepNames[s], fSweepMin[s] + (fSweepMax[s] - fSweepMin[s]) * random.nextDouble());
+            }
+        }
+        return settings;
+    }
+
+    public static final class Candidate {
+
+        private final int fIndex;
+        private final Map<String, Double> fModelSettings;
+        private final PathEpisode.Result fResult;
+
+        public Candidate(int index, Map<String, Double> modelSettings, PathEpisode.Result result) {
+            fIndex = index;
+            fModelSettings = modelSettings;
+            fResult = result;
+        }
+
+        public int getIndex() {
+            return fIndex;
+        }
+
+        public Map<String, Double> getModelSettings() {
+            return fModelSettings;
+        }
+
+        public PathEpisode.Result getResult() {
+            return fResult;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("candidate %d: score %.3f, %s in %.2f s, mean tracking error %.2f in, max %.2f in, %s", fIndex, fResult.getScore(),
+                    fResult.isFinished() ? "finished" : "did not finish", fResult.getSeconds(), fResult.getMeanTrackingError(),
+                    fResult.getMaxTrackingError(), fModelSettings);
+        }
+    }
+}
@@ -2,16 +2,25 @@ package org.team1619;
 
 import edu.wpi.first.wpilibj.RobotBase;
 import edu.wpi.first.wpilibj.TimedRobot;
+import org.team1619.services.can.TalonReadPeriodsService;
+import org.team1619.services.input.InputShapingService;
 import org.team1619.services.logging.LoggingService;
+import org.team1619.services.recording.FlightRecorderService;
+import org.team1619.services.startup.BootTimeline;
+import org.team1619.services.startup.ServiceStartup;
+import org.team1619.services.timing.FrameTimePublisherService;
+import org.team1619.services.timing.TimedServiceGroup;
 import org.team1619.state.RobotModule;
+import org.team1619.state.StateTracer;
+import org.team1619.utilities.configuration.CompiledConfiguration;
+import org.team1619.utilities.logging.AsyncLogManager;
+import org.team1619.utilities.timing.FrameTimes;
 import org.uacr.services.input.InputService;
 import org.uacr.services.output.OutputService;
 import org.uacr.services.states.StatesService;
 import org.uacr.services.webdashboard.WebDashboardService;
 import org.uacr.shared.abstractions.FMS;
 import org.uacr.shared.concretions.SharedRobotConfiguration;
-import org.uacr.utilities.Config;
-import org.uacr.utilities.YamlConfigParser;
 import org.uacr.utilities.injection.Injector;
 import org.uacr.utilities.logging.LogManager;
 import org.uacr.utilities.logging.Logger;
@@ -28,29 +37,57 @@ public class Robot extends TimedRobot {
     private final ServiceManager fServiceManager;
     private final InputService fInputService;
     private final FMS fFMS;
+    private final FrameTimes fFrameTimes;
+    private final StateTracer fStateTracer;
+    private final BootTimeline fBootTimeline;
 
     public Robot() {
-
-        YamlConfigParser parser = new YamlConfigParser();
-        parser.load("general.yaml");
-
-        Config loggerConfig = parser.getConfig("logger");
-        if (loggerConfig.contains("log_level")) {
-            LogManager.setLogLevel(loggerConfig.getEnum("log_level", LogManager.Level.class));
-        }
-
-        fInjector = new Injector(new RobotModule());
-        fInjector.getInstance(SharedRobotConfiguration.class).initialize();
-
-        StatesService statesService = fInjector.getInstance(StatesService.class);
-        fInputService = fInjector.getInstance(InputService.class);
-        OutputService outputService = fInjector.getInstance(OutputService.class);
-        LoggingService loggingService = fInjector.getInstance(LoggingService.class);
+        fBootTimeline = new BootTimeline();
+
+        // general.yaml is read from the configuration compiled at build time
+        CompiledConfiguration.getLogLevel().ifPresent(AsyncLogManager::setLogLevel);
+
+        fInjector = fBootTimeline.record("construct", "injector", () -> new Injector(new RobotModule()));
+        SharedRobotConfiguration robotConfiguration = fInjector.getInstance(SharedRobotConfiguration.class);
+        fBootTimeline.record("construct", "robot_configuration", () -> {
+            robotConfiguration.initialize();
+            return robotConfiguration;
+        });
+
+        StatesService statesService = fBootTimeline.record("construct", "state_service", () -> fInjector.getInstance(StatesService.class));
+        fInputService = fBootTimeline.record("construct", "input_service", () -> fInjector.getInstance(InputService.class));
+        OutputService outputService = fBootTimeline.record("construct", "output_service", () -> fInjector.getInstance(OutputService.class));
+        LoggingService loggingService = fBootTimeline.record("construct", "logging_service", () -> fInjector.getInstance(LoggingService.class));
         // TODO comment out to turn off webdashboard service
-        WebDashboardService webDashboardService = fInjector.getInstance(WebDashboardService.class);
-
-        ScheduledMultiService coreService = new ScheduledMultiService(new Scheduler(10), fInputService, statesService, outputService);
-        ScheduledMultiService infoService = new ScheduledMultiService(new Scheduler(30), loggingService, webDashboardService);
+        WebDashboardService webDashboardService = fBootTimeline.record("construct", "webdashboard_service", () -> fInjector.getInstance(WebDashboardService.class));
+
+        fFrameTimes = fInjector.getInstance(FrameTimes.class);
+        fStateTracer = fInjector.getInstance(StateTracer.class);
+        FrameTimePublisherService frameTimePublisherService = fInjector.getInstance(FrameTimePublisherService.class);
+        InputShapingService inputShapingService = fInjector.getInstance(InputShapingService.class);
+        FlightRecorderService flightRecorderService = fInjector.getInstance(FlightRecorderService.class);
+        TalonReadPeriodsService talonReadPeriodsService = fInjector.getInstance(TalonReadPeriodsService.class);
+
+        // Services that do not depend on each other start at the same time, see global_startup
+        ServiceStartup startup = new ServiceStartup(robotConfiguration, fBootTimeline);
+
+        // Every service is timed so frame time histograms can be checked against the global_timing thresholds
+        TimedServiceGroup coreTimes = new TimedServiceGroup(fFrameTimes, "core_thread", "frame_cycle_time_threshold_core_thread");
+        TimedServiceGroup infoTimes = new TimedServiceGroup(fFrameTimes, "info_thread", "frame_cycle_time_threshold_info_thread");
+
+        ScheduledMultiService coreService = new ScheduledMultiService(new Scheduler(10),
+                coreTimes.add("input_service", "frame_time_threshold_input_service", startup.add("input_service", fInputService)),
+                coreTimes.add("input_shaping_service", "frame_time_threshold_input_shaping_service", startup.add("input_shaping_service", inputShapingService)),
+                coreTimes.add("state_service", "frame_time_threshold_state_service", startup.add("state_service", statesService)),
+                coreTimes.add("output_service", "frame_time_threshold_output_service", startup.add("output_service", outputService)),
+                // Runs last so each recorded frame has the outputs set during that frame
+                coreTimes.add("flight_recorder_service", "frame_time_threshold_flight_recorder_service",
+                        startup.add("flight_recorder_service", flightRecorderService)));
+        ScheduledMultiService infoService = new ScheduledMultiService(new Scheduler(30),
+                infoTimes.add("logging_service", "frame_time_threshold_logging_service", startup.add("logging_service", loggingService)),
+                infoTimes.add("webdashboard_service", "frame_time_threshold_webdashboard_service", startup.add("webdashboard_service", webDashboardService)),
+                startup.add("frame_time_publisher_service", frameTimePublisherService),
+                startup.add("talon_read_periods_service", talonReadPeriodsService));
 
         fServiceManager = new AsyncServiceManager(coreService, infoService);
 
@@ -70,6 +107,7 @@ public class Robot extends TimedRobot {
         sLogger.info("Starting services");
         fServiceManager.start();
         fServiceManager.awaitHealthy();
+        fBootTimeline.log();
 
         sLogger.info("********************* ALL SERVICES STARTED *******************************");
     }
@@ -81,6 +119,10 @@ public class Robot extends TimedRobot {
 
     @Override
     public void autonomousInit() {
+        // A match starts with autonomous, count frame time breaches per match
+        // Both are cleared by the threads that record them
+        fFrameTimes.startMatch();
+        fStateTracer.requestMatchStart();
         fFMS.setMode(FMS.Mode.AUTONOMOUS);
     }
 
@@ -1,14 +1,21 @@
 package org.team1619;
 
+import org.team1619.services.input.InputShapingService;
 import org.team1619.services.logging.LoggingService;
+import org.team1619.services.recording.FlightRecorderService;
+import org.team1619.services.startup.BootTimeline;
+import org.team1619.services.startup.ServiceStartup;
+import org.team1619.services.timing.FrameTimePublisherService;
+import org.team1619.services.timing.TimedServiceGroup;
 import org.team1619.state.SimModule;
+import org.team1619.utilities.configuration.CompiledConfiguration;
+import org.team1619.utilities.logging.AsyncLogManager;
+import org.team1619.utilities.timing.FrameTimes;
 import org.uacr.services.input.InputService;
 import org.uacr.services.output.OutputService;
 import org.uacr.services.states.StatesService;
 import org.uacr.services.webdashboard.WebDashboardService;
 import org.uacr.shared.concretions.SharedRobotConfiguration;
-import org.uacr.utilities.Config;
-import org.uacr.utilities.YamlConfigParser;
 import org.uacr.utilities.injection.Injector;
 import org.uacr.utilities.logging.LogManager;
 import org.uacr.utilities.logging.Logger;
@@ -25,16 +32,13 @@ public class Sim {
 
         System.setProperty("logPath", "logs");
 
-        YamlConfigParser parser = new YamlConfigParser();
-        parser.load("general.yaml");
-
-        Config loggerConfig = parser.getConfig("logger");
-        if (loggerConfig.contains("log_level")) {
-            LogManager.setLogLevel(loggerConfig.getEnum("log_level", LogManager.Level.class));
-        }
+        // general.yaml is read from the configuration compiled at build time
+        CompiledConfiguration.getLogLevel().ifPresent(AsyncLogManager::setLogLevel);
 
+        BootTimeline bootTimeline = new BootTimeline();
         Injector injector = new Injector(new SimModule());
-        injector.getInstance(SharedRobotConfiguration.class).initialize();
+        SharedRobotConfiguration robotConfiguration = injector.getInstance(SharedRobotConfiguration.class);
+        robotConfiguration.initialize();
 
         StatesService statesService = injector.getInstance(StatesService.class);
         InputService inputService = injector.getInstance(InputService.class);
@@ -42,14 +46,37 @@ public class Sim {
         LoggingService loggingService = injector.getInstance(LoggingService.class);
         WebDashboardService webDashboardService = injector.getInstance(WebDashboardService.class);
 
-        ScheduledMultiService coreService = new ScheduledMultiService(new Scheduler(10), inputService, statesService, outputService);
-        ScheduledMultiService infoService = new ScheduledMultiService(new Scheduler(30), loggingService, webDashboardService);
+        FrameTimes frameTimes = injector.getInstance(FrameTimes.class);
+        FrameTimePublisherService frameTimePublisherService = injector.getInstance(FrameTimePublisherService.class);
+        InputShapingService inputShapingService = injector.getInstance(InputShapingService.class);
+        FlightRecorderService flightRecorderService = injector.getInstance(FlightRecorderService.class);
+
+        // Services that do not depend on each other start at the same time, see global_startup
+        ServiceStartup startup = new ServiceStartup(robotConfiguration, bootTimeline);
+
+        // Every service is timed so frame time histograms can be checked against the global_timing thresholds
+        TimedServiceGroup coreTimes = new TimedServiceGroup(frameTimes, "core_thread", "frame_cycle_time_threshold_core_thread");
+        TimedServiceGroup infoTimes = new TimedServiceGroup(frameTimes, "info_thread", "frame_cycle_time_threshold_info_thread");
+
+        ScheduledMultiService coreService = new ScheduledMultiService(new Scheduler(10),
+                coreTimes.add("input_service", "frame_time_threshold_input_service", startup.add("input_service", inputService)),
+                coreTimes.add("input_shaping_service", "frame_time_threshold_input_shaping_service", startup.add("input_shaping_service", inputShapingService)),
+                coreTimes.add("state_service", "frame_time_threshold_state_service", startup.add("state_service", statesService)),
+                coreTimes.add("output_service", "frame_time_threshold_output_service", startup.add("output_service", outputService)),
+                // Runs last so each recorded frame has the outputs set during that frame
+                coreTimes.add("flight_recorder_service", "frame_time_threshold_flight_recorder_service",
+                        startup.add("flight_recorder_service", flightRecorderService)));
+        ScheduledMultiService infoService = new ScheduledMultiService(new Scheduler(30),
+                infoTimes.add("logging_service", "frame_time_threshold_logging_service", startup.add("logging_service", loggingService)),
+                infoTimes.add("webdashboard_service", "frame_time_threshold_webdashboard_service", startup.add("webdashboard_service", webDashboardService)),
+                startup.add("frame_time_publisher_service", frameTimePublisherService));
 
         ServiceManager serviceManager = new AsyncServiceManager(coreService, infoService);
 
         sLogger.info("Starting services");
         serviceManager.start();
         serviceManager.awaitHealthy();
+        bootTimeline.log();
         sLogger.info("********************* ALL SERVICES STARTED *******************************");
         serviceManager.awaitStopped();
         sLogger.info("All Services stopped");
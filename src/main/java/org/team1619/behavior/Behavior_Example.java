@@ -1,12 +1,12 @@
 package org.team1619.behavior;
 
+import org.team1619.utilities.logging.AsyncLogManager;
+import org.team1619.utilities.logging.AsyncLogger;
 import org.uacr.models.behavior.Behavior;
 import org.uacr.shared.abstractions.InputValues;
 import org.uacr.shared.abstractions.OutputValues;
 import org.uacr.shared.abstractions.RobotConfiguration;
 import org.uacr.utilities.Config;
-import org.uacr.utilities.logging.LogManager;
-import org.uacr.utilities.logging.Logger;
 
 import java.util.Set;
 
@@ -16,7 +16,7 @@ import java.util.Set;
 
 public class Behavior_Example implements Behavior {
 
-    private static final Logger sLogger = LogManager.getLogger(Behavior_Example.class);
+    private static final AsyncLogger sLogger = AsyncLogManager.getLogger(Behavior_Example.class);
     private static final Set<String> sSubsystems = Set.of("nameofsubsystem");
 
     private final InputValues fSharedInputValues;
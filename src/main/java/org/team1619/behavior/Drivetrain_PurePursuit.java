@@ -0,0 +1,148 @@
+package org.team1619.behavior;
+
+import org.team1619.utilities.logging.AsyncLogManager;
+import org.team1619.utilities.logging.AsyncLogger;
+import org.team1619.utilities.purepursuit.PathFollower;
+import org.team1619.utilities.purepursuit.Paths;
+import org.team1619.utilities.signals.SignalBank;
+import org.team1619.utilities.signals.SignalBank.NumericSignal;
+import org.team1619.utilities.swerve.SwerveKinematics;
+import org.team1619.utilities.swerve.SwerveModuleSignals;
+import org.uacr.models.behavior.Behavior;
+import org.uacr.shared.abstractions.InputValues;
+import org.uacr.shared.abstractions.OutputValues;
+import org.uacr.shared.abstractions.RobotConfiguration;
+import org.uacr.utilities.Config;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Follows a path from paths.yaml with the swerve drive using the odometry pose published by robot status.
+ * Paths are generated once when they are loaded, each state only picks a path by name and creates a follower for it the first time.
+ */
+
+public class Drivetrain_PurePursuit implements Behavior {
+
+    private static final AsyncLogger sLogger = AsyncLogManager.getLogger(Drivetrain_PurePursuit.class);
+    private static final Set<String> sSubsystems = Set.of("ss_drivetrain");
+
+    private final Paths fPaths;
+    private final Map<String, PathFollower> fFollowers;
+
+    private final SignalBank fSignals;
+    private final NumericSignal fOdometryX;
+    private final NumericSignal fOdometryY;
+    private final NumericSignal fOdometryHeading;
+
+    // Debug values
+    private final NumericSignal fClosestPoint;
+    private final NumericSignal fLookAheadX;
+    private final NumericSignal fLookAheadY;
+    private final NumericSignal fTrackingError;
+
+    private final SwerveKinematics fKinematics;
+    private final SwerveModuleSignals fModules;
+
+    // Preallocated so update() does not allocate
+    private final double[] fSpeeds;
+    private final double[] fAngles;
+    private final double[] fCurrentAngles;
+
+    private String mStateName;
+    private PathFollower mFollower;
+
+    public Drivetrain_PurePursuit(InputValues inputValues, OutputValues outputValues, Config config, RobotConfiguration robotConfiguration, Paths paths) {
+        fPaths = paths;
+        fFollowers = new HashMap<>();
+
+        fSignals = new SignalBank(inputValues, outputValues, robotConfiguration);
+        fOdometryX = fSignals.publishedNumeric("ipn_odometry_x");
+        fOdometryY = fSignals.publishedNumeric("ipn_odometry_y");
+        fOdometryHeading = fSignals.publishedNumeric("ipn_odometry_heading");
+
+        fClosestPoint = fSignals.internalNumeric("opn_pure_pursuit_closest_point");
+        fLookAheadX = fSignals.internalNumeric("opn_pure_pursuit_look_ahead_x");
+        fLookAheadY = fSignals.internalNumeric("opn_pure_pursuit_look_ahead_y");
+        fTrackingError = fSignals.internalNumeric("opn_pure_pursuit_tracking_error");
+
+        fKinematics = new SwerveKinematics(robotConfiguration);
+        fModules = new SwerveModuleSignals(fSignals, fKinematics, robotConfiguration);
+
+        int moduleCount = fKinematics.getModuleCount();
+        fSpeeds = new double[moduleCount];
+        fAngles = new double[moduleCount];
+        fCurrentAngles = new double[moduleCount];
+
+        // Behaviors are built for each state at startup, so the state's follower is ready before the state first runs
+        if (config.contains("path_name")) {
+            String pathName = config.getString("path_name");
+            fFollowers.put(pathName, new PathFollower(fPaths.getPath(pathName)));
+        }
+
+        mStateName = "Unknown";
+        mFollower = null;
+    }
+
+    @Override
+    public void initialize(String stateName, Config config) {
+        sLogger.debug("Entering state {}", stateName);
+
+        mStateName = stateName;
+
+        String pathName = config.getString("path_name");
+        mFollower = fFollowers.computeIfAbsent(pathName, name -> new PathFollower(fPaths.getPath(name)));
+
+        // Hold the current heading unless the state gives one
+        fSignals.sample();
+        mFollower.reset(config.getDouble("heading", fSignals.get(fOdometryHeading)));
+    }
+
+    @Override
+    public void update() {
+        fSignals.sample();
+
+        if (mFollower == null) {
+            return;
+        }
+
+        mFollower.update(fSignals.get(fOdometryX), fSignals.get(fOdometryY), fSignals.get(fOdometryHeading));
+
+        fSignals.set(fClosestPoint, mFollower.getClosestPoint());
+        fSignals.set(fLookAheadX, mFollower.getLookAheadX());
+        fSignals.set(fLookAheadY, mFollower.getLookAheadY());
+        fSignals.set(fTrackingError, mFollower.getTrackingError());
+
+        if (mFollower.isDone()) {
+            fModules.stop();
+        } else {
+            fKinematics.toModuleStates(mFollower.getForward(), mFollower.getStrafe(), mFollower.getRotate(), fSpeeds, fAngles);
+            SwerveKinematics.desaturate(fSpeeds, 1.0);
+
+            fModules.readAngles(fCurrentAngles);
+            SwerveKinematics.optimize(fSpeeds, fAngles, fCurrentAngles);
+            fModules.setModules(fSpeeds, fAngles);
+        }
+
+        fSignals.flush();
+    }
+
+    @Override
+    public void dispose() {
+        sLogger.trace("Leaving state {}", mStateName);
+        fModules.stop();
+        fSignals.flush();
+        mFollower = null;
+    }
+
+    @Override
+    public boolean isDone() {
+        return mFollower == null || mFollower.isDone();
+    }
+
+    @Override
+    public Set<String> getSubsystems() {
+        return sSubsystems;
+    }
+}
@@ -1,28 +1,38 @@
 package org.team1619.behavior;
 
+import org.team1619.utilities.logging.AsyncLogManager;
+import org.team1619.utilities.logging.AsyncLogger;
+import org.team1619.utilities.signals.SignalBank;
+import org.team1619.utilities.signals.SignalBank.BooleanSignal;
+import org.team1619.utilities.signals.SignalBank.NumericSignal;
+import org.team1619.utilities.signals.SignalBank.OutputSignal;
+import org.team1619.utilities.swerve.SwerveKinematics;
+import org.team1619.utilities.time.FrameTimer;
 import org.uacr.models.behavior.Behavior;
 import org.uacr.shared.abstractions.InputValues;
 import org.uacr.shared.abstractions.OutputValues;
 import org.uacr.shared.abstractions.RobotConfiguration;
 import org.uacr.utilities.Config;
-import org.uacr.utilities.Timer;
-import org.uacr.utilities.logging.LogManager;
-import org.uacr.utilities.logging.Logger;
 
 import java.util.Set;
 
 /**
  * Zeros the drivetrain.
+ * Stops the swerve modules and zeros the encoder of every module's speed talon until all of their positions read close to 0.
+ * The angle talons are left alone so the modules keep their angles.
  */
 
 public class Drivetrain_Zero implements Behavior {
 
-    private static final Logger sLogger = LogManager.getLogger(Drivetrain_Zero.class);
+    private static final AsyncLogger sLogger = AsyncLogManager.getLogger(Drivetrain_Zero.class);
     private static final Set<String> sSubsystems = Set.of("ss_drivetrain");
 
-    private final InputValues fSharedInputValues;
-    private final OutputValues fSharedOutputValues;
-    private final Timer fTimeoutTimer;
+    private final SignalBank fSignals;
+    private final BooleanSignal fDrivetrainZeroed;
+    private final BooleanSignal fOdometryZeroed;
+    private final OutputSignal[] fSpeedOutputs;
+    private final NumericSignal[] fPositionInputs;
+    private final FrameTimer fTimeoutTimer;
 
     private int mTimeoutTime;
     private double mZeroingThreshold;
@@ -30,9 +40,19 @@ public class Drivetrain_Zero implements Behavior {
 
 
     public Drivetrain_Zero(InputValues inputValues, OutputValues outputValues, Config config, RobotConfiguration robotConfiguration) {
-        fSharedInputValues = inputValues;
-        fSharedOutputValues = outputValues;
-        fTimeoutTimer = new Timer();
+        fSignals = new SignalBank(inputValues, outputValues, robotConfiguration);
+        fDrivetrainZeroed = fSignals.internalBoolean("ipb_drivetrain_has_been_zeroed");
+        fOdometryZeroed = fSignals.internalBoolean("ipb_odometry_has_been_zeroed");
+
+        SwerveKinematics kinematics = new SwerveKinematics(robotConfiguration);
+        fSpeedOutputs = new OutputSignal[kinematics.getModuleCount()];
+        fPositionInputs = new NumericSignal[kinematics.getModuleCount()];
+        for (int m = 0; m < kinematics.getModuleCount(); m++) {
+            String module = kinematics.getModuleName(m);
+            fSpeedOutputs[m] = fSignals.outputNumeric(SwerveKinematics.getModuleSetting(robotConfiguration, module, "speed_output"), "percent");
+            fPositionInputs[m] = fSignals.publishedNumeric(SwerveKinematics.getModuleSetting(robotConfiguration, module, "position_input"));
+        }
+        fTimeoutTimer = new FrameTimer();
 
         mTimeoutTime = 1000;
         mZeroingThreshold = 0.0;
@@ -50,42 +70,48 @@ public class Drivetrain_Zero implements Behavior {
         fTimeoutTimer.reset();
         fTimeoutTimer.start(mTimeoutTime);
 
-        fSharedOutputValues.setNumeric("opn_drivetrain_left", "percent", 0.0);
-        fSharedOutputValues.setNumeric("opn_drivetrain_right", "percent", 0.0);
+        fSignals.sample();
+        stop();
+        fSignals.flush();
     }
 
     @Override
     public void update() {
+        fSignals.sample();
 
-        if (!fSharedInputValues.getBoolean("ipb_drivetrain_has_been_zeroed")) {
+        if (!fSignals.get(fDrivetrainZeroed)) {
 
-            fSharedOutputValues.setOutputFlag("opn_drivetrain_left", "zero");
-            fSharedOutputValues.setOutputFlag("opn_drivetrain_right", "zero");
+            boolean zeroed = true;
+            for (int m = 0; m < fSpeedOutputs.length; m++) {
+                fSignals.setFlag(fSpeedOutputs[m], "zero");
+                zeroed &= Math.abs(fSignals.get(fPositionInputs[m])) < mZeroingThreshold;
+            }
 
-            if (Math.abs(fSharedInputValues.getNumeric("ipn_drivetrain_left_primary_position")) < mZeroingThreshold && Math.abs(fSharedInputValues.getNumeric("ipn_drivetrain_right_primary_position")) < mZeroingThreshold) {
+            if (zeroed) {
                 sLogger.debug("Drivetrain Zero -> Zeroed");
-                fSharedOutputValues.setNumeric("opn_drivetrain_left", "percent", 0);
-                fSharedOutputValues.setNumeric("opn_drivetrain_right", "percent", 0);
-                fSharedInputValues.setBoolean("ipb_odometry_has_been_zeroed", false);
-                fSharedInputValues.setBoolean("ipb_drivetrain_has_been_zeroed", true);
+                stop();
+                fSignals.set(fOdometryZeroed, false);
+                fSignals.set(fDrivetrainZeroed, true);
             }
         }
+
+        fSignals.flush();
     }
 
     @Override
     public void dispose() {
         sLogger.trace("Leaving state {}", mStateName);
-        fSharedOutputValues.setNumeric("opn_drivetrain_left", "percent", 0);
-        fSharedOutputValues.setNumeric("opn_drivetrain_right", "percent", 0);
+        stop();
+        fSignals.flush();
     }
 
     @Override
     public boolean isDone() {
-        if (fTimeoutTimer.isDone() && !fSharedInputValues.getBoolean("ipb_drivetrain_has_been_zeroed")) {
+        if (fTimeoutTimer.isDone() && !fSignals.get(fDrivetrainZeroed)) {
             fTimeoutTimer.reset();
             sLogger.error("Drivetrain Zero -> Timed Out");
         }
-        return fSharedInputValues.getBoolean("ipb_drivetrain_has_been_zeroed") || fTimeoutTimer.isDone();
+        return fSignals.get(fDrivetrainZeroed) || fTimeoutTimer.isDone();
     }
 
     @Override
@@ -93,4 +119,9 @@ public class Drivetrain_Zero implements Behavior {
         return sSubsystems;
     }
 
+    private void stop() {
+        for (OutputSignal speedOutput : fSpeedOutputs) {
+            fSignals.set(speedOutput, 0);
+        }
+    }
 }
@@ -1,7 +1,15 @@
 package org.team1619.modelfactory;
 
+import org.team1619.behavior.Drivetrain_PurePursuit;
 import org.team1619.behavior.Drivetrain_Swerve;
 import org.team1619.behavior.Drivetrain_Zero;
+import org.team1619.utilities.configuration.CompiledConfiguration;
+import org.team1619.state.StateTracer;
+import org.team1619.utilities.purepursuit.Paths;
+import org.team1619.utilities.recording.FlightRecorder;
+import org.team1619.utilities.recording.RecordedBehavior;
+import org.team1619.utilities.recording.RecordingOutputValues;
+import org.team1619.utilities.timing.FrameTimes;
 import org.uacr.models.behavior.Behavior;
 import org.uacr.models.exceptions.ConfigurationException;
 import org.uacr.robot.AbstractModelFactory;
@@ -13,35 +21,123 @@ import org.uacr.utilities.Config;
 import org.uacr.utilities.logging.LogManager;
 import org.uacr.utilities.logging.Logger;
 
+import java.util.*;
+
 public class ModelFactory_Behaviors extends AbstractModelFactory {
 
     private static final Logger sLogger = LogManager.getLogger(ModelFactory_Behaviors.class);
 
+    // Every behavior is registered here by name
+    private static final Map<String, BehaviorConstructor> sBehaviors = createBehaviorConstructors();
+
     private final InputValues fSharedInputValues;
     private final OutputValues fSharedOutputValues;
     private final RobotConfiguration fRobotConfiguration;
+    private final FrameTimes fFrameTimes;
+    private final Paths fPaths;
+    private final FlightRecorder fFlightRecorder;
+    private final StateTracer fStateTracer;
+
+    // Behaviors are built once for each name and config, state transitions reuse them
+    private final Map<String, Map<Map<String, Object>, Behavior>> fBehaviors;
 
-    public ModelFactory_Behaviors(InputValues inputValues, OutputValues outputValues, RobotConfiguration robotConfiguration, ObjectsDirectory objectsDirectory) {
+    public ModelFactory_Behaviors(InputValues inputValues, OutputValues outputValues, RobotConfiguration robotConfiguration, ObjectsDirectory objectsDirectory, FrameTimes frameTimes, Paths paths, FlightRecorder flightRecorder, StateTracer stateTracer) {
         super(inputValues, outputValues, robotConfiguration, objectsDirectory);
         fSharedInputValues = inputValues;
-        fSharedOutputValues = outputValues;
+        // Behaviors write outputs through the recorder so every output is in the flight recording
+        fSharedOutputValues = new RecordingOutputValues(outputValues, flightRecorder);
         fRobotConfiguration = robotConfiguration;
+        fFrameTimes = frameTimes;
+        fPaths = paths;
+        fFlightRecorder = flightRecorder;
+        fStateTracer = stateTracer;
+        fBehaviors = new HashMap<>();
+
+        createStateBehaviors();
     }
 
-    public Behavior createBehavior(String name, Config config) {
-        sLogger.trace("Creating behavior '{}' of type '{}' with config '{}'", name, config.getType(), config.getData());
+    public synchronized Behavior createBehavior(String name, Config config) {
+        Map<Map<String, Object>, Behavior> behaviors = fBehaviors.computeIfAbsent(name, behaviorName -> new HashMap<>());
+        Behavior behavior = behaviors.get(config.getData());
+        if (behavior == null) {
+            sLogger.trace("Creating behavior '{}' of type '{}' with config '{}'", name, config.getType(), config.getData());
 
-        switch (name) {
-            // Drivetrain
-            case "bh_drivetrain_swerve":
-                return new Drivetrain_Swerve(fSharedInputValues, fSharedOutputValues, config, fRobotConfiguration);
-            case "bh_drivetrain_zero":
-                return new Drivetrain_Zero(fSharedInputValues, fSharedOutputValues, config, fRobotConfiguration);
+            // Record how long every behavior's update() takes, which state it is running in and when its state starts and stops
+            behavior = new RecordedBehavior(fStateTracer.traceBehavior(fFrameTimes.timeBehavior(name, instantiateBehavior(name, config))), fFlightRecorder);
+            behaviors.put(new HashMap<>(config.getData()), behavior);
+        }
+        return behavior;
+    }
 
-            // State not found
-            default:
-                throw new ConfigurationException("Behavior " + name + " does not exist.");
+    // Builds the behavior of every state in states.yaml at startup, startup fails listing every behavior that can not be built
+    private void createStateBehaviors() {
+        List<String> errors = new ArrayList<>();
+        int stateCount = 0;
+        for (Object section : CompiledConfiguration.loadYaml("states.yaml").values()) {
+            if (!(section instanceof Map)) {
+                continue;
+            }
+            for (Map.Entry<?, ?> state : ((Map<?, ?>) section).entrySet()) {
+                if (!(state.getValue() instanceof Map) || !((Map<?, ?>) state.getValue()).containsKey("behavior")) {
+                    continue;
+                }
+                Map<?, ?> stateConfig = (Map<?, ?>) state.getValue();
+                String behavior = String.valueOf(stateConfig.get("behavior"));
+
+                Map<String, Object> behaviorConfig = new HashMap<>();
+                if (stateConfig.get("behavior_config") instanceof Map) {
+                    for (Map.Entry<?, ?> entry : ((Map<?, ?>) stateConfig.get("behavior_config")).entrySet()) {
+                        behaviorConfig.put(String.valueOf(entry.getKey()), entry.getValue());
+                    }
+                }
+
+                try {
+                    createBehavior(behavior, new Config(behavior, behaviorConfig));
+                    stateCount++;
+                } catch (ConfigurationException e) {
+                    errors.add("State " + state.getKey() + ": " + e.getMessage());
+                }
+            }
         }
+
+        if (!errors.isEmpty()) {
+            // Fail startup instead of finding a broken state when the robot enters it during a match
+            throw new ConfigurationException("Could not build the behaviors of " + errors.size() + " states:\n" + String.join("\n", errors));
+        }
+        sLogger.debug("Built behaviors for {} states", stateCount);
+    }
+
+    /**
+     * The name of every behavior states.yaml can use, ConfigurationCompiler checks states.yaml against these
+     */
+    public static Set<String> getBehaviorNames() {
+        return sBehaviors.keySet();
+    }
+
+    private Behavior instantiateBehavior(String name, Config config) {
+        BehaviorConstructor constructor = sBehaviors.get(name);
+        if (constructor == null) {
+            throw new ConfigurationException("Behavior " + name + " does not exist.");
+        }
+        return constructor.create(this, config);
+    }
+
+    private static Map<String, BehaviorConstructor> createBehaviorConstructors() {
+        Map<String, BehaviorConstructor> behaviors = new LinkedHashMap<>();
+
+        // Drivetrain
+        behaviors.put("bh_drivetrain_swerve", (factory, config) -> new Drivetrain_Swerve(factory.fSharedInputValues, factory.fSharedOutputValues, config,
+                factory.fRobotConfiguration, factory.fFlightRecorder));
+        behaviors.put("bh_drivetrain_zero", (factory, config) -> new Drivetrain_Zero(factory.fSharedInputValues, factory.fSharedOutputValues, config,
+                factory.fRobotConfiguration));
+        behaviors.put("bh_drivetrain_pure_pursuit", (factory, config) -> new Drivetrain_PurePursuit(factory.fSharedInputValues, factory.fSharedOutputValues, config,
+                factory.fRobotConfiguration, factory.fPaths));
+
+        return Collections.unmodifiableMap(behaviors);
+    }
+
+    private interface BehaviorConstructor {
+        Behavior create(ModelFactory_Behaviors factory, Config config);
     }
 
 }
\ No newline at end of file
@@ -1,6 +1,10 @@
 package org.team1619.modelfactory;
 
 import org.team1619.robot.AbstractRobotModelFactory;
+import org.team1619.state.StateTracer;
+import org.team1619.utilities.purepursuit.Paths;
+import org.team1619.utilities.recording.FlightRecorder;
+import org.team1619.utilities.timing.FrameTimes;
 import org.uacr.robot.AbstractModelFactory;
 import org.uacr.shared.abstractions.InputValues;
 import org.uacr.shared.abstractions.ObjectsDirectory;
@@ -15,10 +19,10 @@ public class RobotModelFactory extends AbstractModelFactory {
     private static final Logger sLogger = LogManager.getLogger(RobotModelFactory.class);
 
     @Inject
-    public RobotModelFactory(InputValues inputValues, OutputValues outputValues, RobotConfiguration robotConfiguration, ObjectsDirectory objectsDirectory) {
+    public RobotModelFactory(InputValues inputValues, OutputValues outputValues, RobotConfiguration robotConfiguration, ObjectsDirectory objectsDirectory, FrameTimes frameTimes, Paths paths, FlightRecorder flightRecorder, StateTracer stateTracer) {
         super(inputValues, outputValues, robotConfiguration, objectsDirectory);
         registerModelFactory(new AbstractRobotModelFactory(inputValues, outputValues, robotConfiguration, objectsDirectory));
-        registerModelFactory(new ModelFactory_Behaviors(inputValues, outputValues, robotConfiguration, objectsDirectory));
+        registerModelFactory(new ModelFactory_Behaviors(inputValues, outputValues, robotConfiguration, objectsDirectory, frameTimes, paths, flightRecorder, stateTracer));
     }
 
 }
\ No newline at end of file
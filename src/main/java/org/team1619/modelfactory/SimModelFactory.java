@@ -1,6 +1,10 @@
 package org.team1619.modelfactory;
 
 import org.team1619.robot.AbstractSimModelFactory;
+import org.team1619.state.StateTracer;
+import org.team1619.utilities.purepursuit.Paths;
+import org.team1619.utilities.recording.FlightRecorder;
+import org.team1619.utilities.timing.FrameTimes;
 import org.uacr.shared.abstractions.*;
 import org.uacr.utilities.injection.Inject;
 import org.uacr.utilities.logging.LogManager;
@@ -11,9 +15,9 @@ public class SimModelFactory extends AbstractSimModelFactory {
     private static final Logger sLogger = LogManager.getLogger(SimModelFactory.class);
 
     @Inject
-    public SimModelFactory(EventBus eventBus, InputValues inputValues, OutputValues outputValues, RobotConfiguration robotConfiguration, ObjectsDirectory objectsDirectory) {
+    public SimModelFactory(EventBus eventBus, InputValues inputValues, OutputValues outputValues, RobotConfiguration robotConfiguration, ObjectsDirectory objectsDirectory, FrameTimes frameTimes, Paths paths, FlightRecorder flightRecorder, StateTracer stateTracer) {
         super(eventBus, inputValues, outputValues, robotConfiguration, objectsDirectory);
         registerModelFactory(new AbstractSimModelFactory(eventBus, inputValues, outputValues, robotConfiguration, objectsDirectory));
-        registerModelFactory(new ModelFactory_Behaviors(inputValues, outputValues, robotConfiguration, objectsDirectory));
+        registerModelFactory(new ModelFactory_Behaviors(inputValues, outputValues, robotConfiguration, objectsDirectory, frameTimes, paths, flightRecorder, stateTracer));
     }
 }
\ No newline at end of file
@@ -0,0 +1,40 @@
+package org.team1619.services.can;
+
+import org.team1619.utilities.can.TalonReadPeriods;
+import org.uacr.utilities.injection.Inject;
+import org.uacr.utilities.logging.LogManager;
+import org.uacr.utilities.logging.Logger;
+import org.uacr.utilities.services.Service;
+
+/**
+ * Sets the talon read periods once the output service has configured the talons,
+ * then checks every iteration for a talon that reset and lost them. Checking for a reset does not use the CAN bus.
+ */
+
+public class TalonReadPeriodsService implements Service {
+
+    private static final Logger sLogger = LogManager.getLogger(TalonReadPeriodsService.class);
+
+    private final TalonReadPeriods fReadPeriods;
+
+    @Inject
+    public TalonReadPeriodsService(TalonReadPeriods readPeriods) {
+        fReadPeriods = readPeriods;
+    }
+
+    @Override
+    public void startUp() throws Exception {
+        sLogger.info("Starting TalonReadPeriodsService");
+        fReadPeriods.apply();
+    }
+
+    @Override
+    public void runOneIteration() throws Exception {
+        fReadPeriods.reapplyAfterReset();
+    }
+
+    @Override
+    public void shutDown() throws Exception {
+
+    }
+}
@@ -0,0 +1,4 @@
+@NonNullByDefault
+package org.team1619.services.can;
+
+import org.uacr.NonNullByDefault;
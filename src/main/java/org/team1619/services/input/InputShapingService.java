@@ -0,0 +1,95 @@
+package org.team1619.services.input;
+
+import org.team1619.utilities.input.StickShaper;
+import org.team1619.utilities.time.FrameClock;
+import org.uacr.models.exceptions.ConfigurationException;
+import org.uacr.shared.abstractions.FMS;
+import org.uacr.shared.abstractions.InputValues;
+import org.uacr.shared.abstractions.RobotConfiguration;
+import org.uacr.utilities.injection.Inject;
+import org.uacr.utilities.logging.LogManager;
+import org.uacr.utilities.logging.Logger;
+import org.uacr.utilities.services.Service;
+
+import java.util.Map;
+
+/**
+ * Runs in the core thread right after the input service and shapes the joysticks listed in global_input_shaping -> sticks,
+ * see StickShaper for the settings. Each stick's x and y axes are shaped together and written to the shared input values
+ * as [axis]_shaped, behaviors read the shaped values instead of doing their own joystick math.
+ * Every stick is reset when the FMS mode changes so nothing carries over from before the robot was enabled or disabled.
+ */
+
+public class InputShapingService implements Service {
+
+    private static final Logger sLogger = LogManager.getLogger(InputShapingService.class);
+
+    private final InputValues fSharedInputValues;
+    private final FMS fFMS;
+    private final String[] fXInputs;
+    private final String[] fYInputs;
+    private final String[] fXOutputs;
+    private final String[] fYOutputs;
+    private final StickShaper[] fShapers;
+
+    private FMS.Mode mMode;
+
+    @Inject
+    public InputShapingService(InputValues inputValues, FMS fms, RobotConfiguration robotConfiguration) {
+        fSharedInputValues = inputValues;
+        fFMS = fms;
+
+        Map<String, Object> sticks = robotConfiguration.contains("global_input_shaping", "sticks") ?
+                robotConfiguration.getMap("global_input_shaping", "sticks") : Map.of();
+        fXInputs = new String[sticks.size()];
+        fYInputs = new String[sticks.size()];
+        fXOutputs = new String[sticks.size()];
+        fYOutputs = new String[sticks.size()];
+        fShapers = new StickShaper[sticks.size()];
+        int stick = 0;
+        for (Map.Entry<String, Object> entry : sticks.entrySet()) {
+            if (!(entry.getValue() instanceof Map) || !(((Map<?, ?>) entry.getValue()).get("x") instanceof String) ||
+                    !(((Map<?, ?>) entry.getValue()).get("y") instanceof String)) {
+                throw new ConfigurationException("Stick " + entry.getKey() + " in global_input_shaping -> sticks must be a map with an x and a y axis");
+            }
+            Map<?, ?> settings = (Map<?, ?>) entry.getValue();
+            fXInputs[stick] = settings.get("x").toString();
+            fYInputs[stick] = settings.get("y").toString();
+            fXOutputs[stick] = fXInputs[stick] + "_shaped";
+            fYOutputs[stick] = fYInputs[stick] + "_shaped";
+            fShapers[stick] = new StickShaper(entry.getKey(), settings);
+            stick++;
+        }
+
+        mMode = FMS.Mode.DISABLED;
+    }
+
+    @Override
+    public void startUp() throws Exception {
+        sLogger.info("Starting InputShapingService with {} sticks", fShapers.length);
+    }
+
+    @Override
+    public void runOneIteration() throws Exception {
+        FMS.Mode mode = fFMS.getMode();
+        if (mode != mMode) {
+            mMode = mode;
+            for (StickShaper shaper : fShapers) {
+                shaper.reset();
+            }
+        }
+
+        long now = FrameClock.nanoTime();
+        for (int stick = 0; stick < fShapers.length; stick++) {
+            StickShaper shaper = fShapers[stick];
+            shaper.shape(fSharedInputValues.getNumeric(fXInputs[stick]), fSharedInputValues.getNumeric(fYInputs[stick]), now);
+            fSharedInputValues.setNumeric(fXOutputs[stick], shaper.getX());
+            fSharedInputValues.setNumeric(fYOutputs[stick], shaper.getY());
+        }
+    }
+
+    @Override
+    public void shutDown() throws Exception {
+
+    }
+}
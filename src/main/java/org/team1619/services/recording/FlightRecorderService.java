@@ -0,0 +1,105 @@
+package org.team1619.services.recording;
+
+import org.team1619.utilities.recording.FlightRecorder;
+import org.team1619.utilities.time.FrameClock;
+import org.uacr.shared.abstractions.InputValues;
+import org.uacr.utilities.injection.Inject;
+import org.uacr.utilities.logging.LogManager;
+import org.uacr.utilities.logging.Logger;
+import org.uacr.utilities.services.Service;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs last in the core thread, samples the recorded inputs and the selected auto and commits the frame to the flight recorder.
+ * Inputs starting with ipb_ are read as booleans, ipv_name:key reads one value of an input vector and anything else is read as a numeric.
+ */
+
+public class FlightRecorderService implements Service {
+
+    private static final Logger sLogger = LogManager.getLogger(FlightRecorderService.class);
+
+    private static final byte NUMERIC = 0;
+    private static final byte BOOLEAN = 1;
+    private static final byte VECTOR = 2;
+
+    private final InputValues fSharedInputValues;
+    private final FlightRecorder fFlightRecorder;
+
+    private int[] mColumns;
+    private String[] mNames;
+    private String[] mKeys;
+    private byte[] mTypes;
+
+    @Inject
+    public FlightRecorderService(InputValues inputValues, FlightRecorder flightRecorder) {
+        fSharedInputValues = inputValues;
+        fFlightRecorder = flightRecorder;
+
+        mColumns = new int[0];
+        mNames = new String[0];
+        mKeys = new String[0];
+        mTypes = new byte[0];
+    }
+
+    @Override
+    public void startUp() throws Exception {
+        sLogger.info("Starting FlightRecorderService");
+
+        List<String> inputs = fFlightRecorder.getInputNames();
+        mColumns = new int[inputs.size()];
+        mNames = new String[inputs.size()];
+        mKeys = new String[inputs.size()];
+        mTypes = new byte[inputs.size()];
+        for (int i = 0; i < inputs.size(); i++) {
+            String input = inputs.get(i);
+            mColumns[i] = fFlightRecorder.getColumn(input);
+            int separator = input.indexOf(':');
+            if (input.startsWith("ipv_") && separator > 0) {
+                mNames[i] = input.substring(0, separator);
+                mKeys[i] = input.substring(separator + 1);
+                mTypes[i] = VECTOR;
+            } else {
+                mNames[i] = input;
+                mKeys[i] = "";
+                mTypes[i] = input.startsWith("ipb_") ? BOOLEAN : NUMERIC;
+            }
+        }
+
+        fFlightRecorder.start();
+    }
+
+    @Override
+    public void runOneIteration() throws Exception {
+        if (!fFlightRecorder.isStarted()) {
+            return;
+        }
+
+        for (int i = 0; i < mColumns.length; i++) {
+            switch (mTypes[i]) {
+                case BOOLEAN:
+                    fFlightRecorder.set(mColumns[i], fSharedInputValues.getBoolean(mNames[i]));
+                    break;
+                case VECTOR:
+                    Map<String, Double> vector = fSharedInputValues.getVector(mNames[i]);
+                    Double value = vector.get(mKeys[i]);
+                    fFlightRecorder.set(mColumns[i], value != null ? value : 0.0);
+                    break;
+                default:
+                    fFlightRecorder.set(mColumns[i], fSharedInputValues.getNumeric(mNames[i]));
+            }
+        }
+
+        fFlightRecorder.setAutoSelection(fSharedInputValues.getString("ips_auto_origin"), fSharedInputValues.getString("ips_auto_destination"),
+                fSharedInputValues.getString("ips_auto_action"));
+
+        fFlightRecorder.commitFrame(FrameClock.nanoTime());
+    }
+
+    @Override
+    public void shutDown() throws Exception {
+        fFlightRecorder.force();
+        sLogger.info("Flight recorder recorded {} frames", fFlightRecorder.getFrameCount());
+    }
+}
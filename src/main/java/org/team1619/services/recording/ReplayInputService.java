@@ -0,0 +1,122 @@
+package org.team1619.services.recording;
+
+import org.team1619.utilities.recording.FlightRecorder;
+import org.team1619.utilities.recording.FlightRecording;
+import org.uacr.shared.abstractions.InputValues;
+import org.uacr.utilities.logging.LogManager;
+import org.uacr.utilities.logging.Logger;
+import org.uacr.utilities.services.Service;
+
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Stands in for the input service when replaying a flight recording.
+ * advance() streams the next recorded frame from disk and runOneIteration() writes its inputs to the shared input values,
+ * using the same naming rules as the FlightRecorderService that recorded them.
+ * The recorded auto selection is written every frame too, standing in for the webdashboard, so autonomous runs the same auto.
+ */
+
+public class ReplayInputService implements Service {
+
+    private static final Logger sLogger = LogManager.getLogger(ReplayInputService.class);
+
+    private final InputValues fSharedInputValues;
+    private final FlightRecording fRecording;
+
+    private final int[] fNumericColumns;
+    private final String[] fNumericNames;
+    private final int[] fBooleanColumns;
+    private final String[] fBooleanNames;
+    private final String[] fVectorNames;
+    private final int[][] fVectorColumns;
+    private final String[][] fVectorKeys;
+
+    private long mNextFrame;
+
+    public ReplayInputService(InputValues inputValues, FlightRecording recording) {
+        fSharedInputValues = inputValues;
+        fRecording = recording;
+
+        List<Integer> numericColumns = new ArrayList<>();
+        List<Integer> booleanColumns = new ArrayList<>();
+        Map<String, Map<String, Integer>> vectors = new LinkedHashMap<>();
+        List<String> columnNames = recording.getColumnNames();
+        for (int c = 0; c < columnNames.size(); c++) {
+            if (recording.getColumnKind(c) != FlightRecorder.INPUT) {
+                continue;
+            }
+            String name = columnNames.get(c);
+            int separator = name.indexOf(':');
+            if (name.startsWith("ipv_") && separator > 0) {
+                vectors.computeIfAbsent(name.substring(0, separator), vector -> new LinkedHashMap<>()).put(name.substring(separator + 1), c);
+            } else if (name.startsWith("ipb_")) {
+                booleanColumns.add(c);
+            } else {
+                numericColumns.add(c);
+            }
+        }
+
+        fNumericColumns = numericColumns.stream().mapToInt(Integer::intValue).toArray();
+        fNumericNames = numericColumns.stream().map(columnNames::get).toArray(String[]::new);
+        fBooleanColumns = booleanColumns.stream().mapToInt(Integer::intValue).toArray();
+        fBooleanNames = booleanColumns.stream().map(columnNames::get).toArray(String[]::new);
+        fVectorNames = vectors.keySet().toArray(new String[0]);
+        fVectorColumns = new int[fVectorNames.length][];
+        fVectorKeys = new String[fVectorNames.length][];
+        for (int v = 0; v < fVectorNames.length; v++) {
+            Map<String, Integer> keys = vectors.get(fVectorNames[v]);
+            fVectorKeys[v] = keys.keySet().toArray(new String[0]);
+            fVectorColumns[v] = keys.values().stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        mNextFrame = recording.getFirstFrame();
+    }
+
+    public FlightRecording getRecording() {
+        return fRecording;
+    }
+
+    /**
+     * Reads the next recorded frame, returns false when the recording has no more frames
+     */
+    public boolean advance() throws IOException {
+        if (mNextFrame < 0 || mNextFrame > fRecording.getLatestFrame()) {
+            return false;
+        }
+        fRecording.read(mNextFrame);
+        mNextFrame++;
+        return true;
+    }
+
+    @Override
+    public void startUp() throws Exception {
+        sLogger.info("Starting ReplayInputService, replaying {} frames", fRecording.getFrameCount());
+        sLogger.info("Replaying auto {} {} {}", fRecording.getAutoOrigin(), fRecording.getAutoDestination(), fRecording.getAutoAction());
+    }
+
+    @Override
+    public void runOneIteration() throws Exception {
+        fSharedInputValues.setString("ips_auto_origin", fRecording.getAutoOrigin());
+        fSharedInputValues.setString("ips_auto_destination", fRecording.getAutoDestination());
+        fSharedInputValues.setString("ips_auto_action", fRecording.getAutoAction());
+        for (int i = 0; i < fNumericColumns.length; i++) {
+            fSharedInputValues.setNumeric(fNumericNames[i], fRecording.getValue(fNumericColumns[i]));
+        }
+        for (int i = 0; i < fBooleanColumns.length; i++) {
+            fSharedInputValues.setBoolean(fBooleanNames[i], fRecording.getValue(fBooleanColumns[i]) != 0.0);
+        }
+        for (int v = 0; v < fVectorNames.length; v++) {
+            Map<String, Double> vector = new HashMap<>();
+            for (int k = 0; k < fVectorKeys[v].length; k++) {
+                vector.put(fVectorKeys[v][k], fRecording.getValue(fVectorColumns[v][k]));
+            }
+            fSharedInputValues.setVector(fVectorNames[v], vector);
+        }
+    }
+
+    @Override
+    public void shutDown() throws Exception {
+        fRecording.close();
+    }
+}
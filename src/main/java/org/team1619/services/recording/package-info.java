@@ -0,0 +1,4 @@
+@NonNullByDefault
+package org.team1619.services.recording;
+
+import org.uacr.NonNullByDefault;
@@ -0,0 +1,78 @@
+package org.team1619.services.startup;
+
+import org.uacr.utilities.logging.LogManager;
+import org.uacr.utilities.logging.Logger;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Records when each part of the robot code was constructed and started, relative to the start of the JVM
+ */
+
+public class BootTimeline {
+
+    private static final Logger sLogger = LogManager.getLogger(BootTimeline.class);
+
+    private final long fJvmStartNanos;
+    private final List<Entry> fEntries;
+
+    public BootTimeline() {
+        // Measured from the JVM start so the timeline includes class loading before the robot was constructed
+        fJvmStartNanos = System.nanoTime() - ManagementFactory.getRuntimeMXBean().getUptime() * 1_000_000L;
+        fEntries = new ArrayList<>();
+    }
+
+    /**
+     * Runs and records one step, such as getting a service from the injector
+     */
+    public <T> T record(String phase, String name, Supplier<T> step) {
+        long start = System.nanoTime();
+        try {
+            return step.get();
+        } finally {
+            add(phase, name, start, System.nanoTime());
+        }
+    }
+
+    public synchronized void add(String phase, String name, long startNanos, long endNanos) {
+        fEntries.add(new Entry(phase, name, Thread.currentThread().getName(), startNanos - fJvmStartNanos, endNanos - fJvmStartNanos));
+    }
+
+    // Milliseconds from the JVM start to the end of the last recorded step
+    public synchronized double getTotalMillis() {
+        return fEntries.stream().mapToLong(entry -> entry.fEndNanos).max().orElse(0) / 1_000_000.0;
+    }
+
+    /**
+     * Logs every step in the order it started
+     */
+    public synchronized void log() {
+        fEntries.sort(Comparator.comparingLong(entry -> entry.fStartNanos));
+        for (Entry entry : fEntries) {
+            sLogger.info("Boot {}ms - {}ms ({}ms) {} {} on {}", entry.fStartNanos / 1_000_000, entry.fEndNanos / 1_000_000,
+                    (entry.fEndNanos - entry.fStartNanos) / 1_000_000, entry.fPhase, entry.fName, entry.fThread);
+        }
+        sLogger.info("Boot finished {}ms after the JVM started", getTotalMillis());
+    }
+
+    private static class Entry {
+
+        private final String fPhase;
+        private final String fName;
+        private final String fThread;
+        private final long fStartNanos;
+        private final long fEndNanos;
+
+        private Entry(String phase, String name, String thread, long startNanos, long endNanos) {
+            fPhase = phase;
+            fName = name;
+            fThread = thread;
+            fStartNanos = startNanos;
+            fEndNanos = endNanos;
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package org.team1619.services.startup;
+
+import org.uacr.models.exceptions.ConfigurationException;
+import org.uacr.shared.abstractions.RobotConfiguration;
+import org.uacr.utilities.logging.LogManager;
+import org.uacr.utilities.logging.Logger;
+import org.uacr.utilities.services.Service;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Starts services in dependency order, starting services that do not depend on each other at the same time.
+ * Dependencies come from global_startup -> dependencies, a service starts once every service it depends on has started.
+ * With global_startup -> parallel set to false the services start one at a time in the order they were added.
+ *
+ * The returned wrappers are passed to the ScheduledMultiServices as usual. The first wrapper to be started starts every
+ * service and each wrapper's startUp() waits for its own service, so the service managers see the same startUp() failures.
+ */
+
+public class ServiceStartup {
+
+    private static final Logger sLogger = LogManager.getLogger(ServiceStartup.class);
+
+    private final BootTimeline fBootTimeline;
+    private final boolean fIsParallel;
+    private final Map<String, List<String>> fDependencies;
+    private final Map<String, Service> fServices;
+    private final Map<String, CompletableFuture<Void>> fStarted;
+
+    private boolean mIsStarting;
+
+    public ServiceStartup(RobotConfiguration robotConfiguration, BootTimeline bootTimeline) {
+        fBootTimeline = bootTimeline;
+        fIsParallel = !robotConfiguration.contains("global_startup", "parallel") || robotConfiguration.getBoolean("global_startup", "parallel");
+
+        fDependencies = new HashMap<>();
+        if (robotConfiguration.contains("global_startup", "dependencies")) {
+            for (Map.Entry<String, Object> entry : robotConfiguration.<Object>getMap("global_startup", "dependencies").entrySet()) {
+                List<String> dependencies = new ArrayList<>();
+                if (entry.getValue() instanceof List) {
+                    for (Object dependency : (List<?>) entry.getValue()) {
+                        dependencies.add(dependency.toString());
+                    }
+                }
+                fDependencies.put(entry.getKey(), dependencies);
+            }
+        }
+
+        fServices = new LinkedHashMap<>();
+        fStarted = new HashMap<>();
+        mIsStarting = false;
+    }
+
+    /**
+     * Returns a wrapper for the service that is started by this startup
+     */
+    public synchronized Service add(String name, Service service) {
+        if (mIsStarting) {
+            throw new IllegalStateException("Service " + name + " was added after the services started");
+        }
+        fServices.put(name, service);
+        fStarted.put(name, new CompletableFuture<>());
+        return new StartedService(name, service);
+    }
+
+    /**
+     * Starts every service, only the first call does anything
+     */
+    public synchronized void start() {
+        if (mIsStarting) {
+            return;
+        }
+        mIsStarting = true;
+
+        for (Map.Entry<String, List<String>> entry : fDependencies.entrySet()) {
+            for (String dependency : entry.getValue()) {
+                if (!fServices.containsKey(dependency)) {
+                    throw new ConfigurationException("global_startup -> dependencies -> " + entry.getKey() + " lists " + dependency + " which is not a service");
+                }
+            }
+        }
+        List<String> order = getStartOrder();
+
+        if (!fIsParallel) {
+            Thread thread = new Thread(() -> {
+                for (int s = 0; s < order.size(); s++) {
+                    try {
+                        startService(order.get(s));
+                    } catch (CompletionException e) {
+                        // Nothing after a failed service is started
+                        for (String name : order.subList(s + 1, order.size())) {
+                            fStarted.get(name).completeExceptionally(e);
+                        }
+                        return;
+                    }
+                }
+            }, "startup");
+            thread.setDaemon(true);
+            thread.start();
+            return;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(fServices.size(), new StartupThreadFactory());
+        Map<String, CompletableFuture<Void>> dependenciesStarted = new HashMap<>();
+        for (String name : order) {
+            CompletableFuture<?>[] dependencies = getDependencies(name).stream().map(fStarted::get).toArray(CompletableFuture<?>[]::new);
+            CompletableFuture<Void> started = CompletableFuture.allOf(dependencies).thenRunAsync(() -> startService(name), executor);
+            // A failed dependency fails every service after it without starting them
+            started.whenComplete((result, throwable) -> {
+                if (throwable != null) {
+                    fStarted.get(name).completeExceptionally(throwable);
+                }
+            });
+            dependenciesStarted.put(name, started);
+        }
+        CompletableFuture.allOf(dependenciesStarted.values().toArray(new CompletableFuture<?>[0])).whenComplete((result, throwable) -> executor.shutdown());
+    }
+
+    public BootTimeline getBootTimeline() {
+        return fBootTimeline;
+    }
+
+    private void startService(String name) {
+        long start = System.nanoTime();
+        try {
+            fServices.get(name).startUp();
+            fBootTimeline.add("start", name, start, System.nanoTime());
+            fStarted.get(name).complete(null);
+        } catch (Exception e) {
+            sLogger.error("Service {} failed to start", name);
+            fStarted.get(name).completeExceptionally(e);
+            throw new CompletionException(e);
+        }
+    }
+
+    private List<String> getDependencies(String name) {
+        return fDependencies.getOrDefault(name, List.of());
+    }
+
+    // Orders the services so every service comes after its dependencies, keeping the order they were added where possible
+    private List<String> getStartOrder() {
+        List<String> order = new ArrayList<>();
+        Set<String> visiting = new HashSet<>();
+        for (String name : fServices.keySet()) {
+            visit(name, order, visiting);
+        }
+        return order;
+    }
+
+    private void visit(String name, List<String> order, Set<String> visiting) {
+        if (order.contains(name)) {
+            return;
+        }
+        if (!visiting.add(name)) {
+            throw new ConfigurationException("global_startup -> dependencies has a cycle through " + name);
+        }
+        for (String dependency : getDependencies(name)) {
+            visit(dependency, order, visiting);
+        }
+        visiting.remove(name);
+        order.add(name);
+    }
+
+    private class StartedService implements Service {
+
+        private final String fName;
+        private final Service fService;
+
+        private StartedService(String name, Service service) {
+            fName = name;
+            fService = service;
+        }
+
+        @Override
+        public void startUp() throws Exception {
+            start();
+            try {
+                fStarted.get(fName).join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof Exception) {
+                    throw (Exception) e.getCause();
+                }
+                throw e;
+            }
+        }
+
+        @Override
+        public void runOneIteration() throws Exception {
+            fService.runOneIteration();
+        }
+
+        @Override
+        public void shutDown() throws Exception {
+            fService.shutDown();
+        }
+    }
+
+    private static class StartupThreadFactory implements ThreadFactory {
+
+        private int mThreads = 0;
+
+        @Override
+        public synchronized Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "startup-" + mThreads++);
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package org.team1619.services.timing;
+
+import org.team1619.state.StateTracer;
+import org.team1619.utilities.timing.FrameTimes;
+import org.team1619.utilities.timing.LatencyHistogram;
+import org.uacr.shared.abstractions.InputValues;
+import org.uacr.utilities.injection.Inject;
+import org.uacr.utilities.logging.LogManager;
+import org.uacr.utilities.logging.Logger;
+import org.uacr.utilities.services.Service;
+
+import java.util.List;
+
+/**
+ * Publishes the frame time histograms to the shared input values once a second so the logging service and webdashboard pick them up.
+ * Each histogram publishes ipn_frame_time_[name]_p50, _p99 and _max in milliseconds and _breaches as a count for the current match.
+ * The StateTracer's slow transition and hand off counts for the current match are published as ipn_state_slow_transitions and ipn_state_slow_hand_offs.
+ */
+
+public class FrameTimePublisherService implements Service {
+
+    private static final Logger sLogger = LogManager.getLogger(FrameTimePublisherService.class);
+    private static final long PUBLISH_PERIOD_NANOS = 1_000_000_000L;
+
+    private final InputValues fSharedInputValues;
+    private final FrameTimes fFrameTimes;
+    private final StateTracer fStateTracer;
+
+    private List<LatencyHistogram> mHistograms;
+    private String[][] mNames;
+    private long mLastPublish;
+
+    @Inject
+    public FrameTimePublisherService(InputValues inputValues, FrameTimes frameTimes, StateTracer stateTracer) {
+        fSharedInputValues = inputValues;
+        fFrameTimes = frameTimes;
+        fStateTracer = stateTracer;
+
+        mHistograms = List.of();
+        mNames = new String[0][];
+        mLastPublish = 0;
+    }
+
+    @Override
+    public void startUp() throws Exception {
+        sLogger.info("Starting FrameTimePublisherService");
+        mLastPublish = System.nanoTime();
+    }
+
+    @Override
+    public void runOneIteration() throws Exception {
+        long now = System.nanoTime();
+        if (now - mLastPublish < PUBLISH_PERIOD_NANOS) {
+            return;
+        }
+        mLastPublish = now;
+
+        // Behaviors register their histograms when they are created so pick up any new ones
+        List<LatencyHistogram> histograms = fFrameTimes.getHistograms();
+        if (histograms.size() != mHistograms.size()) {
+            mHistograms = histograms;
+            mNames = new String[histograms.size()][];
+            for (int h = 0; h < histograms.size(); h++) {
+                String prefix = "ipn_frame_time_" + histograms.get(h).getName();
+                mNames[h] = new String[]{prefix + "_p50", prefix + "_p99", prefix + "_max", prefix + "_breaches"};
+            }
+        }
+
+        for (int h = 0; h < mHistograms.size(); h++) {
+            LatencyHistogram histogram = mHistograms.get(h);
+            fSharedInputValues.setNumeric(mNames[h][0], histogram.getPercentileNanos(50) / 1_000_000.0);
+            fSharedInputValues.setNumeric(mNames[h][1], histogram.getPercentileNanos(99) / 1_000_000.0);
+            fSharedInputValues.setNumeric(mNames[h][2], histogram.getMaxNanos() / 1_000_000.0);
+            fSharedInputValues.setNumeric(mNames[h][3], histogram.getBreaches());
+        }
+
+        fSharedInputValues.setNumeric("ipn_state_slow_transitions", fStateTracer.getSlowTransitionCount());
+        fSharedInputValues.setNumeric("ipn_state_slow_hand_offs", fStateTracer.getSlowHandOffCount());
+    }
+
+    @Override
+    public void shutDown() throws Exception {
+        fFrameTimes.logSummary();
+    }
+}
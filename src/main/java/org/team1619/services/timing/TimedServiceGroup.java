@@ -0,0 +1,70 @@
+package org.team1619.services.timing;
+
+import org.team1619.utilities.timing.FrameTimes;
+import org.team1619.utilities.timing.LatencyHistogram;
+import org.uacr.utilities.services.Service;
+
+/**
+ * Wraps the services run together by one ScheduledMultiService so each service's frame time and the whole thread's cycle time are recorded.
+ * Services must be added in the order they are passed to the ScheduledMultiService.
+ */
+
+public class TimedServiceGroup {
+
+    private final FrameTimes fFrameTimes;
+    private final LatencyHistogram fCycleHistogram;
+
+    private int mServiceCount;
+    private long mCycleStart;
+
+    public TimedServiceGroup(FrameTimes frameTimes, String threadName, String cycleThresholdKey) {
+        fFrameTimes = frameTimes;
+        fCycleHistogram = frameTimes.getHistogram(threadName, cycleThresholdKey);
+
+        mServiceCount = 0;
+        mCycleStart = 0;
+    }
+
+    public Service add(String name, String thresholdKey, Service service) {
+        return new TimedService(mServiceCount++, service, fFrameTimes.getHistogram(name, thresholdKey));
+    }
+
+    private class TimedService implements Service {
+
+        private final int fPosition;
+        private final Service fService;
+        private final LatencyHistogram fHistogram;
+
+        private TimedService(int position, Service service, LatencyHistogram histogram) {
+            fPosition = position;
+            fService = service;
+            fHistogram = histogram;
+        }
+
+        @Override
+        public void startUp() throws Exception {
+            fService.startUp();
+        }
+
+        @Override
+        public void runOneIteration() throws Exception {
+            long start = System.nanoTime();
+            if (fPosition == 0) {
+                mCycleStart = start;
+            }
+
+            fService.runOneIteration();
+
+            long end = System.nanoTime();
+            fHistogram.record(end - start);
+            if (fPosition == mServiceCount - 1) {
+                fCycleHistogram.record(end - mCycleStart);
+            }
+        }
+
+        @Override
+        public void shutDown() throws Exception {
+            fService.shutDown();
+        }
+    }
+}
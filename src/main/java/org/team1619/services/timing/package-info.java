@@ -0,0 +1,4 @@
+@NonNullByDefault
+package org.team1619.services.timing;
+
+import org.uacr.NonNullByDefault;
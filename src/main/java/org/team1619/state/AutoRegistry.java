@@ -0,0 +1,233 @@
+package org.team1619.state;
+
+import org.team1619.utilities.configuration.CompiledConfiguration;
+import org.team1619.utilities.purepursuit.Path;
+import org.team1619.utilities.purepursuit.Paths;
+import org.uacr.shared.abstractions.RobotConfiguration;
+import org.uacr.utilities.injection.Inject;
+import org.uacr.utilities.logging.LogManager;
+import org.uacr.utilities.logging.Logger;
+
+import java.util.*;
+
+/**
+ * Every auto that can be picked with global_webdashboard -> auto_selector, resolved once at startup.
+ * Each combination of origin, destination and action is checked against sequencer_state in states.yaml,
+ * and each auto that exists gets its state id and every path it follows looked up ahead of time.
+ *
+ * RobotStatus calls select() every frame so the selection is resolved while disabled,
+ * when autonomous starts the mode logic only reads the already selected routine.
+ * Only used from the state thread.
+ */
+
+public class AutoRegistry {
+
+    private static final Logger sLogger = LogManager.getLogger(AutoRegistry.class);
+
+    private final Map<String, Routine> fRoutines;
+
+    private String mOrigin;
+    private String mDestination;
+    private String mAction;
+    private Routine mSelected;
+
+    @Inject
+    public AutoRegistry(RobotConfiguration robotConfiguration, StateTable stateTable, Paths paths) {
+        this(robotConfiguration.getMap("global_webdashboard", "auto_selector"), CompiledConfiguration.loadYaml("states.yaml"), stateTable, paths);
+    }
+
+    public AutoRegistry(Map<String, ?> autoSelector, Map<?, ?> statesYaml, StateTable stateTable, Paths paths) {
+        fRoutines = new LinkedHashMap<>();
+
+        Map<String, Object> stateConfigs = new HashMap<>();
+        for (Object section : statesYaml.values()) {
+            if (section instanceof Map) {
+                for (Map.Entry<?, ?> state : ((Map<?, ?>) section).entrySet()) {
+                    stateConfigs.put(state.getKey().toString(), state.getValue());
+                }
+            }
+        }
+        Object sequencers = statesYaml.get("sequencer_state");
+        Set<?> sequencerNames = sequencers instanceof Map ? ((Map<?, ?>) sequencers).keySet() : Set.of();
+
+        for (Selection selection : getSelections(autoSelector)) {
+            String name = selection.getName();
+            if (!sequencerNames.contains(name)) {
+                sLogger.debug("No auto {} in sequencer_state for {}, {}, {}", name, selection.getOrigin(), selection.getDestination(), selection.getAction());
+                continue;
+            }
+
+            Set<String> pathNames = new LinkedHashSet<>();
+            collectPaths(name, stateConfigs, new HashSet<>(), pathNames);
+            List<Path> routinePaths = new ArrayList<>();
+            for (String pathName : pathNames) {
+                routinePaths.add(paths.getPath(pathName));
+            }
+
+            fRoutines.put(name, new Routine(name, stateTable.getId(name), routinePaths));
+        }
+
+        for (Object sequencer : sequencerNames) {
+            if (sequencer.toString().startsWith("sq_auto_") && !fRoutines.containsKey(sequencer.toString())) {
+                sLogger.error("Auto {} can not be selected with global_webdashboard -> auto_selector", sequencer);
+            }
+        }
+        sLogger.debug("Loaded {} autos", fRoutines.size());
+
+        mOrigin = "";
+        mDestination = "";
+        mAction = "";
+        mSelected = new Routine("none", StateTable.NO_STATE, List.of());
+    }
+
+    /**
+     * The sequencer name for an auto selection, the options are lower cased with white space removed
+     */
+    public static String getAutoName(String origin, String destination, String action) {
+        return "sq_auto_" + normalize(origin) + "_" + normalize(destination) + "_" + normalize(action);
+    }
+
+    /**
+     * Every combination of origin, destination and action that can be picked with the auto selector, in selector order
+     */
+    public static List<Selection> getSelections(Map<?, ?> autoSelector) {
+        List<Selection> selections = new ArrayList<>();
+        for (String origin : getOptions(autoSelector, "origins")) {
+            for (String destination : getOptions(autoSelector, "destinations")) {
+                for (String action : getOptions(autoSelector, "actions")) {
+                    selections.add(new Selection(origin, destination, action));
+                }
+            }
+        }
+        return selections;
+    }
+
+    public Collection<Routine> getRoutines() {
+        return Collections.unmodifiableCollection(fRoutines.values());
+    }
+
+    /**
+     * Selects the auto for the webdashboard values and returns it, this only does work when the values change
+     */
+    public Routine select(String origin, String destination, String action) {
+        if (!origin.equals(mOrigin) || !destination.equals(mDestination) || !action.equals(mAction)) {
+            mOrigin = origin;
+            mDestination = destination;
+            mAction = action;
+
+            String name = getAutoName(origin, destination, action);
+            Routine routine = fRoutines.get(name);
+            if (routine != null) {
+                sLogger.info("Selected auto {}", name);
+                mSelected = routine;
+            } else {
+                sLogger.info("Selected auto {} is not in sequencer_state, no auto will run", name);
+                mSelected = new Routine(name, StateTable.NO_STATE, List.of());
+            }
+        }
+        return mSelected;
+    }
+
+    public Routine getSelected() {
+        return mSelected;
+    }
+
+    // Follows every state the routine references down to the path_name of each behavior
+    private static void collectPaths(String stateName, Map<String, Object> stateConfigs, Set<String> visited, Set<String> pathNames) {
+        if (!visited.add(stateName)) {
+            return;
+        }
+
+        Object config = stateConfigs.get(stateName);
+        if (!(config instanceof Map)) {
+            return;
+        }
+        Object behaviorConfig = ((Map<?, ?>) config).get("behavior_config");
+        if (behaviorConfig instanceof Map && ((Map<?, ?>) behaviorConfig).get("path_name") != null) {
+            pathNames.add(((Map<?, ?>) behaviorConfig).get("path_name").toString());
+        }
+        for (Object value : ((Map<?, ?>) config).values()) {
+            for (Object child : value instanceof List ? (List<?>) value : List.of(value)) {
+                if (child instanceof String && stateConfigs.containsKey(child)) {
+                    collectPaths((String) child, stateConfigs, visited, pathNames);
+                }
+            }
+        }
+    }
+
+    private static List<String> getOptions(Map<?, ?> autoSelector, String key) {
+        List<String> options = new ArrayList<>();
+        if (autoSelector.get(key) instanceof List) {
+            for (Object option : (List<?>) autoSelector.get(key)) {
+                options.add(option.toString());
+            }
+        }
+        return options;
+    }
+
+    private static String normalize(String option) {
+        return option.toLowerCase().replaceAll("\\s", "");
+    }
+
+    /**
+     * One combination of auto selector options
+     */
+    public static class Selection {
+
+        private final String fOrigin;
+        private final String fDestination;
+        private final String fAction;
+
+        private Selection(String origin, String destination, String action) {
+            fOrigin = origin;
+            fDestination = destination;
+            fAction = action;
+        }
+
+        public String getOrigin() {
+            return fOrigin;
+        }
+
+        public String getDestination() {
+            return fDestination;
+        }
+
+        public String getAction() {
+            return fAction;
+        }
+
+        // The sequencer name, see getAutoName()
+        public String getName() {
+            return getAutoName(fOrigin, fDestination, fAction);
+        }
+    }
+
+    /**
+     * An auto sequencer with its state id and the paths it follows
+     */
+    public static class Routine {
+
+        private final String fName;
+        private final int fStateId;
+        private final List<Path> fPaths;
+
+        private Routine(String name, int stateId, List<Path> paths) {
+            fName = name;
+            fStateId = stateId;
+            fPaths = List.copyOf(paths);
+        }
+
+        public String getName() {
+            return fName;
+        }
+
+        // StateTable.NO_STATE when the selection does not match an auto
+        public int getStateId() {
+            return fStateId;
+        }
+
+        public List<Path> getPaths() {
+            return fPaths;
+        }
+    }
+}
@@ -1,5 +1,11 @@
 package org.team1619.state;
 
+import org.team1619.utilities.signals.SignalBank;
+import org.team1619.utilities.signals.SignalBank.BooleanSignal;
+import org.team1619.utilities.signals.SignalBank.NumericSignal;
+import org.team1619.utilities.swerve.SwerveKinematics;
+import org.team1619.utilities.swerve.SwerveOdometry;
+import org.team1619.utilities.time.FrameClock;
 import org.uacr.robot.AbstractRobotStatus;
 import org.uacr.shared.abstractions.InputValues;
 import org.uacr.shared.abstractions.RobotConfiguration;
@@ -14,9 +20,47 @@ public class RobotStatus extends AbstractRobotStatus {
 
     private static final Logger sLogger = LogManager.getLogger(RobotStatus.class);
 
-    public RobotStatus(InputValues inputValues, RobotConfiguration robotConfiguration) {
+    private final SwerveOdometry fOdometry;
+    private final AutoRegistry fAutoRegistry;
+    private final StateTracer fStateTracer;
+    private final SignalBank fSignals;
+    private final NumericSignal fNavxAngle;
+    private final NumericSignal[] fModuleAngleInputs;
+    private final NumericSignal[] fModuleVelocityInputs;
+    private final BooleanSignal fOdometryZeroed;
+    private final NumericSignal fOdometryX;
+    private final NumericSignal fOdometryY;
+    private final NumericSignal fOdometryHeading;
+    private final double[] fModuleAngles;
+    private final double[] fModuleVelocities;
+
+    public RobotStatus(InputValues inputValues, RobotConfiguration robotConfiguration, SwerveOdometry odometry, AutoRegistry autoRegistry, StateTracer stateTracer) {
         super(inputValues, robotConfiguration);
 
+        fAutoRegistry = autoRegistry;
+        fStateTracer = stateTracer;
+
+        // Swerve odometry
+        fOdometry = odometry;
+        fSignals = new SignalBank(inputValues, robotConfiguration);
+        fNavxAngle = fSignals.inputVector(robotConfiguration.getString("global_drivetrain", "navx"), "angle");
+
+        SwerveKinematics kinematics = odometry.getKinematics();
+        int moduleCount = kinematics.getModuleCount();
+        fModuleAngleInputs = new NumericSignal[moduleCount];
+        fModuleVelocityInputs = new NumericSignal[moduleCount];
+        for (int m = 0; m < moduleCount; m++) {
+            String module = kinematics.getModuleName(m);
+            fModuleAngleInputs[m] = fSignals.inputNumeric(SwerveKinematics.getModuleSetting(robotConfiguration, module, "angle_input"));
+            fModuleVelocityInputs[m] = fSignals.publishedNumeric(SwerveKinematics.getModuleSetting(robotConfiguration, module, "velocity_input"));
+        }
+        fModuleAngles = new double[moduleCount];
+        fModuleVelocities = new double[moduleCount];
+
+        fOdometryZeroed = fSignals.internalBoolean("ipb_odometry_has_been_zeroed");
+        fOdometryX = fSignals.internalNumeric("ipn_odometry_x");
+        fOdometryY = fSignals.internalNumeric("ipn_odometry_y");
+        fOdometryHeading = fSignals.internalNumeric("ipn_odometry_heading");
     }
 
     @Override
@@ -34,16 +78,47 @@ public class RobotStatus extends AbstractRobotStatus {
 
     @Override
     public void update() {
+        // Robot status runs first in every state service frame, transitions are counted in these frames
+        fStateTracer.startFrame();
 
         if (!fSharedInputValues.getBoolean("ipb_robot_has_been_zeroed") &&
                 fSharedInputValues.getBoolean("ipb_drivetrain_has_been_zeroed")) {
 
             fSharedInputValues.setBoolean("ipb_robot_has_been_zeroed", true);
         }
+
+        updateOdometry();
+
+        // Resolve the auto as soon as it is picked so autonomous starts without looking it up
+        fAutoRegistry.select(fSharedInputValues.getString("ips_auto_origin"), fSharedInputValues.getString("ips_auto_destination"),
+                fSharedInputValues.getString("ips_auto_action"));
     }
 
     @Override
     public void dispose() {
 
     }
+
+    // Integrates the swerve module velocities into the field pose every frame and publishes it
+    private void updateOdometry() {
+        fSignals.sample();
+
+        if (!fSignals.get(fOdometryZeroed)) {
+            fOdometry.reset(0.0, 0.0);
+            fSignals.set(fOdometryZeroed, true);
+        }
+
+        for (int m = 0; m < fModuleAngles.length; m++) {
+            fModuleAngles[m] = fSignals.get(fModuleAngleInputs[m]);
+            fModuleVelocities[m] = fSignals.get(fModuleVelocityInputs[m]);
+        }
+
+        // Same heading as field centric driving in Drivetrain_Swerve
+        fOdometry.update(FrameClock.currentTimeMillis(), fSignals.get(fNavxAngle) - 90, fModuleAngles, fModuleVelocities);
+
+        fSignals.set(fOdometryX, fOdometry.getX());
+        fSignals.set(fOdometryY, fOdometry.getY());
+        fSignals.set(fOdometryHeading, fOdometry.getHeading());
+        fSignals.flush();
+    }
 }
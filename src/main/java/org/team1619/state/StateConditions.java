@@ -0,0 +1,90 @@
+package org.team1619.state;
+
+import org.uacr.models.exceptions.ConfigurationException;
+import org.uacr.models.state.State;
+
+import java.util.function.BooleanSupplier;
+import java.util.function.IntPredicate;
+
+/**
+ * A mode logic's readiness and doneness table, compiled into arrays indexed by state id.
+ * Each state can have its own ready and done condition, every other state uses the mode's default conditions,
+ * which are given the state id so they can check it against precomputed flags instead of its name.
+ * Every result is also passed to the StateTracer so the states service's reaction to it can be timed.
+ */
+
+public class StateConditions {
+
+    private final StateTable fStateTable;
+    private final StateTracer fTracer;
+    private final BooleanSupplier[] fReady;
+    private final DoneCondition[] fDone;
+
+    private IntPredicate mDefaultReady;
+    private DoneCondition mDefaultDone;
+
+    public StateConditions(StateTable stateTable, StateTracer tracer) {
+        fStateTable = stateTable;
+        fTracer = tracer;
+        fReady = new BooleanSupplier[stateTable.getStateCount()];
+        fDone = new DoneCondition[stateTable.getStateCount()];
+
+        mDefaultReady = id -> false;
+        mDefaultDone = (id, state) -> state.isDone();
+    }
+
+    public StateTable getStateTable() {
+        return fStateTable;
+    }
+
+    public StateConditions ready(String stateName, BooleanSupplier condition) {
+        fReady[requireId(stateName)] = condition;
+        return this;
+    }
+
+    // Used for states without their own ready condition, the id is StateTable.NO_STATE for unknown states
+    public StateConditions defaultReady(IntPredicate condition) {
+        mDefaultReady = condition;
+        return this;
+    }
+
+    public StateConditions done(String stateName, DoneCondition condition) {
+        fDone[requireId(stateName)] = condition;
+        return this;
+    }
+
+    // Used for states without their own done condition, by default a state is done when it says it is
+    public StateConditions defaultDone(DoneCondition condition) {
+        mDefaultDone = condition;
+        return this;
+    }
+
+    public boolean isReady(String stateName) {
+        int id = fStateTable.getId(stateName);
+        BooleanSupplier condition = id >= 0 ? fReady[id] : null;
+        boolean isReady = condition != null ? condition.getAsBoolean() : mDefaultReady.test(id);
+        fTracer.ready(id, isReady);
+        return isReady;
+    }
+
+    public boolean isDone(String stateName, State state) {
+        int id = fStateTable.getId(stateName);
+        DoneCondition condition = id >= 0 ? fDone[id] : null;
+        boolean isDone = condition != null ? condition.isDone(id, state) : mDefaultDone.isDone(id, state);
+        fTracer.done(id, isDone);
+        return isDone;
+    }
+
+    private int requireId(String stateName) {
+        int id = fStateTable.getId(stateName);
+        if (id == StateTable.NO_STATE) {
+            throw new ConfigurationException("State " + stateName + " is not in states.yaml");
+        }
+        return id;
+    }
+
+    @FunctionalInterface
+    public interface DoneCondition {
+        boolean isDone(int id, State state);
+    }
+}
@@ -1,15 +1,17 @@
 package org.team1619.state;
 
 import org.team1619.state.modelogic.*;
+import org.team1619.utilities.logging.AsyncLogManager;
+import org.team1619.utilities.logging.AsyncLogger;
+import org.team1619.utilities.recording.FlightRecorder;
+import org.team1619.utilities.swerve.SwerveOdometry;
+import org.team1619.utilities.time.FrameTimer;
 import org.uacr.robot.AbstractStateControls;
 import org.uacr.robot.ControlMode;
 import org.uacr.shared.abstractions.FMS;
 import org.uacr.shared.abstractions.InputValues;
 import org.uacr.shared.abstractions.RobotConfiguration;
-import org.uacr.utilities.Timer;
 import org.uacr.utilities.injection.Inject;
-import org.uacr.utilities.logging.LogManager;
-import org.uacr.utilities.logging.Logger;
 
 /**
  * Selects the robot status and control modes to be used by the RobotManager for competition bot
@@ -17,34 +19,40 @@ import org.uacr.utilities.logging.Logger;
 
 public class StateControls extends AbstractStateControls {
 
-    private static final Logger sLogger = LogManager.getLogger(StateControls.class);
+    private static final AsyncLogger sLogger = AsyncLogManager.getLogger(StateControls.class);
 
-    private final Timer fTimerMode;
-    private final Timer fTimerEndgame;
+    private final FlightRecorder fFlightRecorder;
+    private final StateTracer fStateTracer;
+    private final FrameTimer fTimerMode;
+    private final FrameTimer fTimerEndgame;
     private final boolean fInitialIsManualMode;
 
     private boolean mIsEndgameMode;
     private boolean mIsManualMode;
 
     @Inject
-    public StateControls(InputValues inputValues, RobotConfiguration robotConfiguration) {
+    public StateControls(InputValues inputValues, RobotConfiguration robotConfiguration, SwerveOdometry odometry, FlightRecorder flightRecorder, StateTable stateTable,
+                         AutoRegistry autoRegistry, StateTracer stateTracer) {
         super(inputValues, robotConfiguration);
 
-        registerRobotStatus(new RobotStatus(inputValues, robotConfiguration));
-        registerModeLogic(ControlMode.AUTONOMOUS, new AutonomousModeLogic(inputValues, robotConfiguration));
-        registerModeLogic(ControlMode.TELEOP, new TeleopModeLogic(inputValues, robotConfiguration));
-        registerModeLogic(ControlMode.MANUAL_TELEOP, new ManualTeleopModeLogic(inputValues, robotConfiguration));
-        registerModeLogic(ControlMode.ENDGAME, new EndgameModeLogic(inputValues, robotConfiguration));
-        registerModeLogic(ControlMode.MANUAL_ENDGAME, new ManualEndgameModeLogic(inputValues, robotConfiguration));
+        fFlightRecorder = flightRecorder;
+        fStateTracer = stateTracer;
+
+        registerRobotStatus(new RobotStatus(inputValues, robotConfiguration, odometry, autoRegistry, stateTracer));
+        registerModeLogic(ControlMode.AUTONOMOUS, new AutonomousModeLogic(inputValues, robotConfiguration, stateTable, stateTracer, autoRegistry));
+        registerModeLogic(ControlMode.TELEOP, new TeleopModeLogic(inputValues, robotConfiguration, stateTable, stateTracer));
+        registerModeLogic(ControlMode.MANUAL_TELEOP, new ManualTeleopModeLogic(inputValues, robotConfiguration, stateTable, stateTracer));
+        registerModeLogic(ControlMode.ENDGAME, new EndgameModeLogic(inputValues, robotConfiguration, stateTable, stateTracer));
+        registerModeLogic(ControlMode.MANUAL_ENDGAME, new ManualEndgameModeLogic(inputValues, robotConfiguration, stateTable, stateTracer));
 
         //Modes
         mIsEndgameMode = false;
         mIsManualMode = false;
 
-        fTimerMode = new Timer();
+        fTimerMode = new FrameTimer();
         mFmsMode = FMS.Mode.DISABLED;
         //Climb
-        fTimerEndgame = new Timer();
+        fTimerEndgame = new FrameTimer();
         if (robotConfiguration.contains("general", "initial_teleop_mode")) {
             switch (robotConfiguration.getString("general", "initial_teleop_mode")) {
                 case "teleop_mode":
@@ -65,6 +73,8 @@ public class StateControls extends AbstractStateControls {
     @Override
     public void initialize(FMS.Mode currentFmsMode) {
         mFmsMode = currentFmsMode;
+        fFlightRecorder.setFmsMode(currentFmsMode);
+        fStateTracer.reset();
 
         mIsEndgameMode = false;
         mIsManualMode = fInitialIsManualMode;
@@ -113,10 +123,12 @@ public class StateControls extends AbstractStateControls {
             fSharedInputValues.setBoolean("ipb_endgame_enabled", mIsEndgameMode);
         }
         fSharedInputValues.setString("ips_mode", getCurrentControlMode().toString());
+        fFlightRecorder.setControlMode(getCurrentControlMode());
     }
 
     @Override
     public void dispose() {
         fSharedInputValues.setString("ips_mode", "DISABLED");
+        fFlightRecorder.setFmsMode(FMS.Mode.DISABLED);
     }
 }
@@ -0,0 +1,115 @@
+package org.team1619.state;
+
+import org.team1619.utilities.configuration.CompiledConfiguration;
+import org.uacr.shared.abstractions.RobotConfiguration;
+import org.uacr.utilities.injection.Inject;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * Gives every state in states.yaml an integer id once at startup, along with its subsystem from general -> states.
+ * The states service asks the mode logic about states by name, so mode logic looks the name up once per call
+ * and does everything else with array lookups by id, the cost stays the same however many states there are.
+ * Priorities are left to the states service, which reads them from general -> states itself.
+ */
+
+public class StateTable {
+
+    public static final int NO_STATE = -1;
+
+    private final Map<String, Integer> fIds;
+    private final List<String> fNames;
+    private final List<String> fSubsystemNames;
+    private final int[] fSubsystems;
+
+    @Inject
+    public StateTable(RobotConfiguration robotConfiguration) {
+        this(CompiledConfiguration.loadYaml("states.yaml"), robotConfiguration.getMap("general", "states"));
+    }
+
+    /**
+     * @param statesYaml    the contents of states.yaml
+     * @param generalStates general -> states, each subsystem maps priority_level_[n] and default to lists of states
+     */
+    public StateTable(Map<?, ?> statesYaml, Map<String, ?> generalStates) {
+        fIds = new HashMap<>();
+        fNames = new ArrayList<>();
+        for (Object section : statesYaml.values()) {
+            if (section instanceof Map) {
+                for (Object state : ((Map<?, ?>) section).keySet()) {
+                    addState(state.toString());
+                }
+            }
+        }
+
+        fSubsystemNames = new ArrayList<>(generalStates.keySet());
+        // States only listed in general -> states still get an id
+        for (Object subsystem : generalStates.values()) {
+            for (Object states : subsystem instanceof Map ? ((Map<?, ?>) subsystem).values() : List.of()) {
+                for (Object state : states instanceof List ? (List<?>) states : List.of()) {
+                    addState(state.toString());
+                }
+            }
+        }
+
+        fSubsystems = new int[fNames.size()];
+        Arrays.fill(fSubsystems, NO_STATE);
+
+        for (int subsystem = 0; subsystem < fSubsystemNames.size(); subsystem++) {
+            Object levelsOfSubsystem = generalStates.get(fSubsystemNames.get(subsystem));
+            if (!(levelsOfSubsystem instanceof Map)) {
+                continue;
+            }
+            for (Map.Entry<?, ?> level : ((Map<?, ?>) levelsOfSubsystem).entrySet()) {
+                if (!(level.getValue() instanceof List)) {
+                    continue;
+                }
+                for (Object state : (List<?>) level.getValue()) {
+                    fSubsystems[fIds.get(state.toString())] = subsystem;
+                }
+            }
+        }
+    }
+
+    public int getStateCount() {
+        return fNames.size();
+    }
+
+    // Returns the id of the state or NO_STATE if it is not in states.yaml or general -> states
+    public int getId(String name) {
+        Integer id = fIds.get(name);
+        return id != null ? id : NO_STATE;
+    }
+
+    public String getName(int id) {
+        return fNames.get(id);
+    }
+
+    // The index of the entry in general -> states the state is listed under, such as ss_drivetrain or sequences, or NO_STATE
+    public int getSubsystem(int id) {
+        return fSubsystems[id];
+    }
+
+    public String getSubsystemName(int subsystem) {
+        return fSubsystemNames.get(subsystem);
+    }
+
+    /**
+     * Returns a flag for every state id that is true when the state's name matches
+     */
+    public boolean[] matching(Predicate<String> namePredicate) {
+        boolean[] matches = new boolean[fNames.size()];
+        for (int id = 0; id < matches.length; id++) {
+            matches[id] = namePredicate.test(fNames.get(id));
+        }
+        return matches;
+    }
+
+    private void addState(String name) {
+        if (!fIds.containsKey(name)) {
+            fIds.put(name, fNames.size());
+            fNames.add(name);
+        }
+    }
+}
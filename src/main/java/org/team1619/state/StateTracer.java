@@ -0,0 +1,316 @@
+package org.team1619.state;
+
+import org.team1619.utilities.logging.AsyncLogManager;
+import org.team1619.utilities.logging.AsyncLogger;
+import org.team1619.utilities.time.FrameClock;
+import org.team1619.utilities.timing.FrameTimes;
+import org.team1619.utilities.timing.LatencyHistogram;
+import org.uacr.models.behavior.Behavior;
+import org.uacr.shared.abstractions.RobotConfiguration;
+import org.uacr.utilities.injection.Inject;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Traces how long the states service takes to act on the mode logic, in frames and in time.
+ * Mode logic reports when a state's isReady or isDone turns true and TracedBehavior reports initialize(), the first update() and dispose().
+ * The time from ready to initialize, initialize to first update and done to dispose is recorded per state,
+ * as is the time each subsystem spends without a state between one state's dispose() and the next state's initialize().
+ * A transition or subsystem hand off that takes more than global_state_tracer -> max_frames frames is logged and counted.
+ *
+ * Only the state_ready_to_initialize, state_initialize_to_update, state_done_to_dispose and state_hand_off histograms over every state
+ * and subsystem are in FrameTimes and published, with the slow transition and hand off counts. The per state and per subsystem
+ * histograms are kept out of FrameTimes so the published values do not grow with the states, their breaches are logged at match start.
+ *
+ * Frames are counted by robot status calling startFrame(), everything is indexed by state id and nothing allocates after startup.
+ * Only used from the state thread, except requestMatchStart() and the total slow counts.
+ */
+
+public class StateTracer {
+
+    private static final AsyncLogger sLogger = AsyncLogManager.getLogger(StateTracer.class);
+
+    private static final long NONE = -1;
+    private static final int DEFAULT_MAX_FRAMES = 1;
+    private static final String THRESHOLD = "frame_time_threshold_state_transition";
+
+    private final StateTable fStateTable;
+    private final boolean fIsEnabled;
+    private final int fMaxFrames;
+
+    // Over every state and subsystem
+    private final LatencyHistogram fAllReadyToInitialize;
+    private final LatencyHistogram fAllInitializeToUpdate;
+    private final LatencyHistogram fAllDoneToDispose;
+    private final LatencyHistogram fAllHandOff;
+
+    // Per state id
+    private final LatencyHistogram[] fReadyToInitialize;
+    private final LatencyHistogram[] fInitializeToUpdate;
+    private final LatencyHistogram[] fDoneToDispose;
+    private final long[] fReadyFrame;
+    private final long[] fReadyTime;
+    private final long[] fInitializeFrame;
+    private final long[] fInitializeTime;
+    private final long[] fDoneFrame;
+    private final long[] fDoneTime;
+    private final long[] fSlowTransitions;
+    private final boolean[] fIsActive;
+
+    // Per subsystem index in the state table
+    private final LatencyHistogram[] fHandOff;
+    private final long[] fReleaseFrame;
+    private final long[] fReleaseTime;
+    private final long[] fSlowHandOffs;
+
+    private long mFrame;
+    private volatile boolean mIsMatchStartRequested;
+    private volatile long mSlowTransitionCount;
+    private volatile long mSlowHandOffCount;
+
+    @Inject
+    public StateTracer(StateTable stateTable, FrameTimes frameTimes, RobotConfiguration robotConfiguration) {
+        fStateTable = stateTable;
+        fIsEnabled = !robotConfiguration.contains("global_state_tracer", "enabled") || robotConfiguration.getBoolean("global_state_tracer", "enabled");
+        fMaxFrames = robotConfiguration.contains("global_state_tracer", "max_frames") ?
+                robotConfiguration.getInt("global_state_tracer", "max_frames") : DEFAULT_MAX_FRAMES;
+
+        fAllReadyToInitialize = frameTimes.getHistogram("state_ready_to_initialize", THRESHOLD);
+        fAllInitializeToUpdate = frameTimes.getHistogram("state_initialize_to_update", THRESHOLD);
+        fAllDoneToDispose = frameTimes.getHistogram("state_done_to_dispose", THRESHOLD);
+        fAllHandOff = frameTimes.getHistogram("state_hand_off", THRESHOLD);
+
+        int stateCount = stateTable.getStateCount();
+        fReadyToInitialize = new LatencyHistogram[stateCount];
+        fInitializeToUpdate = new LatencyHistogram[stateCount];
+        fDoneToDispose = new LatencyHistogram[stateCount];
+        int subsystemCount = 0;
+        for (int id = 0; id < stateCount; id++) {
+            String name = stateTable.getName(id);
+            // Histograms are made up front so tracing never allocates
+            if (fIsEnabled) {
+                fReadyToInitialize[id] = frameTimes.createHistogram(name + "_ready_to_initialize", THRESHOLD);
+                fInitializeToUpdate[id] = frameTimes.createHistogram(name + "_initialize_to_update", THRESHOLD);
+                fDoneToDispose[id] = frameTimes.createHistogram(name + "_done_to_dispose", THRESHOLD);
+            }
+            subsystemCount = Math.max(subsystemCount, stateTable.getSubsystem(id) + 1);
+        }
+        fReadyFrame = new long[stateCount];
+        fReadyTime = new long[stateCount];
+        fInitializeFrame = new long[stateCount];
+        fInitializeTime = new long[stateCount];
+        fDoneFrame = new long[stateCount];
+        fDoneTime = new long[stateCount];
+        fSlowTransitions = new long[stateCount];
+        fIsActive = new boolean[stateCount];
+
+        fHandOff = new LatencyHistogram[subsystemCount];
+        for (int subsystem = 0; subsystem < subsystemCount; subsystem++) {
+            if (fIsEnabled) {
+                fHandOff[subsystem] = frameTimes.createHistogram(stateTable.getSubsystemName(subsystem) + "_hand_off", THRESHOLD);
+            }
+        }
+        fReleaseFrame = new long[subsystemCount];
+        fReleaseTime = new long[subsystemCount];
+        fSlowHandOffs = new long[subsystemCount];
+
+        mFrame = 0;
+        mIsMatchStartRequested = false;
+        mSlowTransitionCount = 0;
+        mSlowHandOffCount = 0;
+        reset();
+    }
+
+    /**
+     * Wraps a behavior so its initialize(), first update() and dispose() are traced against the state it runs in
+     */
+    public Behavior traceBehavior(Behavior behavior) {
+        return fIsEnabled ? new TracedBehavior(behavior, this, fStateTable) : behavior;
+    }
+
+    /**
+     * Called by robot status at the start of every state service frame
+     */
+    public void startFrame() {
+        if (mIsMatchStartRequested) {
+            startMatch();
+        }
+        mFrame++;
+    }
+
+    // ------- Mode logic -------
+
+    public void ready(int id, boolean isReady) {
+        if (!fIsEnabled || id == StateTable.NO_STATE) {
+            return;
+        }
+        if (!isReady) {
+            // The state was not started before it stopped being ready
+            fReadyFrame[id] = NONE;
+        } else if (fReadyFrame[id] == NONE && !fIsActive[id]) {
+            fReadyFrame[id] = mFrame;
+            fReadyTime[id] = FrameClock.nanoTime();
+        }
+    }
+
+    public void done(int id, boolean isDone) {
+        if (!fIsEnabled || id == StateTable.NO_STATE) {
+            return;
+        }
+        if (isDone && fDoneFrame[id] == NONE) {
+            fDoneFrame[id] = mFrame;
+            fDoneTime[id] = FrameClock.nanoTime();
+        }
+    }
+
+    // ------- Behaviors -------
+
+    void initialized(int id) {
+        if (id == StateTable.NO_STATE) {
+            return;
+        }
+        long now = FrameClock.nanoTime();
+        if (fReadyFrame[id] != NONE) {
+            fReadyToInitialize[id].record(now - fReadyTime[id]);
+            fAllReadyToInitialize.record(now - fReadyTime[id]);
+            check(id, mFrame - fReadyFrame[id], "{} started {} frames after it was ready");
+            fReadyFrame[id] = NONE;
+        }
+
+        int subsystem = fStateTable.getSubsystem(id);
+        if (subsystem != StateTable.NO_STATE && fReleaseFrame[subsystem] != NONE) {
+            fHandOff[subsystem].record(now - fReleaseTime[subsystem]);
+            fAllHandOff.record(now - fReleaseTime[subsystem]);
+            long frames = mFrame - fReleaseFrame[subsystem];
+            if (frames > fMaxFrames) {
+                fSlowHandOffs[subsystem]++;
+                mSlowHandOffCount++;
+                sLogger.warn("{} took {} frames to take over its subsystem", fStateTable.getName(id), frames);
+            }
+            fReleaseFrame[subsystem] = NONE;
+        }
+
+        fIsActive[id] = true;
+        fInitializeFrame[id] = mFrame;
+        fInitializeTime[id] = now;
+        fDoneFrame[id] = NONE;
+    }
+
+    void updated(int id) {
+        if (id == StateTable.NO_STATE || fInitializeFrame[id] == NONE) {
+            return;
+        }
+        long nanos = FrameClock.nanoTime() - fInitializeTime[id];
+        fInitializeToUpdate[id].record(nanos);
+        fAllInitializeToUpdate.record(nanos);
+        check(id, mFrame - fInitializeFrame[id], "{} first updated {} frames after it started");
+        fInitializeFrame[id] = NONE;
+    }
+
+    void disposed(int id) {
+        if (id == StateTable.NO_STATE) {
+            return;
+        }
+        long now = FrameClock.nanoTime();
+        if (fDoneFrame[id] != NONE) {
+            fDoneToDispose[id].record(now - fDoneTime[id]);
+            fAllDoneToDispose.record(now - fDoneTime[id]);
+            check(id, mFrame - fDoneFrame[id], "{} stopped {} frames after it was done");
+            fDoneFrame[id] = NONE;
+        }
+        fIsActive[id] = false;
+        fInitializeFrame[id] = NONE;
+
+        int subsystem = fStateTable.getSubsystem(id);
+        if (subsystem != StateTable.NO_STATE) {
+            fReleaseFrame[subsystem] = mFrame;
+            fReleaseTime[subsystem] = now;
+        }
+    }
+
+    // ------- Reporting -------
+
+    /**
+     * The number of ready to initialize, initialize to update and done to dispose transitions of the state over max_frames frames
+     */
+    public long getSlowTransitions(int id) {
+        return fSlowTransitions[id];
+    }
+
+    /**
+     * The number of times a subsystem, by its index in the state table, was without a state for over max_frames frames
+     */
+    public long getSlowHandOffs(int subsystem) {
+        return fSlowHandOffs[subsystem];
+    }
+
+    /**
+     * The number of slow transitions of every state since the match started, can be read from any thread
+     */
+    public long getSlowTransitionCount() {
+        return mSlowTransitionCount;
+    }
+
+    /**
+     * The number of slow hand offs of every subsystem since the match started, can be read from any thread
+     */
+    public long getSlowHandOffCount() {
+        return mSlowHandOffCount;
+    }
+
+    /**
+     * Logs the slow transitions since the last match started and clears them and the per state histograms from any thread,
+     * the state thread does the clearing at the start of its next frame. The published histograms are cleared by FrameTimes.startMatch()
+     */
+    public void requestMatchStart() {
+        mIsMatchStartRequested = true;
+    }
+
+    private void startMatch() {
+        // Cleared first so a request made while this runs is handled on the next frame
+        mIsMatchStartRequested = false;
+        for (int id = 0; id < fSlowTransitions.length; id++) {
+            if (fSlowTransitions[id] > 0) {
+                sLogger.info("{} had {} slow transitions", fStateTable.getName(id), fSlowTransitions[id]);
+            }
+        }
+        for (int subsystem = 0; subsystem < fSlowHandOffs.length; subsystem++) {
+            if (fSlowHandOffs[subsystem] > 0) {
+                sLogger.info("{} had {} slow hand offs", fStateTable.getSubsystemName(subsystem), fSlowHandOffs[subsystem]);
+            }
+        }
+        if (fIsEnabled) {
+            for (LatencyHistogram[] histograms : List.of(fReadyToInitialize, fInitializeToUpdate, fDoneToDispose, fHandOff)) {
+                for (LatencyHistogram histogram : histograms) {
+                    if (histogram.getBreaches() > 0) {
+                        sLogger.info("{} breached the transition threshold {} times", histogram.getName(), histogram.getBreaches());
+                    }
+                    histogram.requestReset();
+                }
+            }
+        }
+        Arrays.fill(fSlowTransitions, 0);
+        Arrays.fill(fSlowHandOffs, 0);
+        mSlowTransitionCount = 0;
+        mSlowHandOffCount = 0;
+    }
+
+    /**
+     * Forgets every transition in progress, called when the FMS mode changes so the time spent disabled is not counted as a hand off
+     */
+    public void reset() {
+        Arrays.fill(fReadyFrame, NONE);
+        Arrays.fill(fInitializeFrame, NONE);
+        Arrays.fill(fDoneFrame, NONE);
+        Arrays.fill(fReleaseFrame, NONE);
+    }
+
+    private void check(int id, long frames, String message) {
+        if (frames > fMaxFrames) {
+            fSlowTransitions[id]++;
+            mSlowTransitionCount++;
+            sLogger.warn(message, fStateTable.getName(id), frames);
+        }
+    }
+}
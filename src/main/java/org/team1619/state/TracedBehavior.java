@@ -0,0 +1,60 @@
+package org.team1619.state;
+
+import org.uacr.models.behavior.Behavior;
+import org.uacr.utilities.Config;
+
+import java.util.Set;
+
+/**
+ * Reports a behavior's initialize(), first update() and dispose() to the StateTracer, against the state it was initialized for
+ */
+
+public class TracedBehavior implements Behavior {
+
+    private final Behavior fBehavior;
+    private final StateTracer fTracer;
+    private final StateTable fStateTable;
+
+    private int mStateId;
+
+    TracedBehavior(Behavior behavior, StateTracer tracer, StateTable stateTable) {
+        fBehavior = behavior;
+        fTracer = tracer;
+        fStateTable = stateTable;
+
+        mStateId = StateTable.NO_STATE;
+    }
+
+    public Behavior getBehavior() {
+        return fBehavior;
+    }
+
+    @Override
+    public void initialize(String stateName, Config config) {
+        mStateId = fStateTable.getId(stateName);
+        fTracer.initialized(mStateId);
+        fBehavior.initialize(stateName, config);
+    }
+
+    @Override
+    public void update() {
+        fTracer.updated(mStateId);
+        fBehavior.update();
+    }
+
+    @Override
+    public void dispose() {
+        fBehavior.dispose();
+        fTracer.disposed(mStateId);
+    }
+
+    @Override
+    public boolean isDone() {
+        return fBehavior.isDone();
+    }
+
+    @Override
+    public Set<String> getSubsystems() {
+        return fBehavior.getSubsystems();
+    }
+}
@@ -1,11 +1,15 @@
 package org.team1619.state.modelogic;
 
+import org.team1619.state.AutoRegistry;
+import org.team1619.state.StateConditions;
+import org.team1619.state.StateTable;
+import org.team1619.state.StateTracer;
+import org.team1619.utilities.logging.AsyncLogManager;
+import org.team1619.utilities.logging.AsyncLogger;
 import org.uacr.models.state.State;
 import org.uacr.robot.AbstractModeLogic;
 import org.uacr.shared.abstractions.InputValues;
 import org.uacr.shared.abstractions.RobotConfiguration;
-import org.uacr.utilities.logging.LogManager;
-import org.uacr.utilities.logging.Logger;
 
 /**
  * Handles the isReady and isDone logic for autonomous mode on competition bot
@@ -13,31 +17,51 @@ import org.uacr.utilities.logging.Logger;
 
 public class AutonomousModeLogic extends AbstractModeLogic {
 
-    private static final Logger sLogger = LogManager.getLogger(AutonomousModeLogic.class);
+    private static final AsyncLogger sLogger = AsyncLogManager.getLogger(AutonomousModeLogic.class);
+
+    private final AutoRegistry fAutoRegistry;
+    private final StateConditions fConditions;
+    // Whether each state id is an auto, an auto finishing ends autonomous
+    private final boolean[] fIsAuto;
 
-    private String mAutoOrigin;
-    private String mAutoDestination;
-    private String mAutoAction;
     private String mCombinedAuto;
+    private int mCombinedAutoId;
 
-    public AutonomousModeLogic(InputValues inputValues, RobotConfiguration robotConfiguration) {
+    public AutonomousModeLogic(InputValues inputValues, RobotConfiguration robotConfiguration, StateTable stateTable, StateTracer stateTracer, AutoRegistry autoRegistry) {
         super(inputValues, robotConfiguration);
 
-        mAutoOrigin = "none";
-        mAutoDestination = "none";
-        mAutoAction = "none";
+        fAutoRegistry = autoRegistry;
+        fIsAuto = stateTable.matching(name -> name.contains("auto"));
+        fConditions = new StateConditions(stateTable, stateTracer)
+                //Drivetrain
+                .ready("st_drivetrain_zero", () -> !fSharedInputValues.getBoolean("ipb_drivetrain_has_been_zeroed"))
+                // Only the auto selected on the webdashboard is ready, compared by id instead of by name
+                .defaultReady(id -> id != StateTable.NO_STATE && id == mCombinedAutoId &&
+                        !fSharedInputValues.getBoolean("ipb_auto_complete") && fSharedInputValues.getBoolean("ipb_robot_has_been_zeroed"))
+                //Checks the isDone on zero states and determines when autonomous is done
+                .defaultDone((id, state) -> {
+                    if (state.isDone()) {
+                        if (id != StateTable.NO_STATE && fIsAuto[id]) {
+                            fSharedInputValues.setBoolean("ipb_auto_complete", true);
+                        }
+                        return true;
+                    }
+                    return false;
+                });
+
         mCombinedAuto = "none";
+        mCombinedAutoId = StateTable.NO_STATE;
     }
 
     @Override
     public void initialize() {
         sLogger.info("***** AUTONOMOUS *****");
 
-        //Reads the values selected on the webdashboard and compiles them into the name of an auto.
-        mAutoOrigin = (fSharedInputValues.getString("ips_auto_origin").toLowerCase().replaceAll("\\s", ""));
-        mAutoDestination = (fSharedInputValues.getString("ips_auto_destination").toLowerCase().replaceAll("\\s", ""));
-        mAutoAction = (fSharedInputValues.getString("ips_auto_action").toLowerCase().replaceAll("\\s", ""));
-        mCombinedAuto = "sq_auto_" + mAutoOrigin + "_" + mAutoDestination + "_" + mAutoAction;
+        //RobotStatus already selected the auto chosen on the webdashboard while disabled, this only reselects if it changed
+        AutoRegistry.Routine auto = fAutoRegistry.select(fSharedInputValues.getString("ips_auto_origin"),
+                fSharedInputValues.getString("ips_auto_destination"), fSharedInputValues.getString("ips_auto_action"));
+        mCombinedAuto = auto.getName();
+        mCombinedAutoId = auto.getStateId();
         sLogger.debug(mCombinedAuto);
 
         fSharedInputValues.setBoolean("ipb_auto_complete", false);
@@ -55,35 +79,11 @@ public class AutonomousModeLogic extends AbstractModeLogic {
 
     @Override
     public boolean isReady(String name) {
-        //Check isReady on zero and idle states
-        switch (name) {
-            //Drivetrain
-            case "st_drivetrain_zero":
-                return !fSharedInputValues.getBoolean("ipb_drivetrain_has_been_zeroed");
-        }
-
-        // Check isReady on auto states
-        // This reads the string assembled from the webdashboard and checks it against all possible autos until it finds a match
-        // If it doesn't find a match it does nothing
-        if (!fSharedInputValues.getBoolean("ipb_auto_complete") && fSharedInputValues.getBoolean("ipb_robot_has_been_zeroed")) {
-            return name.equals(mCombinedAuto);
-        }
-
-        return false;
+        return fConditions.isReady(name);
     }
 
     @Override
     public boolean isDone(String name, State state) {
-        switch (name) {
-
-        }
-        //Checks the isDone on zero states and determines when autonomous is done
-        if (state.isDone()) {
-            if (name.contains("auto")) {
-                fSharedInputValues.setBoolean("ipb_auto_complete", true);
-            }
-            return true;
-        }
-        return false;
+        return fConditions.isDone(name, state);
     }
 }
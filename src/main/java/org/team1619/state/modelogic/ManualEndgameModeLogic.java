@@ -1,11 +1,14 @@
 package org.team1619.state.modelogic;
 
+import org.team1619.state.StateConditions;
+import org.team1619.state.StateTable;
+import org.team1619.state.StateTracer;
+import org.team1619.utilities.logging.AsyncLogManager;
+import org.team1619.utilities.logging.AsyncLogger;
 import org.uacr.models.state.State;
 import org.uacr.robot.AbstractModeLogic;
 import org.uacr.shared.abstractions.InputValues;
 import org.uacr.shared.abstractions.RobotConfiguration;
-import org.uacr.utilities.logging.LogManager;
-import org.uacr.utilities.logging.Logger;
 
 /**
  * Handles the isReady and isDone logic for manual endgame mode on competition bot
@@ -13,10 +16,15 @@ import org.uacr.utilities.logging.Logger;
 
 public class ManualEndgameModeLogic extends AbstractModeLogic {
 
-    private static final Logger sLogger = LogManager.getLogger(ManualEndgameModeLogic.class);
+    private static final AsyncLogger sLogger = AsyncLogManager.getLogger(ManualEndgameModeLogic.class);
 
-    public ManualEndgameModeLogic(InputValues inputValues, RobotConfiguration robotConfiguration) {
+    private final StateConditions fConditions;
+
+    public ManualEndgameModeLogic(InputValues inputValues, RobotConfiguration robotConfiguration, StateTable stateTable, StateTracer stateTracer) {
         super(inputValues, robotConfiguration);
+
+        fConditions = new StateConditions(stateTable, stateTracer)
+                .defaultDone((id, state) -> false);
     }
 
     @Override
@@ -36,16 +44,11 @@ public class ManualEndgameModeLogic extends AbstractModeLogic {
 
     @Override
     public boolean isReady(String name) {
-        switch (name) {
-
-            // ------- Undefined states -------
-            default:
-                return false;
-        }
+        return fConditions.isReady(name);
     }
 
     @Override
     public boolean isDone(String name, State state) {
-        return false;
+        return fConditions.isDone(name, state);
     }
 }
@@ -1,11 +1,14 @@
 package org.team1619.state.modelogic;
 
+import org.team1619.state.StateConditions;
+import org.team1619.state.StateTable;
+import org.team1619.state.StateTracer;
+import org.team1619.utilities.logging.AsyncLogManager;
+import org.team1619.utilities.logging.AsyncLogger;
 import org.uacr.models.state.State;
 import org.uacr.robot.AbstractModeLogic;
 import org.uacr.shared.abstractions.InputValues;
 import org.uacr.shared.abstractions.RobotConfiguration;
-import org.uacr.utilities.logging.LogManager;
-import org.uacr.utilities.logging.Logger;
 
 /**
  * Handles the isReady and isDone logic for teleop mode on competition bot
@@ -13,17 +16,21 @@ import org.uacr.utilities.logging.Logger;
 
 public class TeleopModeLogic extends AbstractModeLogic {
 
-    private static final Logger sLogger = LogManager.getLogger(TeleopModeLogic.class);
+    private static final AsyncLogger sLogger = AsyncLogManager.getLogger(TeleopModeLogic.class);
 
-    public TeleopModeLogic(InputValues inputValues, RobotConfiguration robotConfiguration) {
+    private final StateConditions fConditions;
+
+    public TeleopModeLogic(InputValues inputValues, RobotConfiguration robotConfiguration, StateTable stateTable, StateTracer stateTracer) {
         super(inputValues, robotConfiguration);
 
+        fConditions = new StateConditions(stateTable, stateTracer)
+                //Drivetrain
+                .ready("st_drivetrain_zero", () -> !fSharedInputValues.getBoolean("ipb_drivetrain_has_been_zeroed"));
     }
 
     @Override
     public void initialize() {
         sLogger.info("***** TELEOP *****");
-
     }
 
     @Override
@@ -38,25 +45,11 @@ public class TeleopModeLogic extends AbstractModeLogic {
 
     @Override
     public boolean isReady(String name) {
-        switch (name) {
-            //Drivetrain
-            case "st_drivetrain_zero":
-                return !fSharedInputValues.getBoolean("ipb_drivetrain_has_been_zeroed");
-
-            // ------- Undefined states -------
-            default:
-                return false;
-        }
+        return fConditions.isReady(name);
     }
 
     @Override
     public boolean isDone(String name, State state) {
-        switch (name) {
-            // Drivetrain
-
-            // ------- Undefined states -------
-            default:
-                return state.isDone();
-        }
+        return fConditions.isDone(name, state);
     }
 }
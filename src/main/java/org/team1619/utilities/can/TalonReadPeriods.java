@@ -0,0 +1,160 @@
+package org.team1619.utilities.can;
+
+import com.ctre.phoenix.ErrorCode;
+import com.ctre.phoenix.motorcontrol.StatusFrame;
+import com.ctre.phoenix.motorcontrol.can.TalonSRX;
+import org.team1619.utilities.configuration.CompiledConfiguration;
+import org.uacr.models.exceptions.ConfigurationException;
+import org.uacr.shared.abstractions.HardwareFactory;
+import org.uacr.utilities.injection.Inject;
+import org.uacr.utilities.logging.LogManager;
+import org.uacr.utilities.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sets how often each talon in output-numerics.yaml sends its signals over CAN, from the talon's read_periods in milliseconds.
+ * A talon sends position and velocity together in its feedback status frame and temperature in its analog/temperature/battery frame,
+ * and reading a signal returns the value from the last frame received, so between frames the framework reads a cached value
+ * without any CAN traffic. The feedback frame is sent at the shorter of the position and velocity periods.
+ *
+ * Periods can only be made longer than the talon's defaults in DEFAULT_PERIODS_MILLIS so the bus never carries more than it does by default.
+ * Frames for signals that are not read are sent at MAX_PERIOD_MILLIS, frames for signals read without a period keep their default,
+ * talons without read_periods are left alone. Talons only accept periods up to MAX_PERIOD_MILLIS, longer periods are sent at that period.
+ *
+ * The periods are set on the TalonSRX objects the output service drives, taken from the shared HardwareFactory.
+ * A talon that resets, such as after a brownout, goes back to its default periods, reapplyAfterReset() sets them again.
+ */
+
+public class TalonReadPeriods {
+
+    private static final Logger sLogger = LogManager.getLogger(TalonReadPeriods.class);
+
+    public static final List<String> SIGNALS = List.of("position", "velocity", "temperature");
+    public static final int MAX_PERIOD_MILLIS = 255;
+    // The periods a talon uses for its feedback and analog/temperature/battery frames until they are changed
+    public static final Map<String, Integer> DEFAULT_PERIODS_MILLIS = Map.of("position", 20, "velocity", 20, "temperature", 160);
+
+    private static final int TIMEOUT_MILLIS = 10;
+    // The frame is left at its default period
+    private static final int DEFAULT_PERIOD = 0;
+
+    private final HardwareFactory fHardwareFactory;
+    private final List<TalonPeriods> fTalons;
+
+    @Inject
+    public TalonReadPeriods(HardwareFactory hardwareFactory) {
+        this(CompiledConfiguration.loadYaml("output-numerics.yaml"), hardwareFactory);
+    }
+
+    /**
+     * @param outputNumericsYaml the contents of output-numerics.yaml
+     */
+    public TalonReadPeriods(Map<?, ?> outputNumericsYaml, HardwareFactory hardwareFactory) {
+        fHardwareFactory = hardwareFactory;
+        fTalons = new ArrayList<>();
+        Object talons = outputNumericsYaml.get("talon");
+        if (!(talons instanceof Map)) {
+            return;
+        }
+
+        for (Map.Entry<?, ?> talon : ((Map<?, ?>) talons).entrySet()) {
+            String name = talon.getKey().toString();
+            Map<?, ?> config = talon.getValue() instanceof Map ? (Map<?, ?>) talon.getValue() : Map.of();
+            if (!(config.get("read_periods") instanceof Map)) {
+                continue;
+            }
+            if (!(config.get("device_number") instanceof Number)) {
+                throw new ConfigurationException("Talon " + name + " has read_periods but no device_number");
+            }
+
+            Map<?, ?> periods = (Map<?, ?>) config.get("read_periods");
+            int position = getPeriod(name, config, periods, "position");
+            int velocity = getPeriod(name, config, periods, "velocity");
+            int temperature = getPeriod(name, config, periods, "temperature");
+            fTalons.add(new TalonPeriods(name, ((Number) config.get("device_number")).intValue(),
+                    getFramePeriod(Math.min(position, velocity), DEFAULT_PERIODS_MILLIS.get("position")),
+                    getFramePeriod(temperature, DEFAULT_PERIODS_MILLIS.get("temperature"))));
+        }
+    }
+
+    /**
+     * Sends the frame periods to the talons, call after the output service has configured them
+     */
+    public void apply() {
+        for (TalonPeriods talon : fTalons) {
+            talon.mHardware = fHardwareFactory.get(TalonSRX.class, talon.fDeviceNumber);
+            // A talon reports a reset after powering on, clear it so only later resets are picked up
+            talon.mHardware.hasResetOccurred();
+            apply(talon);
+            sLogger.debug("Talon {} feedback every {} ms, temperature every {} ms", talon.fName,
+                    talon.fFeedbackPeriod == DEFAULT_PERIOD ? "default" : talon.fFeedbackPeriod,
+                    talon.fTemperaturePeriod == DEFAULT_PERIOD ? "default" : talon.fTemperaturePeriod);
+        }
+    }
+
+    /**
+     * Sends the frame periods again to any talon that reset since the last call, call periodically after apply()
+     */
+    public void reapplyAfterReset() {
+        for (TalonPeriods talon : fTalons) {
+            if (talon.mHardware != null && talon.mHardware.hasResetOccurred()) {
+                sLogger.warn("Talon {} reset, setting its frame periods again", talon.fName);
+                apply(talon);
+            }
+        }
+    }
+
+    private static void apply(TalonPeriods talon) {
+        if (talon.fFeedbackPeriod != DEFAULT_PERIOD) {
+            check(talon, "feedback", talon.mHardware.setStatusFramePeriod(StatusFrame.Status_2_Feedback0, talon.fFeedbackPeriod, TIMEOUT_MILLIS));
+        }
+        if (talon.fTemperaturePeriod != DEFAULT_PERIOD) {
+            check(talon, "temperature", talon.mHardware.setStatusFramePeriod(StatusFrame.Status_4_AinTempVbat, talon.fTemperaturePeriod, TIMEOUT_MILLIS));
+        }
+    }
+
+    private static void check(TalonPeriods talon, String frame, ErrorCode errorCode) {
+        if (errorCode != ErrorCode.OK) {
+            sLogger.error("Could not set the {} frame period of talon {}: {}", frame, talon.fName, errorCode);
+        }
+    }
+
+    // Signals that are not read are sent as rarely as possible, signals read without a period at their default
+    private static int getPeriod(String name, Map<?, ?> config, Map<?, ?> periods, String signal) {
+        if (!Boolean.TRUE.equals(config.get("read_" + signal))) {
+            return MAX_PERIOD_MILLIS;
+        }
+        Object period = periods.get(signal);
+        if (period == null) {
+            return DEFAULT_PERIODS_MILLIS.get(signal);
+        }
+        if (!(period instanceof Integer) || (Integer) period < DEFAULT_PERIODS_MILLIS.get(signal)) {
+            throw new ConfigurationException("Talon " + name + " read_periods -> " + signal + " must be at least " + DEFAULT_PERIODS_MILLIS.get(signal) + " milliseconds");
+        }
+        return Math.min((Integer) period, MAX_PERIOD_MILLIS);
+    }
+
+    private static int getFramePeriod(int period, int defaultPeriod) {
+        return period == defaultPeriod ? DEFAULT_PERIOD : period;
+    }
+
+    private static class TalonPeriods {
+
+        private final String fName;
+        private final int fDeviceNumber;
+        private final int fFeedbackPeriod;
+        private final int fTemperaturePeriod;
+
+        private TalonSRX mHardware;
+
+        private TalonPeriods(String name, int deviceNumber, int feedbackPeriod, int temperaturePeriod) {
+            fName = name;
+            fDeviceNumber = deviceNumber;
+            fFeedbackPeriod = feedbackPeriod;
+            fTemperaturePeriod = temperaturePeriod;
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package org.team1619.utilities.configuration;
+
+import org.uacr.models.exceptions.ConfigurationException;
+import org.uacr.utilities.logging.LogManager;
+import org.uacr.utilities.logging.Logger;
+import org.yaml.snakeyaml.Yaml;
+
+import java.io.*;
+import java.util.*;
+import java.util.zip.CRC32;
+
+/**
+ * The yaml resources validated and compiled at build time by ConfigurationCompiler into one binary resource,
+ * read by the robot code that loads yaml itself, such as the state table, auto registry and paths.
+ * The framework still parses its own yaml at boot, so this saves that robot code from parsing the same files again.
+ *
+ * Each file is stored as a tree of maps, lists and scalars with the same types SnakeYAML would load, with a CRC32 of the yaml it came from.
+ * A compiled file is only used while its CRC matches the yaml resource on the classpath, so a stale resource, such as one left
+ * by an IDE run without the Gradle step, never gives robot code different yaml than the framework sees.
+ * When the compiled resource is missing or stale the yaml is parsed instead. Each file is only loaded once.
+ */
+
+public class CompiledConfiguration {
+
+    private static final Logger sLogger = LogManager.getLogger(CompiledConfiguration.class);
+
+    public static final String RESOURCE = "compiled-configuration.bin";
+
+    private static final int MAGIC = 0x43464732;
+
+    // Value tags
+    private static final byte NULL = 0;
+    private static final byte MAP = 1;
+    private static final byte LIST = 2;
+    private static final byte STRING = 3;
+    private static final byte INTEGER = 4;
+    private static final byte LONG = 5;
+    private static final byte DOUBLE = 6;
+    private static final byte BOOLEAN = 7;
+
+    private static Optional<CompiledConfiguration> sCompiledConfiguration = Optional.empty();
+    private static boolean sIsLoaded = false;
+    private static final Map<String, Map<?, ?>> sLoadedFiles = new HashMap<>();
+
+    private final Map<String, Object> fFiles;
+    private final Map<String, Integer> fCrcs;
+
+    private CompiledConfiguration(Map<String, Object> files, Map<String, Integer> crcs) {
+        fFiles = files;
+        fCrcs = crcs;
+    }
+
+    /**
+     * Returns the compiled configuration on the classpath, loading it the first time
+     */
+    public static synchronized Optional<CompiledConfiguration> get() {
+        if (!sIsLoaded) {
+            sIsLoaded = true;
+            try (InputStream stream = CompiledConfiguration.class.getClassLoader().getResourceAsStream(RESOURCE)) {
+                if (stream != null) {
+                    sCompiledConfiguration = Optional.of(read(new BufferedInputStream(stream)));
+                } else {
+                    sLogger.debug("No {} on the classpath, parsing yaml", RESOURCE);
+                }
+            } catch (IOException e) {
+                sLogger.error("Could not read {}, parsing yaml: {}", RESOURCE, e.getMessage());
+            }
+        }
+        return sCompiledConfiguration;
+    }
+
+    /**
+     * Returns the contents of a yaml resource, from the compiled configuration if it was compiled from the same yaml.
+     * Callers share the returned map and must not change it.
+     */
+    public static synchronized Map<?, ?> loadYaml(String fileName) {
+        Map<?, ?> loaded = sLoadedFiles.get(fileName);
+        if (loaded != null) {
+            return loaded;
+        }
+
+        byte[] bytes = readResource(fileName);
+        Optional<CompiledConfiguration> compiled = get();
+        if (compiled.isPresent() && compiled.get().contains(fileName)) {
+            if (compiled.get().isCompiledFrom(fileName, bytes)) {
+                loaded = compiled.get().getFile(fileName);
+            } else {
+                sLogger.warn("{} in {} is out of date, parsing yaml, rerun the compileConfiguration Gradle task", fileName, RESOURCE);
+            }
+        }
+        if (loaded == null) {
+            Object yaml = new Yaml().load(new ByteArrayInputStream(bytes));
+            loaded = yaml instanceof Map ? (Map<?, ?>) yaml : Map.of();
+        }
+        sLoadedFiles.put(fileName, loaded);
+        return loaded;
+    }
+
+    public static int crc(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Returns general -> logger -> log_level from general.yaml
+     */
+    public static Optional<LogManager.Level> getLogLevel() {
+        Object general = loadYaml("general.yaml").get("general");
+        Object logger = general instanceof Map ? ((Map<?, ?>) general).get("logger") : null;
+        Object logLevel = logger instanceof Map ? ((Map<?, ?>) logger).get("log_level") : null;
+        if (logLevel == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(LogManager.Level.valueOf(logLevel.toString()));
+        } catch (IllegalArgumentException e) {
+            sLogger.error("Unknown log level {}", logLevel);
+            return Optional.empty();
+        }
+    }
+
+    public boolean contains(String fileName) {
+        return fFiles.containsKey(fileName);
+    }
+
+    /**
+     * Returns true if the compiled file was compiled from yaml with the given contents
+     */
+    public boolean isCompiledFrom(String fileName, byte[] yaml) {
+        Integer crc = fCrcs.get(fileName);
+        return crc != null && crc == crc(yaml);
+    }
+
+    public Map<?, ?> getFile(String fileName) {
+        Object file = fFiles.get(fileName);
+        return file instanceof Map ? (Map<?, ?>) file : Map.of();
+    }
+
+    public Set<String> getFileNames() {
+        return Collections.unmodifiableSet(fFiles.keySet());
+    }
+
+    /**
+     * Writes the parsed yaml files and the CRC of the yaml each was parsed from, both keyed by file name
+     */
+    public static void write(Map<String, Object> files, Map<String, Integer> crcs, OutputStream stream) throws IOException {
+        DataOutputStream output = new DataOutputStream(new BufferedOutputStream(stream));
+        output.writeInt(MAGIC);
+        output.writeInt(files.size());
+        for (Map.Entry<String, Object> file : files.entrySet()) {
+            output.writeUTF(file.getKey());
+            output.writeInt(crcs.get(file.getKey()));
+            writeValue(output, file.getValue());
+        }
+        output.flush();
+    }
+
+    /**
+     * Returns the bytes of a resource on the classpath
+     */
+    public static byte[] readResource(String fileName) {
+        try (InputStream stream = CompiledConfiguration.class.getClassLoader().getResourceAsStream(fileName)) {
+            if (stream == null) {
+                throw new ConfigurationException("Could not find " + fileName);
+            }
+            return stream.readAllBytes();
+        } catch (IOException e) {
+            throw new ConfigurationException("Could not read " + fileName + ": " + e.getMessage());
+        }
+    }
+
+    public static CompiledConfiguration read(InputStream stream) throws IOException {
+        DataInputStream input = new DataInputStream(stream);
+        if (input.readInt() != MAGIC) {
+            throw new IOException(RESOURCE + " is not a compiled configuration");
+        }
+        int fileCount = input.readInt();
+        Map<String, Object> files = new LinkedHashMap<>();
+        Map<String, Integer> crcs = new HashMap<>();
+        for (int f = 0; f < fileCount; f++) {
+            String fileName = input.readUTF();
+            crcs.put(fileName, input.readInt());
+            files.put(fileName, readValue(input));
+        }
+        return new CompiledConfiguration(files, crcs);
+    }
+
+    private static void writeValue(DataOutputStream output, Object value) throws IOException {
+        if (value == null) {
+            output.writeByte(NULL);
+        } else if (value instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) value;
+            output.writeByte(MAP);
+            output.writeInt(map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                writeValue(output, entry.getKey());
+                writeValue(output, entry.getValue());
+            }
+        } else if (value instanceof List) {
+            List<?> list = (List<?>) value;
+            output.writeByte(LIST);
+            output.writeInt(list.size());
+            for (Object item : list) {
+                writeValue(output, item);
+            }
+        } else if (value instanceof String) {
+            output.writeByte(STRING);
+            output.writeUTF((String) value);
+        } else if (value instanceof Integer) {
+            output.writeByte(INTEGER);
+            output.writeInt((Integer) value);
+        } else if (value instanceof Long) {
+            output.writeByte(LONG);
+            output.writeLong((Long) value);
+        } else if (value instanceof Number) {
+            output.writeByte(DOUBLE);
+            output.writeDouble(((Number) value).doubleValue());
+        } else if (value instanceof Boolean) {
+            output.writeByte(BOOLEAN);
+            output.writeBoolean((Boolean) value);
+        } else {
+            // Anything else SnakeYAML can load, such as dates, is kept as text
+            output.writeByte(STRING);
+            output.writeUTF(value.toString());
+        }
+    }
+
+    private static Object readValue(DataInputStream input) throws IOException {
+        byte tag = input.readByte();
+        switch (tag) {
+            case NULL:
+                return null;
+            case MAP: {
+                int size = input.readInt();
+                Map<Object, Object> map = new LinkedHashMap<>();
+                for (int e = 0; e < size; e++) {
+                    map.put(readValue(input), readValue(input));
+                }
+                return map;
+            }
+            case LIST: {
+                int size = input.readInt();
+                List<Object> list = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    list.add(readValue(input));
+                }
+                return list;
+            }
+            case STRING:
+                return input.readUTF();
+            case INTEGER:
+                return input.readInt();
+            case LONG:
+                return input.readLong();
+            case DOUBLE:
+                return input.readDouble();
+            case BOOLEAN:
+                return input.readBoolean();
+            default:
+                throw new IOException("Unknown value tag " + tag + " in " + RESOURCE);
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package org.team1619.utilities.configuration;
+
+import org.team1619.modelfactory.ModelFactory_Behaviors;
+import org.team1619.state.AutoRegistry;
+import org.team1619.utilities.can.TalonReadPeriods;
+import org.yaml.snakeyaml.Yaml;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+
+/**
+ * Run by the compileConfiguration Gradle task.
+ * Parses every yaml resource, checks the references between them and writes them to one CompiledConfiguration resource.
+ * Any reference error fails the build, every error is printed so they can all be fixed at once.
+ *
+ * Checks:
+ * - every behavior named in states.yaml is created by ModelFactory_Behaviors
+ * - every st_ name referenced in states.yaml or general -> states is a state in states.yaml
+ * - every path_name in states.yaml is a path in paths.yaml and every path's model exists
+ * - every sq_auto_ sequencer can be picked with global_webdashboard -> auto_selector
+ * - every talon read_periods entry is a known signal with a period no shorter than the talon's default
+ * - every output numeric, output boolean, input boolean and input vector listed in general is defined in its yaml file
+ *
+ * Behaviors are checked against the names registered in ModelFactory_Behaviors, so this runs on the compiled classes.
+ *
+ * Usage: ConfigurationCompiler [resources directory] [output file]
+ */
+
+public class ConfigurationCompiler {
+
+    private static final List<String> STATE_SECTIONS = List.of("single_state", "done_for_time_state", "parallel_state", "sequencer_state");
+
+    private final Map<String, Object> fFiles;
+    private final Set<String> fBehaviors;
+    private final List<String> fErrors;
+
+    public ConfigurationCompiler(Map<String, Object> files, Set<String> behaviors) {
+        fFiles = files;
+        fBehaviors = behaviors;
+        fErrors = new ArrayList<>();
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: ConfigurationCompiler [resources directory] [output file]");
+            System.exit(2);
+        }
+
+        File resources = new File(args[0]);
+        File[] yamlFiles = resources.listFiles((directory, name) -> name.endsWith(".yaml"));
+        if (yamlFiles == null) {
+            System.err.println(resources + " is not a directory");
+            System.exit(2);
+        }
+        Arrays.sort(yamlFiles);
+
+        List<String> errors = new ArrayList<>();
+        Map<String, Object> files = new LinkedHashMap<>();
+        Map<String, Integer> crcs = new HashMap<>();
+        for (File yamlFile : yamlFiles) {
+            byte[] bytes = Files.readAllBytes(yamlFile.toPath());
+            try {
+                Object yaml = new Yaml().load(new String(bytes, StandardCharsets.UTF_8));
+                files.put(yamlFile.getName(), yaml != null ? yaml : new LinkedHashMap<>());
+                crcs.put(yamlFile.getName(), CompiledConfiguration.crc(bytes));
+            } catch (Exception e) {
+                errors.add(yamlFile.getName() + " could not be parsed: " + e.getMessage());
+            }
+        }
+
+        ConfigurationCompiler compiler = new ConfigurationCompiler(files, ModelFactory_Behaviors.getBehaviorNames());
+        errors.addAll(compiler.validate());
+
+        if (!errors.isEmpty()) {
+            System.err.println("Configuration has " + errors.size() + " error(s):");
+            for (String error : errors) {
+                System.err.println("  " + error);
+            }
+            System.exit(1);
+        }
+
+        File output = new File(args[1]);
+        File outputDirectory = output.getParentFile();
+        if (outputDirectory != null && !outputDirectory.isDirectory() && !outputDirectory.mkdirs()) {
+            throw new IOException("Could not create " + outputDirectory);
+        }
+        try (OutputStream stream = new FileOutputStream(output)) {
+            CompiledConfiguration.write(files, crcs, stream);
+        }
+        System.out.println("Compiled " + files.size() + " yaml files into " + output + " (" + output.length() + " bytes)");
+    }
+
+    /**
+     * Returns a description of every reference error
+     */
+    public List<String> validate() {
+        fErrors.clear();
+
+        Map<?, ?> states = getFile("states.yaml");
+        Map<String, Map<?, ?>> stateConfigs = new LinkedHashMap<>();
+        for (String section : STATE_SECTIONS) {
+            for (Map.Entry<?, ?> state : getMap(states, section).entrySet()) {
+                String name = String.valueOf(state.getKey());
+                if (stateConfigs.containsKey(name)) {
+                    fErrors.add("State " + name + " is defined more than once in states.yaml");
+                }
+                stateConfigs.put(name, state.getValue() instanceof Map ? (Map<?, ?>) state.getValue() : Map.of());
+            }
+        }
+
+        Map<?, ?> paths = getFile("paths.yaml");
+        Map<?, ?> pathDefinitions = getMap(paths, "path");
+        for (Map.Entry<?, ?> path : pathDefinitions.entrySet()) {
+            Object model = path.getValue() instanceof Map ? ((Map<?, ?>) path.getValue()).get("model") : null;
+            if (!getMap(paths, "model").containsKey(model)) {
+                fErrors.add("Path " + path.getKey() + " uses model " + model + " which is not in paths.yaml");
+            }
+        }
+
+        for (Map.Entry<String, Map<?, ?>> state : stateConfigs.entrySet()) {
+            Object behavior = state.getValue().get("behavior");
+            if (behavior != null && !fBehaviors.contains(behavior.toString())) {
+                fErrors.add("State " + state.getKey() + " uses behavior " + behavior + " which ModelFactory_Behaviors does not create");
+            }
+
+            Object behaviorConfig = state.getValue().get("behavior_config");
+            if (behaviorConfig instanceof Map) {
+                Object pathName = ((Map<?, ?>) behaviorConfig).get("path_name");
+                if (pathName != null && !pathDefinitions.containsKey(pathName)) {
+                    fErrors.add("State " + state.getKey() + " follows path " + pathName + " which is not in paths.yaml");
+                }
+            }
+
+            checkStateReferences("State " + state.getKey(), state.getValue(), stateConfigs.keySet());
+        }
+
+        Map<?, ?> autoSelector = getMap(getMap(getFile("robot-configuration.yaml"), "global_webdashboard"), "auto_selector");
+        Set<String> selectableAutos = new HashSet<>();
+        for (Object origin : getList(autoSelector, "origins")) {
+            for (Object destination : getList(autoSelector, "destinations")) {
+                for (Object action : getList(autoSelector, "actions")) {
+                    selectableAutos.add(AutoRegistry.getAutoName(origin.toString(), destination.toString(), action.toString()));
+                }
+            }
+        }
+        for (Object sequencer : getMap(states, "sequencer_state").keySet()) {
+            if (sequencer.toString().startsWith("sq_auto_") && !selectableAutos.contains(sequencer.toString())) {
+                fErrors.add("Auto " + sequencer + " can not be picked with global_webdashboard -> auto_selector");
+            }
+        }
+
+        for (Map.Entry<?, ?> talon : getMap(getFile("output-numerics.yaml"), "talon").entrySet()) {
+            Map<?, ?> readPeriods = talon.getValue() instanceof Map ? getMap((Map<?, ?>) talon.getValue(), "read_periods") : Map.of();
+            for (Map.Entry<?, ?> period : readPeriods.entrySet()) {
+                if (!TalonReadPeriods.SIGNALS.contains(period.getKey())) {
+                    fErrors.add("Talon " + talon.getKey() + " has a read period for " + period.getKey() + " which is not one of " + TalonReadPeriods.SIGNALS);
+                } else if (!(period.getValue() instanceof Integer) || (Integer) period.getValue() < TalonReadPeriods.DEFAULT_PERIODS_MILLIS.get(period.getKey())) {
+                    fErrors.add("Talon " + talon.getKey() + " read period for " + period.getKey() + " must be at least "
+                            + TalonReadPeriods.DEFAULT_PERIODS_MILLIS.get(period.getKey()) + " milliseconds");
+                }
+            }
+        }
+
+        Map<?, ?> general = getMap(getFile("robot-configuration.yaml"), "general");
+        checkStateReferences("general -> states", general.get("states"), stateConfigs.keySet());
+
+        checkDefined(general, "output_numerics", "output-numerics.yaml");
+        checkDefined(general, "output_booleans", "output-booleans.yaml");
+        checkDefined(general, "input_booleans", "input-booleans.yaml");
+        checkDefined(general, "input_vectors", "input-vectors.yaml");
+
+        return new ArrayList<>(fErrors);
+    }
+
+    // Every string value starting with st_ anywhere below value must be a state
+    private void checkStateReferences(String owner, Object value, Set<String> stateNames) {
+        if (value instanceof Map) {
+            for (Object child : ((Map<?, ?>) value).values()) {
+                checkStateReferences(owner, child, stateNames);
+            }
+        } else if (value instanceof List) {
+            for (Object child : (List<?>) value) {
+                checkStateReferences(owner, child, stateNames);
+            }
+        } else if (value instanceof String && ((String) value).startsWith("st_") && !stateNames.contains(value)) {
+            fErrors.add(owner + " references state " + value + " which is not in states.yaml");
+        }
+    }
+
+    // Signals are defined one level down, under their device type such as talon or controller_axis
+    private void checkDefined(Map<?, ?> general, String list, String fileName) {
+        Object names = general.get(list);
+        if (!(names instanceof List)) {
+            return;
+        }
+
+        Set<Object> defined = new HashSet<>();
+        for (Object deviceType : getFile(fileName).values()) {
+            if (deviceType instanceof Map) {
+                defined.addAll(((Map<?, ?>) deviceType).keySet());
+            }
+        }
+
+        for (Object name : (List<?>) names) {
+            if (!defined.contains(name)) {
+                fErrors.add("general -> " + list + " lists " + name + " which is not defined in " + fileName);
+            }
+        }
+    }
+
+    private Map<?, ?> getFile(String fileName) {
+        Object file = fFiles.get(fileName);
+        if (!(file instanceof Map)) {
+            fErrors.add(fileName + " is missing or is not a map");
+            return Map.of();
+        }
+        return (Map<?, ?>) file;
+    }
+
+    private static Map<?, ?> getMap(Map<?, ?> map, String key) {
+        Object value = map.get(key);
+        return value instanceof Map ? (Map<?, ?>) value : Map.of();
+    }
+
+    private static List<?> getList(Map<?, ?> map, String key) {
+        Object value = map.get(key);
+        return value instanceof List ? (List<?>) value : List.of();
+    }
+}
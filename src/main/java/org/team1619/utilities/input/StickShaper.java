@@ -0,0 +1,136 @@
+package org.team1619.utilities.input;
+
+import org.uacr.models.exceptions.ConfigurationException;
+
+import java.util.Map;
+
+/**
+ * Shapes the x and y axes of one joystick together as a vector: a deadband that rescales the rest of the travel to the full range,
+ * a response curve and a slew rate limit, all on the length of the vector so the direction the stick points in is kept.
+ * The slew rate only limits how fast the stick can be pushed further out, letting go or pulling back is passed through right away
+ * so the robot never keeps driving after the driver lets go of the stick.
+ * The curve is precomputed into a lookup table over the stick magnitude so shaping a value is an interpolated table read,
+ * the only state kept between frames is the last vector and its time.
+ *
+ * Settings, all optional:
+ * deadband: magnitude below which the stick reads 0, default 0
+ * curve: linear, cubic or expo, default linear. expo blends linear and cubic by the expo setting from 0 (linear) to 1 (cubic)
+ * slew_rate: the most the vector's length can grow per second, 0 for no limit
+ */
+
+public class StickShaper {
+
+    public static final int TABLE_SIZE = 256;
+
+    private final double fDeadband;
+    private final double[] fTable;
+    private final double fSlewPerNano;
+
+    private double mX;
+    private double mY;
+    private long mLastTime;
+    private boolean mIsStarted;
+
+    public StickShaper(String name, Map<?, ?> settings) {
+        fDeadband = getSetting(name, settings, "deadband", 0.0);
+        if (fDeadband < 0.0 || fDeadband >= 1.0) {
+            throw new ConfigurationException("Stick " + name + " deadband must be at least 0 and less than 1");
+        }
+
+        double expo;
+        String curve = String.valueOf(settings.containsKey("curve") ? settings.get("curve") : "linear");
+        switch (curve) {
+            case "linear":
+                expo = 0.0;
+                break;
+            case "cubic":
+                expo = 1.0;
+                break;
+            case "expo":
+                expo = getSetting(name, settings, "expo", 0.0);
+                if (expo < 0.0 || expo > 1.0) {
+                    throw new ConfigurationException("Stick " + name + " expo must be from 0 to 1");
+                }
+                break;
+            default:
+                throw new ConfigurationException("Stick " + name + " has unknown curve " + curve + ", use linear, cubic or expo");
+        }
+
+        fTable = new double[TABLE_SIZE + 1];
+        for (int i = 0; i <= TABLE_SIZE; i++) {
+            double x = (double) i / TABLE_SIZE;
+            fTable[i] = (1.0 - expo) * x + expo * x * x * x;
+        }
+
+        double slewRate = getSetting(name, settings, "slew_rate", 0.0);
+        if (slewRate < 0.0) {
+            throw new ConfigurationException("Stick " + name + " slew_rate can not be negative");
+        }
+        fSlewPerNano = slewRate / 1_000_000_000.0;
+
+        reset();
+    }
+
+    /**
+     * Shapes the raw axis values, each from -1 to 1, call once per frame with the frame time and read the result with getX() and getY()
+     */
+    public void shape(double rawX, double rawY, long timeNanos) {
+        double magnitude = Math.sqrt(rawX * rawX + rawY * rawY);
+        double x = 0.0;
+        double y = 0.0;
+        if (magnitude > fDeadband) {
+            // Corners of a square stick can go past 1, they read the same as the edge of the circle
+            double position = (Math.min(magnitude, 1.0) - fDeadband) / (1.0 - fDeadband) * TABLE_SIZE;
+            int index = (int) position;
+            double shaped = index >= TABLE_SIZE ? fTable[TABLE_SIZE] : fTable[index] + (fTable[index + 1] - fTable[index]) * (position - index);
+            x = rawX / magnitude * shaped;
+            y = rawY / magnitude * shaped;
+        }
+
+        if (fSlewPerNano > 0.0 && (x != 0.0 || y != 0.0)) {
+            if (!mIsStarted) {
+                mLastTime = timeNanos;
+                mIsStarted = true;
+            }
+            // Only growing the length is limited, the direction follows the stick
+            double maxMagnitude = Math.sqrt(mX * mX + mY * mY) + fSlewPerNano * (timeNanos - mLastTime);
+            double shapedMagnitude = Math.sqrt(x * x + y * y);
+            if (shapedMagnitude > maxMagnitude) {
+                x = x / shapedMagnitude * maxMagnitude;
+                y = y / shapedMagnitude * maxMagnitude;
+            }
+        }
+        mX = x;
+        mY = y;
+        mLastTime = timeNanos;
+    }
+
+    public double getX() {
+        return mX;
+    }
+
+    public double getY() {
+        return mY;
+    }
+
+    /**
+     * Forgets the last vector, the slew rate limit starts again from 0 so a joystick held over when the robot is enabled ramps up
+     */
+    public void reset() {
+        mX = 0.0;
+        mY = 0.0;
+        mLastTime = 0;
+        mIsStarted = false;
+    }
+
+    private static double getSetting(String name, Map<?, ?> settings, String key, double defaultValue) {
+        Object value = settings.get(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        if (!(value instanceof Number)) {
+            throw new ConfigurationException("Stick " + name + " " + key + " must be a number");
+        }
+        return ((Number) value).doubleValue();
+    }
+}
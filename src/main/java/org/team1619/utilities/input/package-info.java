@@ -0,0 +1,4 @@
+@NonNullByDefault
+package org.team1619.utilities.input;
+
+import org.uacr.NonNullByDefault;
@@ -0,0 +1,120 @@
+package org.team1619.utilities.logging;
+
+import org.uacr.utilities.logging.LogManager;
+import org.uacr.utilities.logging.Logger;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hands out AsyncLoggers and runs the background thread that writes their messages.
+ * The writer thread wakes up every couple of milliseconds and passes everything in the ring to the framework loggers,
+ * so formatting and disk stalls only ever delay the writer thread and never the thread that logged.
+ * Messages still in the ring are written when the JVM shuts down.
+ *
+ * setLogLevel() should be used instead of LogManager.setLogLevel() so messages below the level are not even added to the ring.
+ */
+
+public class AsyncLogManager {
+
+    private static final Logger sLogger = LogManager.getLogger(AsyncLogManager.class);
+
+    static final int ERROR = 0;
+    static final int WARN = 1;
+    static final int INFO = 2;
+    static final int DEBUG = 3;
+    static final int TRACE = 4;
+
+    // A frame logs a handful of messages, this holds a few seconds of them if the disk stalls
+    private static final int RING_CAPACITY = 4096;
+    private static final long IDLE_NANOS = 2_000_000;
+
+    private static final LogRing sRing = new LogRing(RING_CAPACITY);
+    private static final Object sWriteLock = new Object();
+
+    // Until a level is set every message is passed on and the framework loggers decide what to write
+    private static volatile int sLevel = TRACE;
+
+    static {
+        Thread writer = new Thread(AsyncLogManager::write, "async-log-writer");
+        writer.setDaemon(true);
+        writer.setPriority(Thread.MIN_PRIORITY);
+        writer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(AsyncLogManager::flush, "async-log-flush"));
+    }
+
+    private AsyncLogManager() {
+    }
+
+    public static AsyncLogger getLogger(Class<?> clazz) {
+        return new AsyncLogger(LogManager.getLogger(clazz), sRing);
+    }
+
+    /**
+     * Sets the level of the framework loggers and of every AsyncLogger
+     */
+    public static void setLogLevel(LogManager.Level level) {
+        LogManager.setLogLevel(level);
+        switch (level.name()) {
+            case "ERROR":
+                sLevel = ERROR;
+                break;
+            case "WARN":
+                sLevel = WARN;
+                break;
+            case "INFO":
+                sLevel = INFO;
+                break;
+            case "DEBUG":
+                sLevel = DEBUG;
+                break;
+            default:
+                sLevel = TRACE;
+        }
+    }
+
+    static boolean isEnabled(int level) {
+        return level <= sLevel;
+    }
+
+    /**
+     * Writes every message logged so far before returning
+     */
+    public static void flush() {
+        synchronized (sWriteLock) {
+            while (sRing.take(AsyncLogManager::write)) {
+                // Keep writing until the ring is empty
+            }
+            long dropped = sRing.takeDropped();
+            if (dropped > 0) {
+                sLogger.warn("Dropped {} log messages because the log ring was full", dropped);
+            }
+        }
+    }
+
+    private static void write() {
+        while (true) {
+            flush();
+            LockSupport.parkNanos(IDLE_NANOS);
+        }
+    }
+
+    private static void write(AsyncLogger asyncLogger, int level, String template, Object[] args) {
+        Logger logger = asyncLogger.getLogger();
+        switch (level) {
+            case ERROR:
+                logger.error(template, args);
+                break;
+            case WARN:
+                logger.warn(template, args);
+                break;
+            case INFO:
+                logger.info(template, args);
+                break;
+            case DEBUG:
+                logger.debug(template, args);
+                break;
+            default:
+                logger.trace(template, args);
+        }
+    }
+}
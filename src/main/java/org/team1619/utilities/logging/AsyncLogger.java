@@ -0,0 +1,177 @@
+package org.team1619.utilities.logging;
+
+import org.uacr.utilities.logging.Logger;
+
+/**
+ * A logger for code that runs every frame, get one from AsyncLogManager.getLogger() and use it like a Logger.
+ * A call only stores the message template and its arguments in a preallocated ring, the AsyncLogManager writer thread
+ * formats them and passes them to the framework Logger for the same class, so the messages end up in the same log under the logPath.
+ *
+ * Numeric arguments are not boxed, and string literals and existing objects are stored by reference so a call does not allocate.
+ * Objects passed as arguments are formatted later on the writer thread, only pass objects that are not changed afterwards such as strings.
+ */
+
+public class AsyncLogger {
+
+    private final Logger fLogger;
+    private final LogRing fRing;
+
+    AsyncLogger(Logger logger, LogRing ring) {
+        fLogger = logger;
+        fRing = ring;
+    }
+
+    Logger getLogger() {
+        return fLogger;
+    }
+
+    public void trace(String message) {
+        log(AsyncLogManager.TRACE, message);
+    }
+
+    public void trace(String message, Object arg) {
+        log(AsyncLogManager.TRACE, message, arg);
+    }
+
+    public void trace(String message, long arg) {
+        log(AsyncLogManager.TRACE, message, arg);
+    }
+
+    public void trace(String message, double arg) {
+        log(AsyncLogManager.TRACE, message, arg);
+    }
+
+    public void trace(String message, Object arg1, Object arg2) {
+        log(AsyncLogManager.TRACE, message, arg1, arg2);
+    }
+
+    public void debug(String message) {
+        log(AsyncLogManager.DEBUG, message);
+    }
+
+    public void debug(String message, Object arg) {
+        log(AsyncLogManager.DEBUG, message, arg);
+    }
+
+    public void debug(String message, long arg) {
+        log(AsyncLogManager.DEBUG, message, arg);
+    }
+
+    public void debug(String message, double arg) {
+        log(AsyncLogManager.DEBUG, message, arg);
+    }
+
+    public void debug(String message, Object arg1, Object arg2) {
+        log(AsyncLogManager.DEBUG, message, arg1, arg2);
+    }
+
+    public void info(String message) {
+        log(AsyncLogManager.INFO, message);
+    }
+
+    public void info(String message, Object arg) {
+        log(AsyncLogManager.INFO, message, arg);
+    }
+
+    public void info(String message, long arg) {
+        log(AsyncLogManager.INFO, message, arg);
+    }
+
+    public void info(String message, double arg) {
+        log(AsyncLogManager.INFO, message, arg);
+    }
+
+    public void info(String message, Object arg1, Object arg2) {
+        log(AsyncLogManager.INFO, message, arg1, arg2);
+    }
+
+    public void warn(String message) {
+        log(AsyncLogManager.WARN, message);
+    }
+
+    public void warn(String message, Object arg) {
+        log(AsyncLogManager.WARN, message, arg);
+    }
+
+    public void warn(String message, long arg) {
+        log(AsyncLogManager.WARN, message, arg);
+    }
+
+    public void warn(String message, double arg) {
+        log(AsyncLogManager.WARN, message, arg);
+    }
+
+    public void warn(String message, Object arg1, Object arg2) {
+        log(AsyncLogManager.WARN, message, arg1, arg2);
+    }
+
+    public void error(String message) {
+        log(AsyncLogManager.ERROR, message);
+    }
+
+    public void error(String message, Object arg) {
+        log(AsyncLogManager.ERROR, message, arg);
+    }
+
+    public void error(String message, long arg) {
+        log(AsyncLogManager.ERROR, message, arg);
+    }
+
+    public void error(String message, double arg) {
+        log(AsyncLogManager.ERROR, message, arg);
+    }
+
+    public void error(String message, Object arg1, Object arg2) {
+        log(AsyncLogManager.ERROR, message, arg1, arg2);
+    }
+
+    private void log(int level, String message) {
+        if (AsyncLogManager.isEnabled(level)) {
+            long index = fRing.claim(this, level, message);
+            if (index >= 0) {
+                fRing.publish(index);
+            }
+        }
+    }
+
+    private void log(int level, String message, Object arg) {
+        if (AsyncLogManager.isEnabled(level)) {
+            long index = fRing.claim(this, level, message);
+            if (index >= 0) {
+                fRing.setArg(index, 0, arg);
+                fRing.publish(index);
+            }
+        }
+    }
+
+    private void log(int level, String message, long arg) {
+        if (AsyncLogManager.isEnabled(level)) {
+            long index = fRing.claim(this, level, message);
+            if (index >= 0) {
+                fRing.setArg(index, 0, arg);
+                fRing.publish(index);
+            }
+        }
+    }
+
+    private void log(int level, String message, double arg) {
+        if (AsyncLogManager.isEnabled(level)) {
+            long index = fRing.claim(this, level, message);
+            if (index >= 0) {
+                fRing.setArg(index, 0, arg);
+                fRing.publish(index);
+            }
+        }
+    }
+
+    private void log(int level, String message, Object arg1, Object arg2) {
+        if (AsyncLogManager.isEnabled(level)) {
+            long index = fRing.claim(this, level, message);
+            if (index >= 0) {
+                fRing.setArg(index, 0, arg1);
+                fRing.setArg(index, 1, arg2);
+                fRing.publish(index);
+            }
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package org.team1619.utilities.logging;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A preallocated ring of log records that any number of threads can add to without locking or allocating,
+ * and that only the AsyncLogManager writer thread takes from.
+ * A record is the logger, the level, the message template and up to MAX_ARGS arguments. Numeric arguments are stored as bits
+ * and object arguments as references, so nothing is boxed or formatted when a record is added.
+ * When the writer falls behind and the ring is full records are dropped and counted, adding a record never waits.
+ */
+
+class LogRing {
+
+    static final int MAX_ARGS = 2;
+
+    static final byte NONE = 0;
+    static final byte OBJECT = 1;
+    static final byte LONG = 2;
+    static final byte DOUBLE = 3;
+
+    private final int fMask;
+    // Total records claimed and taken, a slot is free again once its record was taken
+    private final AtomicLong fClaimed;
+    private final AtomicLong fTaken;
+    private final AtomicLong fDropped;
+    // Per slot, the claim index + 1 once the record in it is complete
+    private final AtomicLongArray fPublished;
+
+    private final AsyncLogger[] fLoggers;
+    private final String[] fTemplates;
+    private final int[] fLevels;
+    private final byte[] fArgKinds;
+    private final long[] fArgBits;
+    private final Object[] fArgObjects;
+
+    LogRing(int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Log ring capacity must be a power of two");
+        }
+        fMask = capacity - 1;
+        fClaimed = new AtomicLong();
+        fTaken = new AtomicLong();
+        fDropped = new AtomicLong();
+        fPublished = new AtomicLongArray(capacity);
+
+        fLoggers = new AsyncLogger[capacity];
+        fTemplates = new String[capacity];
+        fLevels = new int[capacity];
+        fArgKinds = new byte[capacity * MAX_ARGS];
+        fArgBits = new long[capacity * MAX_ARGS];
+        fArgObjects = new Object[capacity * MAX_ARGS];
+    }
+
+    // ------- Logging threads -------
+
+    /**
+     * Claims a slot for a record, returns -1 when the ring is full and the record was dropped.
+     * The arguments are then set with setArg() and the record is handed to the writer with publish()
+     */
+    long claim(AsyncLogger logger, int level, String template) {
+        long index;
+        do {
+            index = fClaimed.get();
+            if (index - fTaken.get() > fMask) {
+                fDropped.incrementAndGet();
+                return -1;
+            }
+        } while (!fClaimed.compareAndSet(index, index + 1));
+
+        int slot = (int) index & fMask;
+        fLoggers[slot] = logger;
+        fTemplates[slot] = template;
+        fLevels[slot] = level;
+        for (int arg = 0; arg < MAX_ARGS; arg++) {
+            fArgKinds[slot * MAX_ARGS + arg] = NONE;
+        }
+        return index;
+    }
+
+    void setArg(long index, int arg, Object value) {
+        int argSlot = ((int) index & fMask) * MAX_ARGS + arg;
+        fArgKinds[argSlot] = OBJECT;
+        fArgObjects[argSlot] = value;
+    }
+
+    void setArg(long index, int arg, long value) {
+        int argSlot = ((int) index & fMask) * MAX_ARGS + arg;
+        fArgKinds[argSlot] = LONG;
+        fArgBits[argSlot] = value;
+    }
+
+    void setArg(long index, int arg, double value) {
+        int argSlot = ((int) index & fMask) * MAX_ARGS + arg;
+        fArgKinds[argSlot] = DOUBLE;
+        fArgBits[argSlot] = Double.doubleToRawLongBits(value);
+    }
+
+    void publish(long index) {
+        // The release makes every field written since claim() visible to the writer before the slot is marked complete
+        fPublished.lazySet((int) index & fMask, index + 1);
+    }
+
+    // ------- Writer thread -------
+
+    /**
+     * Passes the oldest complete record to the writer and frees its slot, returns false if there is none.
+     * Records are taken in the order they were claimed, so one slow logging thread holds back the records claimed after it.
+     */
+    boolean take(Writer writer) {
+        long index = fTaken.get();
+        int slot = (int) index & fMask;
+        if (fPublished.get(slot) != index + 1) {
+            return false;
+        }
+
+        AsyncLogger logger = fLoggers[slot];
+        String template = fTemplates[slot];
+        int level = fLevels[slot];
+        int argCount = 0;
+        Object[] args = new Object[MAX_ARGS];
+        for (int arg = 0; arg < MAX_ARGS; arg++) {
+            int argSlot = slot * MAX_ARGS + arg;
+            switch (fArgKinds[argSlot]) {
+                case OBJECT:
+                    args[argCount++] = fArgObjects[argSlot];
+                    fArgObjects[argSlot] = null;
+                    break;
+                case LONG:
+                    args[argCount++] = fArgBits[argSlot];
+                    break;
+                case DOUBLE:
+                    args[argCount++] = Double.longBitsToDouble(fArgBits[argSlot]);
+                    break;
+                default:
+            }
+        }
+        fLoggers[slot] = null;
+        fTemplates[slot] = null;
+        fTaken.lazySet(index + 1);
+
+        writer.write(logger, level, template, argCount == MAX_ARGS ? args : Arrays.copyOf(args, argCount));
+        return true;
+    }
+
+    /**
+     * Returns how many records were dropped since the last call
+     */
+    long takeDropped() {
+        return fDropped.getAndSet(0);
+    }
+
+    interface Writer {
+        void write(AsyncLogger logger, int level, String template, Object[] args);
+    }
+}
@@ -0,0 +1,257 @@
+package org.team1619.utilities.purepursuit;
+
+import org.uacr.models.exceptions.ConfigurationException;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * A path generated from waypoints, either when it is loaded or at build time into a TrajectoryBundle.
+ * Points are injected every model spacing, smoothed, and given a distance along the path, a curvature, a heading and a target speed.
+ * Each point is stored as POINT_FIELDS little endian doubles in one buffer, which is a slice of the memory mapped bundle
+ * for paths read from a TrajectoryBundle, so reading a point never allocates or copies.
+ */
+
+public class Path {
+
+    private static final double SMOOTHING_TOLERANCE = 0.001;
+    private static final int MAX_SMOOTHING_PASSES = 1000;
+
+    // Point layout
+    static final int X = 0;
+    static final int Y = 1;
+    static final int DISTANCE = 2;
+    static final int CURVATURE = 3;
+    static final int HEADING = 4;
+    static final int VELOCITY = 5;
+    static final int POINT_FIELDS = 6;
+    static final int POINT_BYTES = POINT_FIELDS * Double.BYTES;
+
+    private final String fName;
+    private final PathModel fModel;
+    private final int fSize;
+    private final ByteBuffer fPoints;
+
+    public Path(String name, PathModel model, double[] waypointsX, double[] waypointsY) {
+        if (waypointsX.length < 2 || waypointsX.length != waypointsY.length) {
+            throw new ConfigurationException("Path " + name + " needs at least two waypoints");
+        }
+
+        fName = name;
+        fModel = model;
+
+        double[][] points = injectPoints(waypointsX, waypointsY, model.getSpacing());
+        smooth(points[0], points[1], model.getSmoothing());
+
+        double[] x = points[0];
+        double[] y = points[1];
+        fSize = x.length;
+        double[] distance = calculateDistances(x, y);
+        double[] curvature = calculateCurvatures(x, y);
+        double[] heading = calculateHeadings(x, y);
+        double[] velocity = calculateVelocities(model, distance, curvature);
+
+        fPoints = ByteBuffer.allocate(fSize * POINT_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        for (int p = 0; p < fSize; p++) {
+            fPoints.putDouble(x[p]).putDouble(y[p]).putDouble(distance[p]).putDouble(curvature[p]).putDouble(heading[p]).putDouble(velocity[p]);
+        }
+        fPoints.flip();
+    }
+
+    /**
+     * A path that was already generated, points holds POINT_BYTES little endian bytes for each point from its position to its limit
+     */
+    Path(String name, PathModel model, ByteBuffer points) {
+        if (points.remaining() % POINT_BYTES != 0 || points.remaining() < 2 * POINT_BYTES) {
+            throw new ConfigurationException("Path " + name + " needs at least two points");
+        }
+
+        fName = name;
+        fModel = model;
+        fPoints = points.slice().order(ByteOrder.LITTLE_ENDIAN);
+        fSize = fPoints.remaining() / POINT_BYTES;
+    }
+
+    public String getName() {
+        return fName;
+    }
+
+    public PathModel getModel() {
+        return fModel;
+    }
+
+    public int size() {
+        return fSize;
+    }
+
+    public double getX(int point) {
+        return get(point, X);
+    }
+
+    public double getY(int point) {
+        return get(point, Y);
+    }
+
+    // Distance along the path from the first point
+    public double getDistance(int point) {
+        return get(point, DISTANCE);
+    }
+
+    public double getCurvature(int point) {
+        return get(point, CURVATURE);
+    }
+
+    // Direction of travel in degrees, in the same frame as the odometry heading
+    public double getHeading(int point) {
+        return get(point, HEADING);
+    }
+
+    public double getVelocity(int point) {
+        return get(point, VELOCITY);
+    }
+
+    public double getLength() {
+        return getDistance(fSize - 1);
+    }
+
+    /**
+     * Returns the index of the last point whose distance along the path is at or before the given distance, in O(log n)
+     */
+    public int getPointAtDistance(double distance) {
+        int low = 0;
+        int high = fSize - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (getDistance(middle) <= distance) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * The points from the first to the last, for writing into a TrajectoryBundle
+     */
+    ByteBuffer getPoints() {
+        return fPoints.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private double get(int point, int field) {
+        return fPoints.getDouble(point * POINT_BYTES + field * Double.BYTES);
+    }
+
+    // Adds points every spacing inches along each segment between waypoints
+    private static double[][] injectPoints(double[] waypointsX, double[] waypointsY, double spacing) {
+        int count = 1;
+        for (int w = 0; w < waypointsX.length - 1; w++) {
+            double length = Math.hypot(waypointsX[w + 1] - waypointsX[w], waypointsY[w + 1] - waypointsY[w]);
+            count += Math.max(1, (int) Math.ceil(length / spacing));
+        }
+
+        double[] x = new double[count];
+        double[] y = new double[count];
+        int point = 0;
+        for (int w = 0; w < waypointsX.length - 1; w++) {
+            double dx = waypointsX[w + 1] - waypointsX[w];
+            double dy = waypointsY[w + 1] - waypointsY[w];
+            int steps = Math.max(1, (int) Math.ceil(Math.hypot(dx, dy) / spacing));
+            for (int s = 0; s < steps; s++) {
+                x[point] = waypointsX[w] + dx * s / steps;
+                y[point] = waypointsY[w] + dy * s / steps;
+                point++;
+            }
+        }
+        x[point] = waypointsX[waypointsX.length - 1];
+        y[point] = waypointsY[waypointsY.length - 1];
+
+        return new double[][]{x, y};
+    }
+
+    // Gradient descent smoothing, the first and last points do not move
+    private static void smooth(double[] x, double[] y, double smoothing) {
+        if (smoothing <= 0 || x.length < 3) {
+            return;
+        }
+
+        double[] originalX = x.clone();
+        double[] originalY = y.clone();
+        double dataWeight = 1 - smoothing;
+
+        for (int pass = 0; pass < MAX_SMOOTHING_PASSES; pass++) {
+            double change = 0.0;
+            for (int p = 1; p < x.length - 1; p++) {
+                double oldX = x[p];
+                double oldY = y[p];
+                x[p] += dataWeight * (originalX[p] - x[p]) + smoothing * (x[p - 1] + x[p + 1] - 2.0 * x[p]);
+                y[p] += dataWeight * (originalY[p] - y[p]) + smoothing * (y[p - 1] + y[p + 1] - 2.0 * y[p]);
+                change += Math.abs(oldX - x[p]) + Math.abs(oldY - y[p]);
+            }
+            if (change < SMOOTHING_TOLERANCE) {
+                break;
+            }
+        }
+    }
+
+    private static double[] calculateDistances(double[] x, double[] y) {
+        double[] distance = new double[x.length];
+        for (int p = 1; p < x.length; p++) {
+            distance[p] = distance[p - 1] + Math.hypot(x[p] - x[p - 1], y[p] - y[p - 1]);
+        }
+        return distance;
+    }
+
+    // Curvature is one over the radius of the circle through each point and its neighbours
+    private static double[] calculateCurvatures(double[] x, double[] y) {
+        double[] curvature = new double[x.length];
+        for (int p = 1; p < x.length - 1; p++) {
+            double a = Math.hypot(x[p] - x[p - 1], y[p] - y[p - 1]);
+            double b = Math.hypot(x[p + 1] - x[p], y[p + 1] - y[p]);
+            double c = Math.hypot(x[p + 1] - x[p - 1], y[p + 1] - y[p - 1]);
+            double twiceArea = Math.abs((x[p] - x[p - 1]) * (y[p + 1] - y[p - 1]) - (y[p] - y[p - 1]) * (x[p + 1] - x[p - 1]));
+            double product = a * b * c;
+            curvature[p] = product > 0 ? 2 * twiceArea / product : 0.0;
+        }
+        return curvature;
+    }
+
+    private static double[] calculateHeadings(double[] x, double[] y) {
+        double[] heading = new double[x.length];
+        for (int p = 0; p < x.length - 1; p++) {
+            heading[p] = Math.toDegrees(Math.atan2(y[p + 1] - y[p], x[p + 1] - x[p]));
+        }
+        heading[x.length - 1] = x.length > 1 ? heading[x.length - 2] : 0.0;
+        return heading;
+    }
+
+    // Limits the speed through curves, then limits how fast the robot can slow down before a point and speed up after one
+    private static double[] calculateVelocities(PathModel model, double[] distance, double[] curvature) {
+        int size = distance.length;
+        double[] velocity = new double[size];
+        double maxSpeed = model.getMaxSpeed();
+        double minSpeed = model.getMinSpeed();
+
+        for (int p = 0; p < size; p++) {
+            velocity[p] = curvature[p] > 0 ? Math.min(maxSpeed, model.getTurnSpeed() / curvature[p]) : maxSpeed;
+        }
+
+        velocity[size - 1] = 0.0;
+        for (int p = size - 2; p >= 0; p--) {
+            double segment = distance[p + 1] - distance[p];
+            velocity[p] = Math.min(velocity[p], Math.sqrt(velocity[p + 1] * velocity[p + 1] + 2 * model.getMaxDeceleration() * segment));
+        }
+
+        velocity[0] = Math.min(velocity[0], minSpeed);
+        for (int p = 1; p < size; p++) {
+            double segment = distance[p] - distance[p - 1];
+            velocity[p] = Math.min(velocity[p], Math.sqrt(velocity[p - 1] * velocity[p - 1] + 2 * model.getMaxAcceleration() * segment));
+        }
+
+        // Never command less than the min speed except at the end of the path
+        for (int p = 0; p < size - 1; p++) {
+            velocity[p] = Math.max(velocity[p], minSpeed);
+        }
+        return velocity;
+    }
+}
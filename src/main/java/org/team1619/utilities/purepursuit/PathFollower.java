@@ -0,0 +1,188 @@
+package org.team1619.utilities.purepursuit;
+
+/**
+ * Holonomic pure pursuit follower.
+ * Each update finds the closest point to the robot, then the look ahead point one look ahead distance further along the path,
+ * and drives straight at it at the closest point's target speed while turning towards a target heading.
+ *
+ * The closest point search starts from the last closest point and only walks forward, so it is amortized O(1) per update,
+ * and the look ahead point is found with a binary search over the distance along the path.
+ */
+
+public class PathFollower {
+
+    // How far past the last closest point to look for a new one
+    private static final double SEARCH_WINDOW_LOOK_AHEADS = 2.0;
+
+    private final Path fPath;
+    private final PathModel fModel;
+
+    private int mClosestPoint;
+    private double mTargetHeading;
+    private double mSpeed;
+    private double mLastX;
+    private double mLastY;
+    private double mLookAheadX;
+    private double mLookAheadY;
+    private double mForward;
+    private double mStrafe;
+    private double mRotate;
+    private double mTrackingError;
+    private boolean mIsDone;
+    private boolean mHasPose;
+
+    public PathFollower(Path path) {
+        fPath = path;
+        fModel = path.getModel();
+
+        reset(0.0);
+    }
+
+    public Path getPath() {
+        return fPath;
+    }
+
+    /**
+     * Starts following from the beginning of the path while holding the given field heading
+     */
+    public void reset(double targetHeading) {
+        mClosestPoint = 0;
+        mTargetHeading = targetHeading;
+        mSpeed = 0.0;
+        mLastX = fPath.getX(0);
+        mLastY = fPath.getY(0);
+        mLookAheadX = fPath.getX(0);
+        mLookAheadY = fPath.getY(0);
+        mForward = 0.0;
+        mStrafe = 0.0;
+        mRotate = 0.0;
+        mTrackingError = 0.0;
+        mIsDone = false;
+        mHasPose = false;
+    }
+
+    public void setTargetHeading(double targetHeading) {
+        mTargetHeading = targetHeading;
+    }
+
+    /**
+     * Calculates the forward, strafe and rotate outputs in the robot frame for the current pose
+     *
+     * @param x       robot x in the field frame
+     * @param y       robot y in the field frame
+     * @param heading robot heading in degrees
+     */
+    public void update(double x, double y, double heading) {
+        updateClosestPoint(x, y);
+
+        double closestDistance = fPath.getDistance(mClosestPoint);
+        mTrackingError = Math.hypot(fPath.getX(mClosestPoint) - x, fPath.getY(mClosestPoint) - y);
+        updateLookAheadPoint(closestDistance + fModel.getLookAheadDistance());
+
+        double dx = mLookAheadX - x;
+        double dy = mLookAheadY - y;
+        double distanceToLookAhead = Math.hypot(dx, dy);
+        double distanceToEnd = Math.hypot(fPath.getX(fPath.size() - 1) - x, fPath.getY(fPath.size() - 1) - y);
+
+        if (mClosestPoint >= fPath.size() - 1 || distanceToEnd < fModel.getSpacing()) {
+            mIsDone = true;
+        }
+
+        // Never speed up faster than the model allows for the distance travelled since the last update
+        if (mIsDone) {
+            mSpeed = 0.0;
+        } else {
+            double travelled = mHasPose ? Math.hypot(x - mLastX, y - mLastY) : 0.0;
+            double acceleratedSpeed = Math.sqrt(mSpeed * mSpeed + 2 * fModel.getMaxAcceleration() * travelled);
+            mSpeed = Math.min(fPath.getVelocity(mClosestPoint), Math.max(fModel.getMinSpeed(), acceleratedSpeed));
+        }
+        mLastX = x;
+        mLastY = y;
+        mHasPose = true;
+
+        double fieldForward = 0.0;
+        double fieldStrafe = 0.0;
+        if (distanceToLookAhead > 0.0) {
+            fieldForward = mSpeed * dx / distanceToLookAhead;
+            fieldStrafe = mSpeed * dy / distanceToLookAhead;
+        }
+
+        // Convert to the robot frame the same way field centric driving does
+        double radHeading = Math.toRadians(heading);
+        mForward = fieldForward * Math.cos(radHeading) + fieldStrafe * Math.sin(radHeading);
+        mStrafe = -fieldForward * Math.sin(radHeading) + fieldStrafe * Math.cos(radHeading);
+
+        double headingError = heading - mTargetHeading;
+        headingError -= 360 * Math.floor((headingError + 180) / 360);
+        mRotate = Math.max(-fModel.getMaxSpeed(), Math.min(fModel.getMaxSpeed(), headingError / 180 * fModel.getTrackingErrorSpeed()));
+    }
+
+    public double getForward() {
+        return mForward;
+    }
+
+    public double getStrafe() {
+        return mStrafe;
+    }
+
+    public double getRotate() {
+        return mRotate;
+    }
+
+    public int getClosestPoint() {
+        return mClosestPoint;
+    }
+
+    public double getLookAheadX() {
+        return mLookAheadX;
+    }
+
+    public double getLookAheadY() {
+        return mLookAheadY;
+    }
+
+    // Distance from the robot to the closest point on the path
+    public double getTrackingError() {
+        return mTrackingError;
+    }
+
+    public boolean isDone() {
+        return mIsDone;
+    }
+
+    private void updateClosestPoint(double x, double y) {
+        double windowEnd = fPath.getDistance(mClosestPoint) + fModel.getLookAheadDistance() * SEARCH_WINDOW_LOOK_AHEADS;
+        double closestDistance = distanceSquared(mClosestPoint, x, y);
+
+        for (int p = mClosestPoint + 1; p < fPath.size() && fPath.getDistance(p) <= windowEnd; p++) {
+            double distance = distanceSquared(p, x, y);
+            if (distance <= closestDistance) {
+                closestDistance = distance;
+                mClosestPoint = p;
+            }
+        }
+    }
+
+    // Interpolates between the points on either side of the distance so the look ahead point moves smoothly
+    private void updateLookAheadPoint(double distance) {
+        int last = fPath.size() - 1;
+        if (distance >= fPath.getLength()) {
+            mLookAheadX = fPath.getX(last);
+            mLookAheadY = fPath.getY(last);
+            return;
+        }
+
+        int point = fPath.getPointAtDistance(distance);
+        int next = Math.min(point + 1, last);
+        double segment = fPath.getDistance(next) - fPath.getDistance(point);
+        double fraction = segment > 0 ? (distance - fPath.getDistance(point)) / segment : 0.0;
+        mLookAheadX = fPath.getX(point) + (fPath.getX(next) - fPath.getX(point)) * fraction;
+        mLookAheadY = fPath.getY(point) + (fPath.getY(next) - fPath.getY(point)) * fraction;
+    }
+
+    private double distanceSquared(int point, double x, double y) {
+        double dx = fPath.getX(point) - x;
+        double dy = fPath.getY(point) - y;
+        return dx * dx + dy * dy;
+    }
+}
@@ -0,0 +1,95 @@
+package org.team1619.utilities.purepursuit;
+
+import org.uacr.models.exceptions.ConfigurationException;
+
+import java.util.Map;
+
+/**
+ * The settings from a model in paths.yaml used to generate and follow a path.
+ * Distances are in inches and speeds are in percent output.
+ */
+
+public class PathModel {
+
+    private final String fName;
+    private final double fSpacing;
+    private final double fSmoothing;
+    private final double fMaxAcceleration;
+    private final double fMaxDeceleration;
+    private final double fTrackingErrorSpeed;
+    private final double fMinSpeed;
+    private final double fMaxSpeed;
+    private final double fTurnSpeed;
+    private final double fLookAheadDistance;
+
+    public PathModel(String name, Map<?, ?> settings) {
+        fName = name;
+        fSpacing = getSetting(settings, "spacing");
+        fSmoothing = getSetting(settings, "smoothing");
+        fMaxAcceleration = getSetting(settings, "max_acceleration");
+        fMaxDeceleration = getSetting(settings, "max_deceleration");
+        fTrackingErrorSpeed = getSetting(settings, "tracking_error_speed");
+        fMinSpeed = getSetting(settings, "min_speed");
+        fMaxSpeed = getSetting(settings, "max_speed");
+        fTurnSpeed = getSetting(settings, "turn_speed");
+        fLookAheadDistance = getSetting(settings, "look_ahead_distance");
+
+        if (fSpacing <= 0) {
+            throw new ConfigurationException("Path model " + name + " spacing must be greater than 0");
+        }
+    }
+
+    public String getName() {
+        return fName;
+    }
+
+    // Distance between the points injected into the path
+    public double getSpacing() {
+        return fSpacing;
+    }
+
+    // How much the path is smoothed, from 0 (not at all) to just under 1
+    public double getSmoothing() {
+        return fSmoothing;
+    }
+
+    // Speed gained per inch travelled
+    public double getMaxAcceleration() {
+        return fMaxAcceleration;
+    }
+
+    // Speed lost per inch travelled
+    public double getMaxDeceleration() {
+        return fMaxDeceleration;
+    }
+
+    // Rotate output per 180 degrees of heading error
+    public double getTrackingErrorSpeed() {
+        return fTrackingErrorSpeed;
+    }
+
+    public double getMinSpeed() {
+        return fMinSpeed;
+    }
+
+    public double getMaxSpeed() {
+        return fMaxSpeed;
+    }
+
+    // Speed through a curve is turn speed divided by the curvature
+    public double getTurnSpeed() {
+        return fTurnSpeed;
+    }
+
+    public double getLookAheadDistance() {
+        return fLookAheadDistance;
+    }
+
+    private double getSetting(Map<?, ?> settings, String key) {
+        Object value = settings.get(key);
+        if (!(value instanceof Number)) {
+            throw new ConfigurationException("Path model " + fName + " is missing numeric value " + key);
+        }
+        return ((Number) value).doubleValue();
+    }
+}
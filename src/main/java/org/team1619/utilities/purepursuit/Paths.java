@@ -0,0 +1,125 @@
+package org.team1619.utilities.purepursuit;
+
+import org.team1619.utilities.configuration.CompiledConfiguration;
+import org.uacr.models.exceptions.ConfigurationException;
+import org.uacr.utilities.injection.Inject;
+import org.uacr.utilities.logging.LogManager;
+import org.uacr.utilities.logging.Logger;
+
+import java.util.*;
+
+/**
+ * Loads every path in paths.yaml so behaviors only look paths up by name.
+ * Paths are read from the TrajectoryBundle generated at build time when it was built from the same paths.yaml,
+ * otherwise, such as when running from an IDE after editing paths.yaml, they are generated once at startup.
+ *
+ * paths.yaml format:
+ * path:
+ *   pa_name:
+ *     model: standard
+ *     points: [[x, y], [x, y], ...]
+ */
+
+public class Paths {
+
+    private static final Logger sLogger = LogManager.getLogger(Paths.class);
+
+    private final Map<String, PathModel> fModels;
+    private final Map<String, Path> fPaths;
+
+    @Inject
+    public Paths() {
+        this(CompiledConfiguration.loadYaml("paths.yaml"), CompiledConfiguration.crc(CompiledConfiguration.readResource("paths.yaml")), TrajectoryBundle.load());
+    }
+
+    public Paths(String resource) {
+        this(CompiledConfiguration.loadYaml(resource));
+    }
+
+    public Paths(Map<?, ?> pathsYaml) {
+        this(pathsYaml, 0, Optional.empty());
+    }
+
+    /**
+     * The bundle is only used if it was built from a paths.yaml file with the given CompiledConfiguration.crc
+     */
+    public Paths(Map<?, ?> pathsYaml, int pathsYamlCrc, Optional<TrajectoryBundle> bundle) {
+        fModels = new HashMap<>();
+        fPaths = new HashMap<>();
+
+        for (Map.Entry<?, ?> model : getSection(pathsYaml, "model").entrySet()) {
+            fModels.put(model.getKey().toString(), new PathModel(model.getKey().toString(), asMap(model.getValue(), "Model " + model.getKey())));
+        }
+
+        if (bundle.isPresent() && bundle.get().isBuiltFrom(pathsYamlCrc)) {
+            fPaths.putAll(bundle.get().getPaths(fModels));
+            sLogger.debug("Loaded {} paths from {}", fPaths.size(), TrajectoryBundle.RESOURCE);
+            return;
+        }
+        if (bundle.isPresent()) {
+            sLogger.info("{} was built from a different paths.yaml, generating paths", TrajectoryBundle.RESOURCE);
+        }
+
+        for (Map.Entry<?, ?> entry : getSection(pathsYaml, "path").entrySet()) {
+            String name = entry.getKey().toString();
+            Map<?, ?> path = asMap(entry.getValue(), "Path " + name);
+
+            PathModel model = getModel(String.valueOf(path.get("model")));
+
+            if (!(path.get("points") instanceof List)) {
+                throw new ConfigurationException("Path " + name + " must have a list of points");
+            }
+            List<?> points = (List<?>) path.get("points");
+            double[] x = new double[points.size()];
+            double[] y = new double[points.size()];
+            for (int p = 0; p < points.size(); p++) {
+                if (!(points.get(p) instanceof List) || ((List<?>) points.get(p)).size() != 2) {
+                    throw new ConfigurationException("Path " + name + " point " + p + " must be [x, y]");
+                }
+                List<?> point = (List<?>) points.get(p);
+                x[p] = ((Number) point.get(0)).doubleValue();
+                y[p] = ((Number) point.get(1)).doubleValue();
+            }
+
+            fPaths.put(name, new Path(name, model, x, y));
+            sLogger.debug("Loaded path {} with {} points", name, fPaths.get(name).size());
+        }
+    }
+
+    public boolean contains(String name) {
+        return fPaths.containsKey(name);
+    }
+
+    public Path getPath(String name) {
+        Path path = fPaths.get(name);
+        if (path == null) {
+            throw new ConfigurationException("Path " + name + " does not exist in paths.yaml");
+        }
+        return path;
+    }
+
+    public PathModel getModel(String name) {
+        PathModel model = fModels.get(name);
+        if (model == null) {
+            throw new ConfigurationException("Path model " + name + " does not exist in paths.yaml");
+        }
+        return model;
+    }
+
+    public Set<String> getPathNames() {
+        return Collections.unmodifiableSet(fPaths.keySet());
+    }
+
+    // Empty sections in yaml load as null
+    private static Map<?, ?> getSection(Map<?, ?> yaml, String section) {
+        Object value = yaml.get(section);
+        return value == null ? Map.of() : asMap(value, "Section " + section);
+    }
+
+    private static Map<?, ?> asMap(Object value, String description) {
+        if (!(value instanceof Map)) {
+            throw new ConfigurationException(description + " in paths.yaml must be a map");
+        }
+        return (Map<?, ?>) value;
+    }
+}
@@ -0,0 +1,200 @@
+package org.team1619.utilities.purepursuit;
+
+import org.team1619.utilities.configuration.CompiledConfiguration;
+import org.uacr.models.exceptions.ConfigurationException;
+import org.uacr.utilities.logging.LogManager;
+import org.uacr.utilities.logging.Logger;
+import org.yaml.snakeyaml.Yaml;
+
+import java.io.*;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Every path in paths.yaml generated at build time by the compileTrajectories Gradle task into one binary resource,
+ * so the robot does not smooth and velocity profile paths at boot.
+ * The resource is memory mapped when it is a file and read into one direct buffer when it is inside the jar,
+ * every Path read from the bundle is a slice of that buffer.
+ *
+ * Layout, little endian:
+ * Header: int magic, int version, int CompiledConfiguration.crc of the paths.yaml file, int path count
+ * Index, per path: u16 name length, UTF-8 name, u16 model length, UTF-8 model, int point count, int offset of the first point
+ * Points: Path.POINT_FIELDS doubles per point, see Path
+ *
+ * Usage: TrajectoryBundle [paths.yaml] [output file]
+ */
+
+public class TrajectoryBundle {
+
+    private static final Logger sLogger = LogManager.getLogger(TrajectoryBundle.class);
+
+    public static final String RESOURCE = "trajectories.bin";
+
+    private static final int MAGIC = 0x54524a31;
+    private static final int VERSION = 2;
+    private static final int HEADER_BYTES = 16;
+
+    private final ByteBuffer fBuffer;
+    private final int fYamlCrc;
+    private final int fPathCount;
+
+    private TrajectoryBundle(ByteBuffer buffer) {
+        fBuffer = buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (fBuffer.limit() < HEADER_BYTES || fBuffer.getInt(0) != MAGIC || fBuffer.getInt(4) != VERSION) {
+            throw new ConfigurationException(RESOURCE + " is not a version " + VERSION + " trajectory bundle");
+        }
+        fYamlCrc = fBuffer.getInt(8);
+        fPathCount = fBuffer.getInt(12);
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: TrajectoryBundle [paths.yaml] [output file]");
+            System.exit(2);
+        }
+
+        byte[] bytes = Files.readAllBytes(new File(args[0]).toPath());
+        Object yaml = new Yaml().load(new ByteArrayInputStream(bytes));
+        Map<?, ?> pathsYaml = yaml instanceof Map ? (Map<?, ?>) yaml : Map.of();
+
+        File output = new File(args[1]);
+        if (output.getParentFile() != null) {
+            output.getParentFile().mkdirs();
+        }
+        try (OutputStream stream = new FileOutputStream(output)) {
+            write(pathsYaml, CompiledConfiguration.crc(bytes), stream);
+        }
+        System.out.println("Compiled " + args[0] + " into " + output + " (" + output.length() + " bytes)");
+    }
+
+    /**
+     * Returns the bundle on the classpath, or empty if there is none or it can not be read
+     */
+    public static Optional<TrajectoryBundle> load() {
+        URL url = TrajectoryBundle.class.getClassLoader().getResource(RESOURCE);
+        if (url == null) {
+            sLogger.debug("No {} on the classpath", RESOURCE);
+            return Optional.empty();
+        }
+
+        try {
+            if ("file".equals(url.getProtocol())) {
+                try (FileChannel channel = FileChannel.open(new File(url.toURI()).toPath(), StandardOpenOption.READ)) {
+                    // The mapping stays valid after the channel is closed
+                    return Optional.of(new TrajectoryBundle(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())));
+                }
+            }
+
+            // A resource inside the jar can not be mapped, it is read once into a direct buffer instead
+            try (InputStream stream = url.openStream()) {
+                byte[] bytes = stream.readAllBytes();
+                ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+                buffer.put(bytes).flip();
+                return Optional.of(new TrajectoryBundle(buffer));
+            }
+        } catch (IOException | URISyntaxException | ConfigurationException e) {
+            sLogger.error("Could not read {}: {}", RESOURCE, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Generates every path in paths.yaml and writes them as a bundle, marked with the CRC of the paths.yaml file they came from
+     */
+    public static void write(Map<?, ?> pathsYaml, int pathsYamlCrc, OutputStream stream) throws IOException {
+        Paths paths = new Paths(pathsYaml);
+        List<Path> pathList = new ArrayList<>();
+        for (String name : new TreeSet<>(paths.getPathNames())) {
+            pathList.add(paths.getPath(name));
+        }
+
+        int indexBytes = 0;
+        for (Path path : pathList) {
+            indexBytes += 2 + getBytes(path.getName()).length + 2 + getBytes(path.getModel().getName()).length + 8;
+        }
+        // Points start 8 byte aligned so doubles never straddle a word
+        int pointsOffset = (HEADER_BYTES + indexBytes + 7) & ~7;
+        int size = pointsOffset;
+        for (Path path : pathList) {
+            size += path.size() * Path.POINT_BYTES;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC);
+        buffer.putInt(VERSION);
+        buffer.putInt(pathsYamlCrc);
+        buffer.putInt(pathList.size());
+
+        int offset = pointsOffset;
+        for (Path path : pathList) {
+            putString(buffer, path.getName());
+            putString(buffer, path.getModel().getName());
+            buffer.putInt(path.size());
+            buffer.putInt(offset);
+            offset += path.size() * Path.POINT_BYTES;
+        }
+
+        buffer.position(pointsOffset);
+        for (Path path : pathList) {
+            buffer.put(path.getPoints());
+        }
+
+        stream.write(buffer.array());
+        stream.flush();
+    }
+
+    /**
+     * True if the bundle was built from a paths.yaml file with the given CompiledConfiguration.crc
+     */
+    public boolean isBuiltFrom(int pathsYamlCrc) {
+        return fYamlCrc == pathsYamlCrc;
+    }
+
+    /**
+     * Returns every path in the bundle as a view of the bundle, using the given models by name
+     */
+    public Map<String, Path> getPaths(Map<String, PathModel> models) {
+        Map<String, Path> paths = new HashMap<>();
+        ByteBuffer index = fBuffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        index.position(HEADER_BYTES);
+        for (int p = 0; p < fPathCount; p++) {
+            String name = getString(index);
+            String modelName = getString(index);
+            int pointCount = index.getInt();
+            int offset = index.getInt();
+
+            PathModel model = models.get(modelName);
+            if (model == null) {
+                throw new ConfigurationException("Path model " + modelName + " does not exist in paths.yaml");
+            }
+
+            ByteBuffer points = fBuffer.duplicate();
+            points.position(offset).limit(offset + pointCount * Path.POINT_BYTES);
+            paths.put(name, new Path(name, model, points));
+        }
+        return paths;
+    }
+
+    private static byte[] getBytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void putString(ByteBuffer buffer, String value) {
+        byte[] bytes = getBytes(value);
+        buffer.putShort((short) bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getShort() & 0xFFFF];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
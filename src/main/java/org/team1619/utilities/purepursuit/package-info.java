@@ -0,0 +1,4 @@
+@NonNullByDefault
+package org.team1619.utilities.purepursuit;
+
+import org.uacr.NonNullByDefault;
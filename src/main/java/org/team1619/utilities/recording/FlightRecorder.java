@@ -0,0 +1,468 @@
+package org.team1619.utilities.recording;
+
+import org.uacr.robot.ControlMode;
+import org.uacr.shared.abstractions.FMS;
+import org.uacr.shared.abstractions.RobotConfiguration;
+import org.uacr.utilities.injection.Inject;
+import org.uacr.utilities.logging.LogManager;
+import org.uacr.utilities.logging.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.text.SimpleDateFormat;
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Records a fixed width binary record of the core thread every frame into a memory mapped ring file under the logPath.
+ * The columns are the inputs, outputs and channels listed in global_flight_recorder, each record also holds the FMS mode,
+ * the control mode and the active state of every subsystem. The header also holds the auto picked on the webdashboard,
+ * see setAutoSelection.
+ * Everything is written from the core thread, recording a value is a single store into the current frame and
+ * committing a frame copies it into the mapped file without any system calls.
+ * Outputs and channels are only recorded when they are set, they start every frame as NaN so a frame
+ * where nothing set them does not repeat the value of an earlier frame.
+ *
+ * File layout (big endian):
+ * header      - magic, version, capacity, record size, column count, subsystem count, control mode count, max states,
+ *               state count, FMS mode count, latest frame and start time, HEADER_BYTES long
+ * names       - column, subsystem, FMS mode and control mode names, the selected auto origin, destination and action,
+ *               then MAX_STATES state names, NAME_BYTES each as a short length and UTF-8 bytes,
+ *               the last byte of a column name slot is the column kind
+ * records     - capacity records of frame number (long), time nanos (long), FMS mode ordinal (int), control mode ordinal (int),
+ *               one state index per subsystem (int) and one double per column, padded to 8 bytes
+ *
+ * FlightRecording reads the file back.
+ */
+
+public class FlightRecorder {
+
+    private static final Logger sLogger = LogManager.getLogger(FlightRecorder.class);
+
+    public static final int MAGIC = 0x464C5231;
+    public static final int VERSION = 2;
+    public static final int HEADER_BYTES = 64;
+    public static final int NAME_BYTES = 64;
+    public static final int MAX_STATES = 256;
+    // Origin, destination and action
+    public static final int AUTO_NAMES = 3;
+    public static final int RECORD_PREFIX_BYTES = 24;
+
+    // Column kinds
+    public static final byte INPUT = 0;
+    public static final byte OUTPUT = 1;
+    public static final byte CHANNEL = 2;
+
+    // Header offsets
+    public static final int CAPACITY_OFFSET = 8;
+    public static final int RECORD_SIZE_OFFSET = 12;
+    public static final int COLUMN_COUNT_OFFSET = 16;
+    public static final int SUBSYSTEM_COUNT_OFFSET = 20;
+    public static final int CONTROL_MODE_COUNT_OFFSET = 24;
+    public static final int MAX_STATES_OFFSET = 28;
+    public static final int STATE_COUNT_OFFSET = 32;
+    public static final int FMS_MODE_COUNT_OFFSET = 36;
+    public static final int LATEST_FRAME_OFFSET = 40;
+    public static final int START_TIME_OFFSET = 48;
+
+    private static final int DEFAULT_FRAMES = 30000;
+    private static final int DEFAULT_KEEP_FILES = 10;
+    private static final int DEFAULT_MAX_MEGABYTES = 200;
+    private static final String DATE_FORMAT = "yyyyMMdd_HHmmss";
+
+    private final boolean fEnabled;
+    private final String fFileName;
+    private final int fCapacity;
+    private final int fKeepFiles;
+    private final long fMaxBytes;
+    private final List<String> fColumnNames;
+    private final List<Byte> fColumnKinds;
+    private final List<String> fInputNames;
+    private final Map<String, Integer> fColumns;
+    private final List<String> fSubsystemNames;
+    private final List<String> fStateNames;
+    private final Map<String, Integer> fStates;
+    private final int fRecordSize;
+    private final int fRecordsOffset;
+
+    // The frame being recorded
+    private final double[] fFrame;
+    private final double[] fCommittedFrame;
+    private final int[] fSetColumns;
+    private final int[] fActiveStates;
+    private int mFmsMode;
+    private int mControlMode;
+
+    private final String[] fAutoSelection;
+    private boolean mHasRunAuto;
+
+    private ByteBuffer mBuffer;
+    private long mFrameNumber;
+    private boolean mIsStarted;
+
+    @Inject
+    public FlightRecorder(RobotConfiguration robotConfiguration) {
+        boolean configured = robotConfiguration.contains("global_flight_recorder", "enabled");
+        fEnabled = configured && robotConfiguration.getBoolean("global_flight_recorder", "enabled");
+        fFileName = robotConfiguration.contains("global_flight_recorder", "file_name") ?
+                robotConfiguration.getString("global_flight_recorder", "file_name") : "flight_recorder";
+        fCapacity = robotConfiguration.contains("global_flight_recorder", "frames") ?
+                Math.max(robotConfiguration.getInt("global_flight_recorder", "frames"), 1) : DEFAULT_FRAMES;
+        fKeepFiles = robotConfiguration.contains("global_flight_recorder", "keep_files") ?
+                robotConfiguration.getInt("global_flight_recorder", "keep_files") : DEFAULT_KEEP_FILES;
+        fMaxBytes = (robotConfiguration.contains("global_flight_recorder", "max_megabytes") ?
+                robotConfiguration.getInt("global_flight_recorder", "max_megabytes") : DEFAULT_MAX_MEGABYTES) * 1024L * 1024L;
+
+        fColumnNames = new ArrayList<>();
+        fColumnKinds = new ArrayList<>();
+        fInputNames = new ArrayList<>();
+        fColumns = new HashMap<>();
+        for (String list : List.of("inputs", "outputs", "channels")) {
+            if (!robotConfiguration.contains("global_flight_recorder", list)) {
+                continue;
+            }
+            for (Object name : robotConfiguration.getList("global_flight_recorder", list)) {
+                if (fColumns.containsKey(name.toString())) {
+                    continue;
+                }
+                fColumns.put(name.toString(), fColumnNames.size());
+                fColumnNames.add(name.toString());
+                fColumnKinds.add("inputs".equals(list) ? INPUT : "outputs".equals(list) ? OUTPUT : CHANNEL);
+                if ("inputs".equals(list)) {
+                    fInputNames.add(name.toString());
+                }
+            }
+        }
+
+        fSubsystemNames = new ArrayList<>();
+        for (Object subsystem : robotConfiguration.getList("general", "subsystems")) {
+            fSubsystemNames.add(subsystem.toString());
+        }
+        fStateNames = new ArrayList<>();
+        fStates = new HashMap<>();
+
+        int recordSize = RECORD_PREFIX_BYTES + 4 * fSubsystemNames.size() + 8 * fColumnNames.size();
+        fRecordSize = (recordSize + 7) / 8 * 8;
+        fRecordsOffset = HEADER_BYTES + NAME_BYTES * (fColumnNames.size() + fSubsystemNames.size() + FMS.Mode.values().length +
+                ControlMode.values().length + AUTO_NAMES + MAX_STATES);
+
+        fFrame = new double[fColumnNames.size()];
+        fCommittedFrame = new double[fColumnNames.size()];
+        fSetColumns = new int[(int) fColumnKinds.stream().filter(kind -> kind != INPUT).count()];
+        int setColumn = 0;
+        for (int column = 0; column < fColumnKinds.size(); column++) {
+            if (fColumnKinds.get(column) != INPUT) {
+                fSetColumns[setColumn++] = column;
+                fFrame[column] = Double.NaN;
+            }
+        }
+        fActiveStates = new int[fSubsystemNames.size()];
+        Arrays.fill(fActiveStates, -1);
+        mFmsMode = FMS.Mode.DISABLED.ordinal();
+        mControlMode = -1;
+        fAutoSelection = new String[]{"", "", ""};
+        mHasRunAuto = false;
+
+        mBuffer = ByteBuffer.allocate(0);
+        mFrameNumber = 0;
+        mIsStarted = false;
+    }
+
+    /**
+     * Maps a new recording file named file_name_[date]_[time].bin in the logPath directory.
+     * Recordings from earlier boots are deleted first, oldest first, so that with the new one there are at most keep_files
+     * recordings taking at most max_megabytes. A limit of 0 or less is not applied.
+     * Frames recorded before start() or while the recorder is disabled are dropped.
+     */
+    public synchronized void start() {
+        if (!fEnabled || mIsStarted) {
+            return;
+        }
+
+        File directory = new File(System.getProperty("logPath", "logs"));
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            sLogger.error("Could not create flight recorder directory {}", directory);
+            return;
+        }
+        File file = new File(directory, fFileName + "_" + new SimpleDateFormat(DATE_FORMAT).format(new Date()) + ".bin");
+
+        long size = fRecordsOffset + (long) fRecordSize * fCapacity;
+        if (size > Integer.MAX_VALUE) {
+            sLogger.error("Flight recorder file would be {} bytes, reduce global_flight_recorder -> frames", size);
+            return;
+        }
+
+        deleteOldRecordings(directory, file, size);
+
+        // The mapping stays valid after the channel is closed
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            mBuffer = buffer;
+        } catch (IOException e) {
+            sLogger.error("Could not map flight recorder file {}: {}", file, e.getMessage());
+            return;
+        }
+
+        writeHeader();
+        mIsStarted = true;
+        sLogger.info("Flight recorder writing {} frames of {} columns to {}", fCapacity, fColumnNames.size(), file);
+    }
+
+    public boolean isStarted() {
+        return mIsStarted;
+    }
+
+    /**
+     * Returns the column for an input, output or channel listed in global_flight_recorder, or -1 if it is not recorded
+     */
+    public int getColumn(String name) {
+        Integer column = fColumns.get(name);
+        return column != null ? column : -1;
+    }
+
+    // The input numerics, booleans and vector values the recorder service samples at the end of every frame
+    public List<String> getInputNames() {
+        return Collections.unmodifiableList(fInputNames);
+    }
+
+    public List<String> getColumnNames() {
+        return Collections.unmodifiableList(fColumnNames);
+    }
+
+    public byte getColumnKind(int column) {
+        return fColumnKinds.get(column);
+    }
+
+    public int getSubsystemIndex(String subsystem) {
+        return fSubsystemNames.indexOf(subsystem);
+    }
+
+    public List<String> getSubsystemNames() {
+        return Collections.unmodifiableList(fSubsystemNames);
+    }
+
+    /**
+     * Sets the value of a column in the current frame, columns that are not recorded (-1) are ignored
+     */
+    public void set(int column, double value) {
+        if (column >= 0) {
+            fFrame[column] = value;
+        }
+    }
+
+    public void set(int column, boolean value) {
+        set(column, value ? 1.0 : 0.0);
+    }
+
+    // The value of a column in the last committed frame, NaN for an output or channel nothing set in that frame
+    public double getCommitted(int column) {
+        return fCommittedFrame[column];
+    }
+
+    public void setFmsMode(FMS.Mode fmsMode) {
+        mFmsMode = fmsMode.ordinal();
+    }
+
+    public void setControlMode(ControlMode controlMode) {
+        mControlMode = controlMode.ordinal();
+    }
+
+    // The control mode of the current frame, or null before the first one is set
+    public ControlMode getControlMode() {
+        return mControlMode >= 0 ? ControlMode.values()[mControlMode] : null;
+    }
+
+    /**
+     * Records the auto picked with ips_auto_origin, ips_auto_destination and ips_auto_action, call every frame.
+     * The selection stops changing once a frame in autonomous has been committed, so the recording keeps the auto that ran
+     * even if another one is picked after the match.
+     */
+    public synchronized void setAutoSelection(String origin, String destination, String action) {
+        if (mHasRunAuto || (fAutoSelection[0].equals(origin) && fAutoSelection[1].equals(destination) && fAutoSelection[2].equals(action))) {
+            return;
+        }
+        fAutoSelection[0] = origin;
+        fAutoSelection[1] = destination;
+        fAutoSelection[2] = action;
+        if (mIsStarted) {
+            writeAutoSelection();
+        }
+    }
+
+    /**
+     * Returns the index of a state name in the recording, adding it the first time it is seen
+     */
+    public synchronized int getStateIndex(String stateName) {
+        Integer index = fStates.get(stateName);
+        if (index == null) {
+            if (fStateNames.size() >= MAX_STATES) {
+                return -1;
+            }
+            index = fStateNames.size();
+            fStates.put(stateName, index);
+            fStateNames.add(stateName);
+            if (mIsStarted) {
+                writeName(fRecordsOffset - NAME_BYTES * (MAX_STATES - index), stateName);
+                mBuffer.putInt(STATE_COUNT_OFFSET, fStateNames.size());
+            }
+        }
+        return index;
+    }
+
+    public void setActiveState(int subsystem, int state) {
+        if (subsystem >= 0) {
+            fActiveStates[subsystem] = state;
+        }
+    }
+
+    public int getActiveState(int subsystem) {
+        return fActiveStates[subsystem];
+    }
+
+    // The name of the state a subsystem is running in the current frame, or an empty string if none is
+    public synchronized String getActiveStateName(int subsystem) {
+        int state = fActiveStates[subsystem];
+        return state >= 0 ? fStateNames.get(state) : "";
+    }
+
+    /**
+     * Copies the current frame into the next record of the ring, call once at the end of every core frame
+     */
+    public void commitFrame(long timeNanos) {
+        System.arraycopy(fFrame, 0, fCommittedFrame, 0, fFrame.length);
+        mHasRunAuto |= mFmsMode == FMS.Mode.AUTONOMOUS.ordinal();
+
+        if (mIsStarted) {
+            writeRecord(timeNanos);
+        }
+
+        for (int column : fSetColumns) {
+            fFrame[column] = Double.NaN;
+        }
+    }
+
+    private void writeRecord(long timeNanos) {
+        ByteBuffer buffer = mBuffer;
+        int offset = fRecordsOffset + (int) (mFrameNumber % fCapacity) * fRecordSize;
+        buffer.putLong(offset, mFrameNumber);
+        buffer.putLong(offset + 8, timeNanos);
+        buffer.putInt(offset + 16, mFmsMode);
+        buffer.putInt(offset + 20, mControlMode);
+        offset += RECORD_PREFIX_BYTES;
+        for (int activeState : fActiveStates) {
+            buffer.putInt(offset, activeState);
+            offset += 4;
+        }
+        for (double value : fFrame) {
+            buffer.putDouble(offset, value);
+            offset += 8;
+        }
+
+        // Written last so a reader never sees a frame number for a partially written record
+        buffer.putLong(LATEST_FRAME_OFFSET, mFrameNumber);
+        mFrameNumber++;
+    }
+
+    public long getFrameCount() {
+        return mFrameNumber;
+    }
+
+    /**
+     * Writes the mapped pages to disk, the operating system also does this on its own, including if the robot code crashes
+     */
+    public synchronized void force() {
+        if (mIsStarted && mBuffer instanceof MappedByteBuffer) {
+            ((MappedByteBuffer) mBuffer).force();
+        }
+    }
+
+    private void deleteOldRecordings(File directory, File newFile, long newSize) {
+        // Only files this recorder named, the date and time in the name sort them oldest first
+        String pattern = Pattern.quote(fFileName) + "_\\d{8}_\\d{6}\\.bin";
+        File[] files = directory.listFiles((dir, name) -> name.matches(pattern) && !name.equals(newFile.getName()));
+        if (files == null) {
+            return;
+        }
+        Arrays.sort(files, Comparator.comparing(File::getName).reversed());
+
+        int kept = 1;
+        long keptBytes = newSize;
+        for (File file : files) {
+            if ((fKeepFiles <= 0 || kept < fKeepFiles) && (fMaxBytes <= 0 || keptBytes + file.length() <= fMaxBytes)) {
+                kept++;
+                keptBytes += file.length();
+            } else if (file.delete()) {
+                sLogger.info("Deleted old flight recording {}", file);
+            } else {
+                sLogger.error("Could not delete old flight recording {}", file);
+            }
+        }
+    }
+
+    private void writeHeader() {
+        FMS.Mode[] fmsModes = FMS.Mode.values();
+        ControlMode[] controlModes = ControlMode.values();
+
+        mBuffer.putInt(0, MAGIC);
+        mBuffer.putInt(4, VERSION);
+        mBuffer.putInt(CAPACITY_OFFSET, fCapacity);
+        mBuffer.putInt(RECORD_SIZE_OFFSET, fRecordSize);
+        mBuffer.putInt(COLUMN_COUNT_OFFSET, fColumnNames.size());
+        mBuffer.putInt(SUBSYSTEM_COUNT_OFFSET, fSubsystemNames.size());
+        mBuffer.putInt(CONTROL_MODE_COUNT_OFFSET, controlModes.length);
+        mBuffer.putInt(MAX_STATES_OFFSET, MAX_STATES);
+        mBuffer.putInt(STATE_COUNT_OFFSET, fStateNames.size());
+        mBuffer.putInt(FMS_MODE_COUNT_OFFSET, fmsModes.length);
+        mBuffer.putLong(LATEST_FRAME_OFFSET, -1);
+        mBuffer.putLong(START_TIME_OFFSET, System.currentTimeMillis());
+
+        int offset = HEADER_BYTES;
+        for (int column = 0; column < fColumnNames.size(); column++) {
+            writeName(offset, fColumnNames.get(column));
+            mBuffer.put(offset + NAME_BYTES - 1, fColumnKinds.get(column));
+            offset += NAME_BYTES;
+        }
+        for (String subsystem : fSubsystemNames) {
+            writeName(offset, subsystem);
+            offset += NAME_BYTES;
+        }
+        for (FMS.Mode fmsMode : fmsModes) {
+            writeName(offset, fmsMode.toString());
+            offset += NAME_BYTES;
+        }
+        for (ControlMode controlMode : controlModes) {
+            writeName(offset, controlMode.toString());
+            offset += NAME_BYTES;
+        }
+        writeAutoSelection();
+        offset += NAME_BYTES * AUTO_NAMES;
+        for (String state : fStateNames) {
+            writeName(offset, state);
+            offset += NAME_BYTES;
+        }
+    }
+
+    private void writeAutoSelection() {
+        int offset = fRecordsOffset - NAME_BYTES * (MAX_STATES + AUTO_NAMES);
+        for (String name : fAutoSelection) {
+            writeName(offset, name);
+            offset += NAME_BYTES;
+        }
+    }
+
+    // Names longer than a name slot are truncated, leaving the last byte free for the column kind
+    private void writeName(int offset, String name) {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        int length = Math.min(bytes.length, NAME_BYTES - 3);
+        mBuffer.putShort(offset, (short) length);
+        for (int b = 0; b < length; b++) {
+            mBuffer.put(offset + 2 + b, bytes[b]);
+        }
+    }
+}
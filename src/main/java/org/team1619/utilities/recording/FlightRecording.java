@@ -0,0 +1,266 @@
+package org.team1619.utilities.recording;
+
+import org.uacr.robot.ControlMode;
+import org.uacr.shared.abstractions.FMS;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Reads a file written by the FlightRecorder one frame at a time, oldest frame first.
+ * Records are streamed from disk in chunks so a recording of any length only keeps CHUNK_RECORDS records in memory.
+ */
+
+public class FlightRecording implements AutoCloseable {
+
+    private static final int CHUNK_RECORDS = 1024;
+
+    private final FileChannel fChannel;
+    private final int fCapacity;
+    private final int fRecordSize;
+    private final int fRecordsOffset;
+    private final List<String> fColumnNames;
+    private final byte[] fColumnKinds;
+    private final Map<String, Integer> fColumns;
+    private final List<String> fSubsystemNames;
+    private final FMS.Mode[] fFmsModes;
+    private final ControlMode[] fControlModes;
+    private final List<String> fStateNames;
+    private final String[] fAutoSelection;
+    private final long fFirstFrame;
+    private final long fLatestFrame;
+
+    private final ByteBuffer fChunk;
+    private int mChunkStartSlot;
+    private int mChunkRecords;
+
+    // The frame that was read last
+    private final double[] fValues;
+    private final int[] fActiveStates;
+    private long mFrameNumber;
+    private long mTimeNanos;
+    private int mFmsMode;
+    private int mControlMode;
+
+    public FlightRecording(Path file) throws IOException {
+        fChannel = FileChannel.open(file, StandardOpenOption.READ);
+
+        ByteBuffer header = read(0, FlightRecorder.HEADER_BYTES);
+        if (header.getInt(0) != FlightRecorder.MAGIC || header.getInt(4) != FlightRecorder.VERSION) {
+            fChannel.close();
+            throw new IOException(file + " is not a version " + FlightRecorder.VERSION + " flight recording");
+        }
+        fCapacity = header.getInt(FlightRecorder.CAPACITY_OFFSET);
+        fRecordSize = header.getInt(FlightRecorder.RECORD_SIZE_OFFSET);
+        int columnCount = header.getInt(FlightRecorder.COLUMN_COUNT_OFFSET);
+        int subsystemCount = header.getInt(FlightRecorder.SUBSYSTEM_COUNT_OFFSET);
+        int controlModeCount = header.getInt(FlightRecorder.CONTROL_MODE_COUNT_OFFSET);
+        int maxStates = header.getInt(FlightRecorder.MAX_STATES_OFFSET);
+        int stateCount = header.getInt(FlightRecorder.STATE_COUNT_OFFSET);
+        int fmsModeCount = header.getInt(FlightRecorder.FMS_MODE_COUNT_OFFSET);
+        fLatestFrame = header.getLong(FlightRecorder.LATEST_FRAME_OFFSET);
+        fFirstFrame = Math.max(0, fLatestFrame - fCapacity + 1);
+
+        int nameCount = columnCount + subsystemCount + fmsModeCount + controlModeCount + FlightRecorder.AUTO_NAMES + maxStates;
+        fRecordsOffset = FlightRecorder.HEADER_BYTES + FlightRecorder.NAME_BYTES * nameCount;
+        ByteBuffer names = read(FlightRecorder.HEADER_BYTES, FlightRecorder.NAME_BYTES * nameCount);
+
+        int slot = 0;
+        fColumnNames = new ArrayList<>();
+        fColumnKinds = new byte[columnCount];
+        fColumns = new HashMap<>();
+        for (int c = 0; c < columnCount; c++, slot++) {
+            fColumnNames.add(readName(names, slot));
+            fColumnKinds[c] = names.get(slot * FlightRecorder.NAME_BYTES + FlightRecorder.NAME_BYTES - 1);
+            fColumns.put(fColumnNames.get(c), c);
+        }
+        fSubsystemNames = new ArrayList<>();
+        for (int s = 0; s < subsystemCount; s++, slot++) {
+            fSubsystemNames.add(readName(names, slot));
+        }
+        // Modes are matched by name so recordings survive the enums being reordered
+        fFmsModes = new FMS.Mode[fmsModeCount];
+        for (int m = 0; m < fmsModeCount; m++, slot++) {
+            fFmsModes[m] = valueOf(FMS.Mode.class, readName(names, slot));
+        }
+        fControlModes = new ControlMode[controlModeCount];
+        for (int m = 0; m < controlModeCount; m++, slot++) {
+            fControlModes[m] = valueOf(ControlMode.class, readName(names, slot));
+        }
+        fAutoSelection = new String[FlightRecorder.AUTO_NAMES];
+        for (int a = 0; a < FlightRecorder.AUTO_NAMES; a++, slot++) {
+            fAutoSelection[a] = readName(names, slot);
+        }
+        fStateNames = new ArrayList<>();
+        for (int s = 0; s < stateCount; s++, slot++) {
+            fStateNames.add(readName(names, slot));
+        }
+
+        fChunk = ByteBuffer.allocate(CHUNK_RECORDS * fRecordSize);
+        mChunkStartSlot = 0;
+        mChunkRecords = 0;
+
+        fValues = new double[columnCount];
+        fActiveStates = new int[subsystemCount];
+        mFrameNumber = -1;
+    }
+
+    // Frames older than the ring capacity have been overwritten, -1 if nothing was recorded
+    public long getFirstFrame() {
+        return fLatestFrame >= 0 ? fFirstFrame : -1;
+    }
+
+    public long getLatestFrame() {
+        return fLatestFrame;
+    }
+
+    public long getFrameCount() {
+        return fLatestFrame >= 0 ? fLatestFrame - fFirstFrame + 1 : 0;
+    }
+
+    public List<String> getColumnNames() {
+        return Collections.unmodifiableList(fColumnNames);
+    }
+
+    public byte getColumnKind(int column) {
+        return fColumnKinds[column];
+    }
+
+    // Returns the column with the given name or -1 if it was not recorded
+    public int getColumn(String name) {
+        Integer column = fColumns.get(name);
+        return column != null ? column : -1;
+    }
+
+    public List<String> getSubsystemNames() {
+        return Collections.unmodifiableList(fSubsystemNames);
+    }
+
+    // The auto that ran, or the last one picked if autonomous never started, as ips_auto_origin, ips_auto_destination and ips_auto_action
+    public String getAutoOrigin() {
+        return fAutoSelection[0];
+    }
+
+    public String getAutoDestination() {
+        return fAutoSelection[1];
+    }
+
+    public String getAutoAction() {
+        return fAutoSelection[2];
+    }
+
+    /**
+     * Reads a frame, after this the getters return its values
+     *
+     * @throws IOException if the frame has been overwritten, was never written or the file can not be read
+     */
+    public void read(long frameNumber) throws IOException {
+        if (frameNumber < getFirstFrame() || frameNumber > fLatestFrame) {
+            throw new IOException("Frame " + frameNumber + " is not in the recording, it holds frames " + getFirstFrame() + " to " + fLatestFrame);
+        }
+
+        int slot = (int) (frameNumber % fCapacity);
+        if (slot < mChunkStartSlot || slot >= mChunkStartSlot + mChunkRecords) {
+            loadChunk(slot);
+        }
+
+        int offset = (slot - mChunkStartSlot) * fRecordSize;
+        mFrameNumber = fChunk.getLong(offset);
+        if (mFrameNumber != frameNumber) {
+            throw new IOException("Frame " + frameNumber + " was overwritten by frame " + mFrameNumber + " while recording");
+        }
+        mTimeNanos = fChunk.getLong(offset + 8);
+        mFmsMode = fChunk.getInt(offset + 16);
+        mControlMode = fChunk.getInt(offset + 20);
+        offset += FlightRecorder.RECORD_PREFIX_BYTES;
+        for (int s = 0; s < fActiveStates.length; s++) {
+            fActiveStates[s] = fChunk.getInt(offset);
+            offset += 4;
+        }
+        for (int c = 0; c < fValues.length; c++) {
+            fValues[c] = fChunk.getDouble(offset);
+            offset += 8;
+        }
+    }
+
+    public long getFrameNumber() {
+        return mFrameNumber;
+    }
+
+    public long getTimeNanos() {
+        return mTimeNanos;
+    }
+
+    public FMS.Mode getFmsMode() {
+        FMS.Mode fmsMode = mFmsMode >= 0 && mFmsMode < fFmsModes.length ? fFmsModes[mFmsMode] : null;
+        return fmsMode != null ? fmsMode : FMS.Mode.DISABLED;
+    }
+
+    // The control mode of the frame, or null if none had been selected yet
+    public ControlMode getControlMode() {
+        return mControlMode >= 0 && mControlMode < fControlModes.length ? fControlModes[mControlMode] : null;
+    }
+
+    // The name of the state the subsystem was running, or an empty string if none was
+    public String getActiveStateName(int subsystem) {
+        int state = fActiveStates[subsystem];
+        return state >= 0 && state < fStateNames.size() ? fStateNames.get(state) : "";
+    }
+
+    public double getValue(int column) {
+        return fValues[column];
+    }
+
+    @Override
+    public void close() throws IOException {
+        fChannel.close();
+    }
+
+    // Chunks never wrap past the end of the ring
+    private void loadChunk(int slot) throws IOException {
+        int records = Math.min(CHUNK_RECORDS, fCapacity - slot);
+        fChunk.clear().limit(records * fRecordSize);
+        readFully(fChunk, fRecordsOffset + (long) slot * fRecordSize);
+        mChunkStartSlot = slot;
+        mChunkRecords = records;
+    }
+
+    private ByteBuffer read(long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        readFully(buffer, position);
+        return buffer;
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = fChannel.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("Flight recording ends early");
+            }
+            position += read;
+        }
+    }
+
+    private static String readName(ByteBuffer names, int slot) {
+        int offset = slot * FlightRecorder.NAME_BYTES;
+        int length = names.getShort(offset);
+        byte[] bytes = new byte[length];
+        for (int b = 0; b < length; b++) {
+            bytes[b] = names.get(offset + 2 + b);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static <T extends Enum<T>> T valueOf(Class<T> type, String name) {
+        try {
+            return Enum.valueOf(type, name);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
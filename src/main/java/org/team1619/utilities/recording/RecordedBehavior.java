@@ -0,0 +1,66 @@
+package org.team1619.utilities.recording;
+
+import org.uacr.models.behavior.Behavior;
+import org.uacr.utilities.Config;
+
+import java.util.Set;
+
+/**
+ * Records the state a behavior is running for each of its subsystems in the flight recorder
+ */
+
+public class RecordedBehavior implements Behavior {
+
+    private final Behavior fBehavior;
+    private final FlightRecorder fFlightRecorder;
+    private final int[] fSubsystems;
+
+    private int mState;
+
+    public RecordedBehavior(Behavior behavior, FlightRecorder flightRecorder) {
+        fBehavior = behavior;
+        fFlightRecorder = flightRecorder;
+        fSubsystems = behavior.getSubsystems().stream().mapToInt(flightRecorder::getSubsystemIndex).toArray();
+
+        mState = -1;
+    }
+
+    public Behavior getBehavior() {
+        return fBehavior;
+    }
+
+    @Override
+    public void initialize(String stateName, Config config) {
+        mState = fFlightRecorder.getStateIndex(stateName);
+        for (int subsystem : fSubsystems) {
+            fFlightRecorder.setActiveState(subsystem, mState);
+        }
+        fBehavior.initialize(stateName, config);
+    }
+
+    @Override
+    public void update() {
+        fBehavior.update();
+    }
+
+    @Override
+    public void dispose() {
+        fBehavior.dispose();
+        // Another state may already have taken over the subsystem
+        for (int subsystem : fSubsystems) {
+            if (subsystem >= 0 && fFlightRecorder.getActiveState(subsystem) == mState) {
+                fFlightRecorder.setActiveState(subsystem, -1);
+            }
+        }
+    }
+
+    @Override
+    public boolean isDone() {
+        return fBehavior.isDone();
+    }
+
+    @Override
+    public Set<String> getSubsystems() {
+        return fBehavior.getSubsystems();
+    }
+}
@@ -0,0 +1,41 @@
+package org.team1619.utilities.recording;
+
+import org.uacr.shared.abstractions.OutputValues;
+
+/**
+ * Passes output values through to the shared output values and records the numeric outputs listed in global_flight_recorder -> outputs
+ */
+
+public class RecordingOutputValues implements OutputValues {
+
+    private final OutputValues fSharedOutputValues;
+    private final FlightRecorder fFlightRecorder;
+
+    public RecordingOutputValues(OutputValues outputValues, FlightRecorder flightRecorder) {
+        fSharedOutputValues = outputValues;
+        fFlightRecorder = flightRecorder;
+    }
+
+    @Override
+    public void setNumeric(String name, String type, double value) {
+        fSharedOutputValues.setNumeric(name, type, value);
+        fFlightRecorder.set(fFlightRecorder.getColumn(name), value);
+    }
+
+    @Override
+    public void setNumeric(String name, String type, double value, String profile) {
+        fSharedOutputValues.setNumeric(name, type, value, profile);
+        fFlightRecorder.set(fFlightRecorder.getColumn(name), value);
+    }
+
+    @Override
+    public void setBoolean(String name, boolean value) {
+        fSharedOutputValues.setBoolean(name, value);
+        fFlightRecorder.set(fFlightRecorder.getColumn(name), value);
+    }
+
+    @Override
+    public void setOutputFlag(String name, String flag) {
+        fSharedOutputValues.setOutputFlag(name, flag);
+    }
+}
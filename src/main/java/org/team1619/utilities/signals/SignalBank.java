@@ -0,0 +1,385 @@
+package org.team1619.utilities.signals;
+
+import org.uacr.models.exceptions.ConfigurationException;
+import org.uacr.shared.abstractions.InputValues;
+import org.uacr.shared.abstractions.OutputValues;
+import org.uacr.shared.abstractions.RobotConfiguration;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Pre-resolved handles to the signals a behavior reads and writes.
+ * Behaviors register every signal name once in their constructor, unknown input, published and output names throw a ConfigurationException at startup.
+ * Each frame sample() reads every registered input into an array slot, the behavior reads and writes the slots through its handles
+ * and flush() writes the outputs and internal values that were set back to the shared values.
+ * The shared values are only reachable by name, so sample() still does one lookup per input, and one per input vector however many of its values are read.
+ */
+
+public class SignalBank {
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    // Where a slot is read from on sample()
+    private static final byte INPUT = 0;
+    private static final byte VECTOR = 1;
+    private static final byte RISING_EDGE = 2;
+    private static final byte INTERNAL = 3;
+
+    // Values an output device publishes to the shared input values when its read_ setting is true
+    private static final String[] DEVICE_VALUES = {"_position", "_velocity", "_temperature"};
+
+    private final InputValues fSharedInputValues;
+    private final Optional<OutputValues> fSharedOutputValues;
+    private final Set<String> fInputNumericNames;
+    private final Set<String> fInputBooleanNames;
+    private final Set<String> fInputVectorNames;
+    private final Set<String> fOutputNumericNames;
+    private final Set<String> fPublishedNumericNames;
+
+    // Numeric slots are shared by inputs, vector components and internal numerics
+    private String[] mNumericNames;
+    private String[] mNumericKeys;
+    private byte[] mNumericSources;
+    private double[] mNumerics;
+    private boolean[] mNumericsChanged;
+    private int mNumericCount;
+
+    // Boolean slots are shared by inputs, rising edges and internal booleans
+    private String[] mBooleanNames;
+    private byte[] mBooleanSources;
+    private boolean[] mBooleans;
+    private boolean[] mBooleansChanged;
+    private int mBooleanCount;
+
+    private String[] mOutputNames;
+    private String[] mOutputTypes;
+    private double[] mOutputs;
+    private boolean[] mOutputsChanged;
+    private String[] mOutputFlags;
+    private int mOutputCount;
+
+    public SignalBank(InputValues inputValues, OutputValues outputValues, RobotConfiguration robotConfiguration) {
+        this(inputValues, Optional.of(outputValues), robotConfiguration);
+    }
+
+    /**
+     * A signal bank that only reads inputs and writes internal values, for robot status and mode logic that have no output values
+     */
+    public SignalBank(InputValues inputValues, RobotConfiguration robotConfiguration) {
+        this(inputValues, Optional.empty(), robotConfiguration);
+    }
+
+    private SignalBank(InputValues inputValues, Optional<OutputValues> outputValues, RobotConfiguration robotConfiguration) {
+        fSharedInputValues = inputValues;
+        fSharedOutputValues = outputValues;
+
+        fInputNumericNames = getNames(robotConfiguration, "input_numerics");
+        fInputBooleanNames = getNames(robotConfiguration, "input_booleans");
+        fInputVectorNames = getNames(robotConfiguration, "input_vectors");
+        fOutputNumericNames = getNames(robotConfiguration, "output_numerics");
+        fPublishedNumericNames = getPublishedNames(robotConfiguration, fOutputNumericNames);
+
+        mNumericNames = new String[INITIAL_CAPACITY];
+        mNumericKeys = new String[INITIAL_CAPACITY];
+        mNumericSources = new byte[INITIAL_CAPACITY];
+        mNumerics = new double[INITIAL_CAPACITY];
+        mNumericsChanged = new boolean[INITIAL_CAPACITY];
+
+        mBooleanNames = new String[INITIAL_CAPACITY];
+        mBooleanSources = new byte[INITIAL_CAPACITY];
+        mBooleans = new boolean[INITIAL_CAPACITY];
+        mBooleansChanged = new boolean[INITIAL_CAPACITY];
+
+        mOutputNames = new String[INITIAL_CAPACITY];
+        mOutputTypes = new String[INITIAL_CAPACITY];
+        mOutputs = new double[INITIAL_CAPACITY];
+        mOutputsChanged = new boolean[INITIAL_CAPACITY];
+        mOutputFlags = new String[INITIAL_CAPACITY];
+    }
+
+    // ------- Registration, only call these from constructors -------
+
+    /**
+     * An input numeric listed in general -> input_numerics
+     */
+    public NumericSignal inputNumeric(String name) {
+        requireName(fInputNumericNames, "input_numerics", name);
+        return new NumericSignal(addNumeric(name, "", INPUT));
+    }
+
+    /**
+     * One value of an input vector listed in general -> input_vectors, missing values read as 0
+     */
+    public NumericSignal inputVector(String name, String key) {
+        requireName(fInputVectorNames, "input_vectors", name);
+        return new NumericSignal(addNumeric(name, key, VECTOR));
+    }
+
+    /**
+     * A numeric that is not an input but is published to the shared input values by someone else. It must be one of
+     * - a value an output device in general -> output_numerics publishes, opn_name becomes ipn_name_position, _velocity or _temperature
+     * - an x or y axis of a stick in global_input_shaping -> sticks with _shaped added, written by the input shaping service
+     * - a value robot code calculates, listed in general -> published_numerics, such as the odometry pose from robot status
+     */
+    public NumericSignal publishedNumeric(String name) {
+        requireName(fPublishedNumericNames, "published_numerics, or published by an output device or the input shaping service,", name);
+        return new NumericSignal(addNumeric(name, "", INPUT));
+    }
+
+    /**
+     * A numeric that is calculated by this behavior and stored in the shared input values, such as debug values.
+     * It is not read back on sample(), get() returns the last value set.
+     */
+    public NumericSignal internalNumeric(String name) {
+        return new NumericSignal(addNumeric(name, "", INTERNAL));
+    }
+
+    /**
+     * An input boolean listed in general -> input_booleans
+     */
+    public BooleanSignal inputBoolean(String name) {
+        requireName(fInputBooleanNames, "input_booleans", name);
+        return new BooleanSignal(addBoolean(name, INPUT));
+    }
+
+    /**
+     * The rising edge of an input boolean listed in general -> input_booleans
+     */
+    public BooleanSignal inputBooleanRisingEdge(String name) {
+        requireName(fInputBooleanNames, "input_booleans", name);
+        return new BooleanSignal(addBoolean(name, RISING_EDGE));
+    }
+
+    /**
+     * A boolean that is calculated by robot code and stored in the shared input values, such as flags and toggles
+     */
+    public BooleanSignal internalBoolean(String name) {
+        return new BooleanSignal(addBoolean(name, INTERNAL));
+    }
+
+    /**
+     * An output numeric listed in general -> output_numerics, always written with the given output type (percent, position, ...)
+     */
+    public OutputSignal outputNumeric(String name, String outputType) {
+        requireName(fOutputNumericNames, "output_numerics", name);
+        if (!fSharedOutputValues.isPresent()) {
+            throw new ConfigurationException("Signal " + name + " can not be written, this signal bank has no output values");
+        }
+
+        if (mOutputCount == mOutputNames.length) {
+            int capacity = mOutputCount * 2;
+            mOutputNames = Arrays.copyOf(mOutputNames, capacity);
+            mOutputTypes = Arrays.copyOf(mOutputTypes, capacity);
+            mOutputs = Arrays.copyOf(mOutputs, capacity);
+            mOutputsChanged = Arrays.copyOf(mOutputsChanged, capacity);
+            mOutputFlags = Arrays.copyOf(mOutputFlags, capacity);
+        }
+        mOutputNames[mOutputCount] = name;
+        mOutputTypes[mOutputCount] = outputType;
+        return new OutputSignal(mOutputCount++);
+    }
+
+    // ------- Per frame -------
+
+    /**
+     * Reads every registered input and internal boolean into its slot, call once at the start of each update
+     */
+    public void sample() {
+        String vectorName = null;
+        Map<String, Double> vector = Map.of();
+        for (int i = 0; i < mNumericCount; i++) {
+            switch (mNumericSources[i]) {
+                case VECTOR:
+                    // Values of the same vector are registered next to each other, the vector is only looked up once
+                    if (!mNumericNames[i].equals(vectorName)) {
+                        vectorName = mNumericNames[i];
+                        vector = fSharedInputValues.getVector(vectorName);
+                    }
+                    mNumerics[i] = vector.getOrDefault(mNumericKeys[i], 0.0);
+                    break;
+                case INTERNAL:
+                    // Only written by robot code, the slot already holds the last value set
+                    break;
+                default:
+                    mNumerics[i] = fSharedInputValues.getNumeric(mNumericNames[i]);
+            }
+        }
+        for (int i = 0; i < mBooleanCount; i++) {
+            switch (mBooleanSources[i]) {
+                case RISING_EDGE:
+                    mBooleans[i] = fSharedInputValues.getBooleanRisingEdge(mBooleanNames[i]);
+                    break;
+                default:
+                    mBooleans[i] = fSharedInputValues.getBoolean(mBooleanNames[i]);
+            }
+        }
+    }
+
+    public double get(NumericSignal signal) {
+        return mNumerics[signal.fIndex];
+    }
+
+    public boolean get(BooleanSignal signal) {
+        return mBooleans[signal.fIndex];
+    }
+
+    /**
+     * Sets an internal numeric, written to the shared input values on flush
+     */
+    public void set(NumericSignal signal, double value) {
+        mNumerics[signal.fIndex] = value;
+        mNumericsChanged[signal.fIndex] = true;
+    }
+
+    /**
+     * Sets an internal boolean, written to the shared input values on flush
+     */
+    public void set(BooleanSignal signal, boolean value) {
+        mBooleans[signal.fIndex] = value;
+        mBooleansChanged[signal.fIndex] = true;
+    }
+
+    /**
+     * Sets an output, written to the shared output values on flush
+     */
+    public void set(OutputSignal signal, double value) {
+        mOutputs[signal.fIndex] = value;
+        mOutputsChanged[signal.fIndex] = true;
+    }
+
+    /**
+     * Sets a flag on an output, such as zero on a talon to zero its encoder, written to the shared output values on flush
+     */
+    public void setFlag(OutputSignal signal, String flag) {
+        mOutputFlags[signal.fIndex] = flag;
+    }
+
+    /**
+     * Writes every value and flag set since the last flush, call once at the end of each update
+     */
+    public void flush() {
+        for (int i = 0; i < mNumericCount; i++) {
+            if (mNumericsChanged[i]) {
+                mNumericsChanged[i] = false;
+                fSharedInputValues.setNumeric(mNumericNames[i], mNumerics[i]);
+            }
+        }
+        for (int i = 0; i < mBooleanCount; i++) {
+            if (mBooleansChanged[i]) {
+                mBooleansChanged[i] = false;
+                fSharedInputValues.setBoolean(mBooleanNames[i], mBooleans[i]);
+            }
+        }
+        for (int i = 0; i < mOutputCount; i++) {
+            if (mOutputsChanged[i]) {
+                mOutputsChanged[i] = false;
+                fSharedOutputValues.get().setNumeric(mOutputNames[i], mOutputTypes[i], mOutputs[i]);
+            }
+            if (mOutputFlags[i] != null) {
+                fSharedOutputValues.get().setOutputFlag(mOutputNames[i], mOutputFlags[i]);
+                mOutputFlags[i] = null;
+            }
+        }
+    }
+
+    private int addNumeric(String name, String key, byte source) {
+        if (mNumericCount == mNumericNames.length) {
+            int capacity = mNumericCount * 2;
+            mNumericNames = Arrays.copyOf(mNumericNames, capacity);
+            mNumericKeys = Arrays.copyOf(mNumericKeys, capacity);
+            mNumericSources = Arrays.copyOf(mNumericSources, capacity);
+            mNumerics = Arrays.copyOf(mNumerics, capacity);
+            mNumericsChanged = Arrays.copyOf(mNumericsChanged, capacity);
+        }
+        mNumericNames[mNumericCount] = name;
+        mNumericKeys[mNumericCount] = key;
+        mNumericSources[mNumericCount] = source;
+        return mNumericCount++;
+    }
+
+    private int addBoolean(String name, byte source) {
+        if (mBooleanCount == mBooleanNames.length) {
+            int capacity = mBooleanCount * 2;
+            mBooleanNames = Arrays.copyOf(mBooleanNames, capacity);
+            mBooleanSources = Arrays.copyOf(mBooleanSources, capacity);
+            mBooleans = Arrays.copyOf(mBooleans, capacity);
+            mBooleansChanged = Arrays.copyOf(mBooleansChanged, capacity);
+        }
+        mBooleanNames[mBooleanCount] = name;
+        mBooleanSources[mBooleanCount] = source;
+        return mBooleanCount++;
+    }
+
+    private static void requireName(Set<String> names, String list, String name) {
+        if (!names.contains(name)) {
+            throw new ConfigurationException("Signal " + name + " is not listed in general -> " + list);
+        }
+    }
+
+    private static Set<String> getPublishedNames(RobotConfiguration robotConfiguration, Set<String> outputNumericNames) {
+        Set<String> names = getNames(robotConfiguration, "published_numerics");
+        for (String output : outputNumericNames) {
+            if (output.startsWith("opn_")) {
+                for (String value : DEVICE_VALUES) {
+                    names.add("ipn_" + output.substring(4) + value);
+                }
+            }
+        }
+        if (robotConfiguration.contains("global_input_shaping", "sticks")) {
+            for (Object stick : robotConfiguration.getMap("global_input_shaping", "sticks").values()) {
+                if (stick instanceof Map) {
+                    names.add(((Map<?, ?>) stick).get("x") + "_shaped");
+                    names.add(((Map<?, ?>) stick).get("y") + "_shaped");
+                }
+            }
+        }
+        return names;
+    }
+
+    private static Set<String> getNames(RobotConfiguration robotConfiguration, String list) {
+        Set<String> names = new HashSet<>();
+        if (robotConfiguration.contains("general", list)) {
+            for (Object name : robotConfiguration.getList("general", list)) {
+                names.add(String.valueOf(name));
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Handle to a numeric slot
+     */
+    public static final class NumericSignal {
+        private final int fIndex;
+
+        private NumericSignal(int index) {
+            fIndex = index;
+        }
+    }
+
+    /**
+     * Handle to a boolean slot
+     */
+    public static final class BooleanSignal {
+        private final int fIndex;
+
+        private BooleanSignal(int index) {
+            fIndex = index;
+        }
+    }
+
+    /**
+     * Handle to an output numeric slot
+     */
+    public static final class OutputSignal {
+        private final int fIndex;
+
+        private OutputSignal(int index) {
+            fIndex = index;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package org.team1619.utilities.swerve;
+
+import org.uacr.models.exceptions.ConfigurationException;
+import org.uacr.shared.abstractions.RobotConfiguration;
+
+import java.util.Map;
+
+/**
+ * Inverse kinematics for a swerve drive with any number of modules.
+ * Module positions are read from global_drivetrain -> swerve_modules, where x is forward and y is to the right of the robot center.
+ * All results are written into caller owned arrays so nothing is allocated per call.
+ */
+
+public class SwerveKinematics {
+
+    private final int fModuleCount;
+    private final String[] fModuleNames;
+    private final double[] fModuleX;
+    private final double[] fModuleY;
+    private final double fRadius;
+
+    public SwerveKinematics(RobotConfiguration robotConfiguration) {
+        Map<String, Object> modules = robotConfiguration.getMap("global_drivetrain", "swerve_modules");
+        if (modules.isEmpty()) {
+            throw new ConfigurationException("global_drivetrain -> swerve_modules must contain at least one module");
+        }
+
+        fModuleCount = modules.size();
+        fModuleNames = new String[fModuleCount];
+        fModuleX = new double[fModuleCount];
+        fModuleY = new double[fModuleCount];
+
+        int index = 0;
+        for (Map.Entry<String, Object> module : modules.entrySet()) {
+            fModuleNames[index] = module.getKey();
+            fModuleX[index] = getModuleCoordinate(module, "x");
+            fModuleY[index] = getModuleCoordinate(module, "y");
+            index++;
+        }
+
+        fRadius = getMaxDistance(0.0, 0.0);
+    }
+
+    public SwerveKinematics(String[] moduleNames, double[] moduleX, double[] moduleY) {
+        if (moduleNames.length == 0 || moduleNames.length != moduleX.length || moduleNames.length != moduleY.length) {
+            throw new IllegalArgumentException("Swerve module names and positions must be the same non zero length");
+        }
+
+        fModuleCount = moduleNames.length;
+        fModuleNames = moduleNames.clone();
+        fModuleX = moduleX.clone();
+        fModuleY = moduleY.clone();
+
+        fRadius = getMaxDistance(0.0, 0.0);
+    }
+
+    public int getModuleCount() {
+        return fModuleCount;
+    }
+
+    public String getModuleName(int module) {
+        return fModuleNames[module];
+    }
+
+    // Returns the index of the named module or -1 if there is no module with that name
+    public int getModuleIndex(String name) {
+        for (int m = 0; m < fModuleCount; m++) {
+            if (fModuleNames[m].equals(name)) {
+                return m;
+            }
+        }
+        return -1;
+    }
+
+    public double getModuleX(int module) {
+        return fModuleX[module];
+    }
+
+    public double getModuleY(int module) {
+        return fModuleY[module];
+    }
+
+    /**
+     * Returns a setting of the named module from global_drivetrain -> swerve_modules, such as the name of its angle input
+     */
+    public static String getModuleSetting(RobotConfiguration robotConfiguration, String module, String key) {
+        Object setting = ((Map<?, ?>) robotConfiguration.getMap("global_drivetrain", "swerve_modules").get(module)).get(key);
+        if (setting == null) {
+            throw new ConfigurationException("Swerve module " + module + " is missing " + key);
+        }
+        return setting.toString();
+    }
+
+    /**
+     * Calculates the speed and angle (degrees) of every module when spinning around the center of the robot.
+     * Forward, strafe and rotate are in the range -1 to 1, a rotate of 1 drives the furthest module at full speed.
+     */
+    public void toModuleStates(double forward, double strafe, double rotate, double[] speeds, double[] angles) {
+        calculate(forward, strafe, rotate, 0.0, 0.0, fRadius, speeds, angles);
+    }
+
+    /**
+     * Calculates the speed and angle (degrees) of every module when spinning around the point (centerX, centerY).
+     */
+    public void toModuleStates(double forward, double strafe, double rotate, double centerX, double centerY, double[] speeds, double[] angles) {
+        calculate(forward, strafe, rotate, centerX, centerY, getMaxDistance(centerX, centerY), speeds, angles);
+    }
+
+    /**
+     * Calculates the speed and angle (degrees) of every module when spinning around the given module
+     */
+    public void toModuleStatesAroundModule(double rotate, int pivotModule, double[] speeds, double[] angles) {
+        toModuleStates(0.0, 0.0, rotate, fModuleX[pivotModule], fModuleY[pivotModule], speeds, angles);
+    }
+
+    /**
+     * Scales all speeds down so that none of them exceed maxSpeed.
+     * Returns the largest speed before scaling.
+     */
+    public static double desaturate(double[] speeds, double maxSpeed) {
+        double largest = 0.0;
+        for (double speed : speeds) {
+            largest = Math.max(largest, Math.abs(speed));
+        }
+
+        if (largest > maxSpeed) {
+            double scale = maxSpeed / largest;
+            for (int m = 0; m < speeds.length; m++) {
+                speeds[m] *= scale;
+            }
+        }
+        return largest;
+    }
+
+    /**
+     * Slows down modules that are still turning towards their target angle and reverses modules that would have to turn more than 90 degrees.
+     * The speed is scaled by the cube of the cosine of the difference between the target and current angle.
+     * A difference greater than 90 degrees makes the cosine negative, which drives the wheel backwards with the angle flipped 180 degrees.
+     */
+    public static void optimize(double[] speeds, double[] angles, double[] currentAngles) {
+        for (int m = 0; m < speeds.length; m++) {
+            double cosine = Math.cos(Math.toRadians(angles[m] - currentAngles[m]));
+            double scale = cosine * cosine * cosine;
+
+            if (scale < 0) {
+                angles[m] += 180;
+            }
+            speeds[m] *= scale;
+        }
+    }
+
+    private void calculate(double forward, double strafe, double rotate, double centerX, double centerY, double radius, double[] speeds, double[] angles) {
+        double rotateScale = radius > 0.0 ? rotate / radius : 0.0;
+
+        for (int m = 0; m < fModuleCount; m++) {
+            double moduleStrafe = strafe + rotateScale * (fModuleX[m] - centerX);
+            double moduleForward = forward + rotateScale * (fModuleY[m] - centerY);
+
+            speeds[m] = Math.sqrt((moduleStrafe * moduleStrafe) + (moduleForward * moduleForward));
+            angles[m] = Math.toDegrees(Math.atan2(moduleStrafe, moduleForward));
+        }
+    }
+
+    private double getMaxDistance(double centerX, double centerY) {
+        double max = 0.0;
+        for (int m = 0; m < fModuleCount; m++) {
+            double dx = fModuleX[m] - centerX;
+            double dy = fModuleY[m] - centerY;
+            max = Math.max(max, Math.sqrt((dx * dx) + (dy * dy)));
+        }
+        return max;
+    }
+
+    private static double getModuleCoordinate(Map.Entry<String, Object> module, String key) {
+        if (!(module.getValue() instanceof Map)) {
+            throw new ConfigurationException("Swerve module " + module.getKey() + " must be a map containing x and y");
+        }
+        Object value = ((Map<?, ?>) module.getValue()).get(key);
+        if (!(value instanceof Number)) {
+            throw new ConfigurationException("Swerve module " + module.getKey() + " is missing numeric value " + key);
+        }
+        return ((Number) value).doubleValue();
+    }
+}
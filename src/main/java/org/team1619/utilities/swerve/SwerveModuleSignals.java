@@ -0,0 +1,57 @@
+package org.team1619.utilities.swerve;
+
+import org.team1619.utilities.signals.SignalBank;
+import org.team1619.utilities.signals.SignalBank.NumericSignal;
+import org.team1619.utilities.signals.SignalBank.OutputSignal;
+import org.uacr.shared.abstractions.RobotConfiguration;
+
+/**
+ * The angle input and speed and angle outputs of every swerve module, registered in a behavior's signal bank.
+ * Modules are in the same order as the kinematics.
+ */
+
+public class SwerveModuleSignals {
+
+    private final SignalBank fSignals;
+    private final NumericSignal[] fAngleInputs;
+    private final OutputSignal[] fSpeedOutputs;
+    private final OutputSignal[] fAngleOutputs;
+
+    public SwerveModuleSignals(SignalBank signals, SwerveKinematics kinematics, RobotConfiguration robotConfiguration) {
+        fSignals = signals;
+
+        int moduleCount = kinematics.getModuleCount();
+        fAngleInputs = new NumericSignal[moduleCount];
+        fSpeedOutputs = new OutputSignal[moduleCount];
+        fAngleOutputs = new OutputSignal[moduleCount];
+        for (int m = 0; m < moduleCount; m++) {
+            String module = kinematics.getModuleName(m);
+            fAngleInputs[m] = signals.inputNumeric(SwerveKinematics.getModuleSetting(robotConfiguration, module, "angle_input"));
+            fSpeedOutputs[m] = signals.outputNumeric(SwerveKinematics.getModuleSetting(robotConfiguration, module, "speed_output"), "percent");
+            fAngleOutputs[m] = signals.outputNumeric(SwerveKinematics.getModuleSetting(robotConfiguration, module, "angle_output"), "position");
+        }
+    }
+
+    /**
+     * Copies the sampled module angles into currentAngles
+     */
+    public void readAngles(double[] currentAngles) {
+        for (int m = 0; m < fAngleInputs.length; m++) {
+            currentAngles[m] = fSignals.get(fAngleInputs[m]);
+        }
+    }
+
+    public void setModules(double[] speeds, double[] angles) {
+        for (int m = 0; m < fSpeedOutputs.length; m++) {
+            fSignals.set(fSpeedOutputs[m], speeds[m]);
+            fSignals.set(fAngleOutputs[m], angles[m]);
+        }
+    }
+
+    // Sets every speed to 0 and leaves the angles where they are
+    public void stop() {
+        for (OutputSignal speedOutput : fSpeedOutputs) {
+            fSignals.set(speedOutput, 0);
+        }
+    }
+}
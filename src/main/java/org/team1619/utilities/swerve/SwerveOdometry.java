@@ -0,0 +1,174 @@
+package org.team1619.utilities.swerve;
+
+import org.uacr.shared.abstractions.RobotConfiguration;
+import org.uacr.utilities.injection.Inject;
+
+/**
+ * Tracks the robot pose on the field from the swerve module angles and velocities and the navx heading.
+ * x is forward and y is in the direction of a positive strafe, both in the field frame used by field centric driving.
+ * Every update is stored in a fixed size ring buffer so recent poses can be looked up without allocating.
+ * Only one thread should call update().
+ */
+
+public class SwerveOdometry {
+
+    private static final int DEFAULT_HISTORY_SIZE = 64;
+
+    private final SwerveKinematics fKinematics;
+    private final int fHistorySize;
+    private final long[] fHistoryTimes;
+    private final double[] fHistoryX;
+    private final double[] fHistoryY;
+    private final double[] fHistoryHeading;
+
+    private double mX;
+    private double mY;
+    private double mHeading;
+    private double mVelocityX;
+    private double mVelocityY;
+    private long mLastUpdateMillis;
+    private boolean mHasUpdated;
+    private int mHistoryHead;
+    private int mHistoryCount;
+
+    @Inject
+    public SwerveOdometry(RobotConfiguration robotConfiguration) {
+        this(new SwerveKinematics(robotConfiguration), robotConfiguration.contains("global_drivetrain", "odometry_history_size") ?
+                robotConfiguration.getInt("global_drivetrain", "odometry_history_size") : DEFAULT_HISTORY_SIZE);
+    }
+
+    public SwerveOdometry(SwerveKinematics kinematics, int historySize) {
+        fKinematics = kinematics;
+        fHistorySize = Math.max(historySize, 1);
+        fHistoryTimes = new long[fHistorySize];
+        fHistoryX = new double[fHistorySize];
+        fHistoryY = new double[fHistorySize];
+        fHistoryHeading = new double[fHistorySize];
+
+        reset(0.0, 0.0);
+    }
+
+    public SwerveKinematics getKinematics() {
+        return fKinematics;
+    }
+
+    /**
+     * Moves the pose to (x, y) and clears the history
+     */
+    public void reset(double x, double y) {
+        mX = x;
+        mY = y;
+        mVelocityX = 0.0;
+        mVelocityY = 0.0;
+        mHasUpdated = false;
+        mHistoryHead = 0;
+        mHistoryCount = 0;
+    }
+
+    /**
+     * Integrates the module velocities since the last update
+     *
+     * @param timeMillis       the current frame time
+     * @param headingDegrees   the robot heading in the field frame
+     * @param moduleAngles     the angle of each module in degrees, in the same order as the kinematics
+     * @param moduleVelocities the velocity of each module's wheel
+     */
+    public void update(long timeMillis, double headingDegrees, double[] moduleAngles, double[] moduleVelocities) {
+        int moduleCount = fKinematics.getModuleCount();
+
+        // Average the module velocities to get the velocity of the robot center in the robot frame
+        double forward = 0.0;
+        double strafe = 0.0;
+        for (int m = 0; m < moduleCount; m++) {
+            double angle = Math.toRadians(moduleAngles[m]);
+            forward += moduleVelocities[m] * Math.cos(angle);
+            strafe += moduleVelocities[m] * Math.sin(angle);
+        }
+        forward /= moduleCount;
+        strafe /= moduleCount;
+
+        // Rotate into the field frame, this is the inverse of the field centric joystick adjustment in Drivetrain_Swerve
+        double heading = Math.toRadians(headingDegrees);
+        double cos = Math.cos(heading);
+        double sin = Math.sin(heading);
+        mVelocityX = forward * cos - strafe * sin;
+        mVelocityY = forward * sin + strafe * cos;
+        mHeading = headingDegrees;
+
+        if (mHasUpdated) {
+            double seconds = (timeMillis - mLastUpdateMillis) / 1000.0;
+            mX += mVelocityX * seconds;
+            mY += mVelocityY * seconds;
+        }
+        mLastUpdateMillis = timeMillis;
+        mHasUpdated = true;
+
+        fHistoryTimes[mHistoryHead] = timeMillis;
+        fHistoryX[mHistoryHead] = mX;
+        fHistoryY[mHistoryHead] = mY;
+        fHistoryHeading[mHistoryHead] = mHeading;
+        mHistoryHead = (mHistoryHead + 1) % fHistorySize;
+        mHistoryCount = Math.min(mHistoryCount + 1, fHistorySize);
+    }
+
+    public double getX() {
+        return mX;
+    }
+
+    public double getY() {
+        return mY;
+    }
+
+    public double getHeading() {
+        return mHeading;
+    }
+
+    public double getVelocityX() {
+        return mVelocityX;
+    }
+
+    public double getVelocityY() {
+        return mVelocityY;
+    }
+
+    // ------- Pose history, 0 is the latest update -------
+
+    public int getHistoryCount() {
+        return mHistoryCount;
+    }
+
+    public long getHistoryTime(int updatesAgo) {
+        return fHistoryTimes[historyIndex(updatesAgo)];
+    }
+
+    public double getHistoryX(int updatesAgo) {
+        return fHistoryX[historyIndex(updatesAgo)];
+    }
+
+    public double getHistoryY(int updatesAgo) {
+        return fHistoryY[historyIndex(updatesAgo)];
+    }
+
+    public double getHistoryHeading(int updatesAgo) {
+        return fHistoryHeading[historyIndex(updatesAgo)];
+    }
+
+    /**
+     * Returns how many updates ago the pose was at or before the given time, or the oldest stored update
+     */
+    public int getUpdatesAgo(long timeMillis) {
+        for (int ago = 0; ago < mHistoryCount; ago++) {
+            if (fHistoryTimes[historyIndex(ago)] <= timeMillis) {
+                return ago;
+            }
+        }
+        return Math.max(mHistoryCount - 1, 0);
+    }
+
+    private int historyIndex(int updatesAgo) {
+        if (updatesAgo < 0 || updatesAgo >= mHistoryCount) {
+            throw new IndexOutOfBoundsException("Only " + mHistoryCount + " poses in the history");
+        }
+        return (mHistoryHead - 1 - updatesAgo + fHistorySize) % fHistorySize;
+    }
+}
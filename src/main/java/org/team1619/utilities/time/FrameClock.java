@@ -0,0 +1,38 @@
+package org.team1619.utilities.time;
+
+/**
+ * The time used by robot logic such as timeouts and button holds.
+ * Uses System.nanoTime() unless the current thread has been given another time source, which headless sims use to run on a virtual clock.
+ * The time source is per thread so several headless sims can run in parallel.
+ */
+
+public final class FrameClock {
+
+    private static final TimeSource sSystemTime = System::nanoTime;
+    private static final ThreadLocal<TimeSource> sTimeSource = ThreadLocal.withInitial(() -> sSystemTime);
+
+    private FrameClock() {
+    }
+
+    public static long nanoTime() {
+        return sTimeSource.get().nanoTime();
+    }
+
+    public static long currentTimeMillis() {
+        return nanoTime() / 1_000_000L;
+    }
+
+    /**
+     * Makes robot logic on the current thread use the given time source
+     */
+    public static void useTimeSource(TimeSource timeSource) {
+        sTimeSource.set(timeSource);
+    }
+
+    /**
+     * Makes robot logic on the current thread use the system time again
+     */
+    public static void useSystemTime() {
+        sTimeSource.remove();
+    }
+}
@@ -0,0 +1,37 @@
+package org.team1619.utilities.time;
+
+/**
+ * Timer that reads the FrameClock so it keeps working when the robot code runs on a virtual clock.
+ * Works the same as org.uacr.utilities.Timer.
+ */
+
+public class FrameTimer {
+
+    private long mStartTime;
+    private long mDuration;
+    private boolean mIsStarted;
+
+    public FrameTimer() {
+        mStartTime = 0;
+        mDuration = 0;
+        mIsStarted = false;
+    }
+
+    public void start(long durationMillis) {
+        mStartTime = FrameClock.currentTimeMillis();
+        mDuration = durationMillis;
+        mIsStarted = true;
+    }
+
+    public void reset() {
+        mIsStarted = false;
+    }
+
+    public boolean isStarted() {
+        return mIsStarted;
+    }
+
+    public boolean isDone() {
+        return mIsStarted && FrameClock.currentTimeMillis() - mStartTime >= mDuration;
+    }
+}
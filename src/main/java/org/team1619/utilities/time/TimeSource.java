@@ -0,0 +1,11 @@
+package org.team1619.utilities.time;
+
+/**
+ * A monotonic source of time in nanoseconds
+ */
+
+@FunctionalInterface
+public interface TimeSource {
+
+    long nanoTime();
+}
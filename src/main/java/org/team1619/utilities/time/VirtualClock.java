@@ -0,0 +1,31 @@
+package org.team1619.utilities.time;
+
+/**
+ * Time source that only moves when it is advanced, used to run the robot code faster than real time
+ */
+
+public class VirtualClock implements TimeSource {
+
+    private long mNanos;
+
+    public VirtualClock() {
+        mNanos = 0;
+    }
+
+    @Override
+    public long nanoTime() {
+        return mNanos;
+    }
+
+    public void advanceMillis(long millis) {
+        mNanos += millis * 1_000_000L;
+    }
+
+    public void advanceNanos(long nanos) {
+        mNanos += nanos;
+    }
+
+    public long getMillis() {
+        return mNanos / 1_000_000L;
+    }
+}
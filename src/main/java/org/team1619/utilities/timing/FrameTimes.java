@@ -0,0 +1,90 @@
+package org.team1619.utilities.timing;
+
+import org.uacr.models.behavior.Behavior;
+import org.uacr.shared.abstractions.RobotConfiguration;
+import org.uacr.utilities.injection.Inject;
+import org.uacr.utilities.logging.LogManager;
+import org.uacr.utilities.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Holds the frame time histograms for every timed service, thread and behavior.
+ * Thresholds come from global_timing in robot-configuration.yaml and are in milliseconds.
+ */
+
+public class FrameTimes {
+
+    private static final Logger sLogger = LogManager.getLogger(FrameTimes.class);
+
+    private final RobotConfiguration fRobotConfiguration;
+    private final Map<String, LatencyHistogram> fHistograms;
+
+    @Inject
+    public FrameTimes(RobotConfiguration robotConfiguration) {
+        fRobotConfiguration = robotConfiguration;
+        fHistograms = new LinkedHashMap<>();
+    }
+
+    /**
+     * Returns the histogram with the given name, creating it the first time with the threshold from global_timing -> thresholdKey
+     */
+    public synchronized LatencyHistogram getHistogram(String name, String thresholdKey) {
+        LatencyHistogram histogram = fHistograms.get(name);
+        if (histogram == null) {
+            histogram = createHistogram(name, thresholdKey);
+            fHistograms.put(name, histogram);
+        }
+        return histogram;
+    }
+
+    /**
+     * Creates a histogram with the threshold from global_timing -> thresholdKey that is not held here,
+     * so it is not published, summarized or cleared by startMatch(). For detail that would cost too much to publish.
+     */
+    public LatencyHistogram createHistogram(String name, String thresholdKey) {
+        long thresholdNanos = 0;
+        if (fRobotConfiguration.contains("global_timing", thresholdKey)) {
+            thresholdNanos = fRobotConfiguration.getInt("global_timing", thresholdKey) * 1_000_000L;
+        } else {
+            sLogger.debug("No frame time threshold {} for {}", thresholdKey, name);
+        }
+        return new LatencyHistogram(name, thresholdNanos);
+    }
+
+    public synchronized List<LatencyHistogram> getHistograms() {
+        return new ArrayList<>(fHistograms.values());
+    }
+
+    /**
+     * Wraps a behavior so the time spent in update() is recorded against the state service threshold
+     */
+    public Behavior timeBehavior(String name, Behavior behavior) {
+        return new TimedBehavior(behavior, getHistogram(name, "frame_time_threshold_state_service"));
+    }
+
+    /**
+     * Logs the frame times since the last match started and clears them so breaches are counted per match.
+     * Each histogram is cleared by the thread that records it, on its next frame.
+     */
+    public void startMatch() {
+        logSummary();
+        for (LatencyHistogram histogram : getHistograms()) {
+            histogram.requestReset();
+        }
+    }
+
+    public void logSummary() {
+        for (LatencyHistogram histogram : getHistograms()) {
+            if (histogram.getCount() == 0) {
+                continue;
+            }
+            sLogger.info("Frame time {}: frames {} p50 {}ms p99 {}ms max {}ms breaches {}", histogram.getName(), histogram.getCount(),
+                    histogram.getPercentileNanos(50) / 1_000_000.0, histogram.getPercentileNanos(99) / 1_000_000.0,
+                    histogram.getMaxNanos() / 1_000_000.0, histogram.getBreaches());
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package org.team1619.utilities.timing;
+
+/**
+ * Fixed bucket histogram of frame times with a breach counter.
+ * Buckets are BUCKET_WIDTH_NANOS wide up to MAX_TRACKED_NANOS, anything longer goes in the last bucket but still updates the max.
+ * Recording is a few array stores and never allocates. It is written by one thread and read by others,
+ * readers may see a value that is one sample behind which is fine for telemetry.
+ * Other threads clear it with requestReset(), the writing thread does the clearing on its next record() so counts are never torn.
+ */
+
+public class LatencyHistogram {
+
+    public static final long BUCKET_WIDTH_NANOS = 100_000;
+    public static final long MAX_TRACKED_NANOS = 100_000_000;
+
+    private static final int BUCKET_COUNT = (int) (MAX_TRACKED_NANOS / BUCKET_WIDTH_NANOS) + 1;
+
+    private final String fName;
+    private final long fThresholdNanos;
+    private final long[] fBuckets;
+
+    private volatile long mCount;
+    private volatile long mBreaches;
+    private volatile long mMaxNanos;
+    private volatile long mTotalNanos;
+    private volatile boolean mIsResetRequested;
+
+    public LatencyHistogram(String name, long thresholdNanos) {
+        fName = name;
+        fThresholdNanos = thresholdNanos;
+        fBuckets = new long[BUCKET_COUNT];
+    }
+
+    public String getName() {
+        return fName;
+    }
+
+    public long getThresholdNanos() {
+        return fThresholdNanos;
+    }
+
+    public void record(long nanos) {
+        if (mIsResetRequested) {
+            reset();
+        }
+
+        int bucket = (int) Math.min(Math.max(nanos, 0) / BUCKET_WIDTH_NANOS, BUCKET_COUNT - 1);
+        fBuckets[bucket]++;
+
+        if (nanos > mMaxNanos) {
+            mMaxNanos = nanos;
+        }
+        if (fThresholdNanos > 0 && nanos > fThresholdNanos) {
+            mBreaches++;
+        }
+        mTotalNanos += nanos;
+        mCount++;
+    }
+
+    // Until the writing thread records again a requested reset reads as empty
+
+    public long getCount() {
+        return mIsResetRequested ? 0 : mCount;
+    }
+
+    public long getBreaches() {
+        return mIsResetRequested ? 0 : mBreaches;
+    }
+
+    public long getMaxNanos() {
+        return mIsResetRequested ? 0 : mMaxNanos;
+    }
+
+    public long getMeanNanos() {
+        long count = getCount();
+        return count == 0 ? 0 : mTotalNanos / count;
+    }
+
+    /**
+     * Returns the upper edge of the bucket containing the given percentile (0 - 100), capped at the max recorded value
+     */
+    public long getPercentileNanos(double percentile) {
+        long count = getCount();
+        if (count == 0) {
+            return 0;
+        }
+
+        long target = (long) Math.ceil(count * percentile / 100.0);
+        long seen = 0;
+        for (int b = 0; b < BUCKET_COUNT; b++) {
+            seen += fBuckets[b];
+            if (seen >= target) {
+                return Math.min((b + 1) * BUCKET_WIDTH_NANOS, mMaxNanos);
+            }
+        }
+        return mMaxNanos;
+    }
+
+    /**
+     * Clears the histogram from any thread, it is cleared by the writing thread on its next record()
+     */
+    public void requestReset() {
+        mIsResetRequested = true;
+    }
+
+    // Only called by the writing thread
+    private void reset() {
+        for (int b = 0; b < BUCKET_COUNT; b++) {
+            fBuckets[b] = 0;
+        }
+        mCount = 0;
+        mBreaches = 0;
+        mMaxNanos = 0;
+        mTotalNanos = 0;
+        // Cleared last so readers see an empty histogram until it is
+        mIsResetRequested = false;
+    }
+}
@@ -0,0 +1,52 @@
+package org.team1619.utilities.timing;
+
+import org.uacr.models.behavior.Behavior;
+import org.uacr.utilities.Config;
+
+import java.util.Set;
+
+/**
+ * Records the time spent in a behavior's update() into its histogram
+ */
+
+public class TimedBehavior implements Behavior {
+
+    private final Behavior fBehavior;
+    private final LatencyHistogram fHistogram;
+
+    public TimedBehavior(Behavior behavior, LatencyHistogram histogram) {
+        fBehavior = behavior;
+        fHistogram = histogram;
+    }
+
+    public Behavior getBehavior() {
+        return fBehavior;
+    }
+
+    @Override
+    public void initialize(String stateName, Config config) {
+        fBehavior.initialize(stateName, config);
+    }
+
+    @Override
+    public void update() {
+        long start = System.nanoTime();
+        fBehavior.update();
+        fHistogram.record(System.nanoTime() - start);
+    }
+
+    @Override
+    public void dispose() {
+        fBehavior.dispose();
+    }
+
+    @Override
+    public boolean isDone() {
+        return fBehavior.isDone();
+    }
+
+    @Override
+    public Set<String> getSubsystems() {
+        return fBehavior.getSubsystems();
+    }
+}
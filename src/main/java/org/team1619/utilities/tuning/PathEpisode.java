@@ -0,0 +1,181 @@
+package org.team1619.utilities.tuning;
+
+import org.team1619.utilities.purepursuit.Path;
+import org.team1619.utilities.purepursuit.PathFollower;
+import org.team1619.utilities.purepursuit.Paths;
+import org.team1619.utilities.signals.SignalBank;
+import org.team1619.utilities.swerve.SwerveKinematics;
+import org.team1619.utilities.swerve.SwerveModuleSignals;
+import org.uacr.models.exceptions.ConfigurationException;
+import org.uacr.shared.abstractions.InputValues;
+import org.uacr.shared.abstractions.RobotConfiguration;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Follows one path from paths.yaml with a candidate set of path model settings on a SwervePlant, the way Drivetrain_PurePursuit does,
+ * and scores how well it tracked. Frames run back to back on the core frame period so an episode takes a few milliseconds.
+ * An episode reuses its signal bank and plant for every candidate, so each worker thread needs its own PathEpisode.
+ *
+ * Settings from global_path_tuner:
+ * timeout: seconds after which a path that has not finished scores as not finishing
+ * mean_tracking_error_weight: seconds of score per inch of mean tracking error
+ * max_tracking_error_weight: seconds of score per inch of max tracking error
+ */
+
+public class PathEpisode {
+
+    public static final long FRAME_PERIOD_NANOS = 10_000_000L;
+
+    private final String fPathName;
+    private final Map<?, ?> fPath;
+    private final String fModelName;
+    private final Map<?, ?> fModel;
+    private final long fTimeoutNanos;
+    private final double fMeanErrorWeight;
+    private final double fMaxErrorWeight;
+
+    private final SwervePlant fPlant;
+    private final SignalBank fSignals;
+    private final SwerveKinematics fKinematics;
+    private final SwerveModuleSignals fModules;
+
+    // Preallocated so a frame does not allocate
+    private final double[] fSpeeds;
+    private final double[] fAngles;
+    private final double[] fCurrentAngles;
+
+    public PathEpisode(InputValues inputValues, RobotConfiguration robotConfiguration, Map<?, ?> pathsYaml, String pathName, Map<?, ?> settings) {
+        fPathName = pathName;
+        Object paths = pathsYaml.get("path");
+        fPath = paths instanceof Map && ((Map<?, ?>) paths).get(pathName) instanceof Map ? (Map<?, ?>) ((Map<?, ?>) paths).get(pathName) : Map.of();
+        if (fPath.isEmpty()) {
+            throw new ConfigurationException("Path " + pathName + " does not exist in paths.yaml");
+        }
+        fModelName = String.valueOf(fPath.get("model"));
+        Object models = pathsYaml.get("model");
+        fModel = models instanceof Map && ((Map<?, ?>) models).get(fModelName) instanceof Map ? (Map<?, ?>) ((Map<?, ?>) models).get(fModelName) : Map.of();
+        if (fModel.isEmpty()) {
+            throw new ConfigurationException("Path model " + fModelName + " does not exist in paths.yaml");
+        }
+
+        fTimeoutNanos = (long) (getSetting(settings, "timeout") * 1_000_000_000L);
+        fMeanErrorWeight = getSetting(settings, "mean_tracking_error_weight");
+        fMaxErrorWeight = getSetting(settings, "max_tracking_error_weight");
+
+        fKinematics = new SwerveKinematics(robotConfiguration);
+        fPlant = new SwervePlant(inputValues, fKinematics, robotConfiguration);
+        fSignals = new SignalBank(inputValues, fPlant, robotConfiguration);
+        fModules = new SwerveModuleSignals(fSignals, fKinematics, robotConfiguration);
+
+        int moduleCount = fKinematics.getModuleCount();
+        fSpeeds = new double[moduleCount];
+        fAngles = new double[moduleCount];
+        fCurrentAngles = new double[moduleCount];
+    }
+
+    /**
+     * The settings of the path's model in paths.yaml
+     */
+    public Map<?, ?> getModel() {
+        return fModel;
+    }
+
+    /**
+     * Generates the path with the model settings in paths.yaml replaced by the given ones and follows it from a stop
+     */
+    public Result run(Map<String, Double> modelSettings) {
+        Map<Object, Object> model = new HashMap<>(fModel);
+        for (Map.Entry<String, Double> setting : modelSettings.entrySet()) {
+            if (!fModel.containsKey(setting.getKey())) {
+                throw new ConfigurationException("Path model " + fModelName + " has no setting " + setting.getKey() + " to tune");
+            }
+            model.put(setting.getKey(), setting.getValue());
+        }
+        Path path = new Paths(Map.of("path", Map.of(fPathName, fPath), "model", Map.of(fModelName, model))).getPath(fPathName);
+
+        PathFollower follower = new PathFollower(path);
+        fPlant.reset(path.getX(0), path.getY(0), 0.0);
+        follower.reset(0.0);
+
+        long timeNanos = 0;
+        long frames = 0;
+        double errorSum = 0.0;
+        double maxError = 0.0;
+        while (true) {
+            fSignals.sample();
+            follower.update(fPlant.getX(), fPlant.getY(), fPlant.getHeading());
+            errorSum += follower.getTrackingError();
+            maxError = Math.max(maxError, follower.getTrackingError());
+            frames++;
+
+            if (follower.isDone() || timeNanos >= fTimeoutNanos) {
+                break;
+            }
+            fKinematics.toModuleStates(follower.getForward(), follower.getStrafe(), follower.getRotate(), fSpeeds, fAngles);
+            SwerveKinematics.desaturate(fSpeeds, 1.0);
+            fModules.readAngles(fCurrentAngles);
+            SwerveKinematics.optimize(fSpeeds, fAngles, fCurrentAngles);
+            fModules.setModules(fSpeeds, fAngles);
+            fSignals.flush();
+
+            timeNanos += FRAME_PERIOD_NANOS;
+            fPlant.step(timeNanos, FRAME_PERIOD_NANOS);
+        }
+        fModules.stop();
+        fSignals.flush();
+
+        double seconds = timeNanos / 1_000_000_000.0;
+        double meanError = errorSum / frames;
+        double score = follower.isDone() ? seconds + fMeanErrorWeight * meanError + fMaxErrorWeight * maxError : Double.POSITIVE_INFINITY;
+        return new Result(follower.isDone(), seconds, meanError, maxError, score);
+    }
+
+    private static double getSetting(Map<?, ?> settings, String key) {
+        Object value = settings.get(key);
+        if (!(value instanceof Number)) {
+            throw new ConfigurationException("global_path_tuner is missing numeric value " + key);
+        }
+        return ((Number) value).doubleValue();
+    }
+
+    public static final class Result {
+
+        private final boolean fIsFinished;
+        private final double fSeconds;
+        private final double fMeanTrackingError;
+        private final double fMaxTrackingError;
+        private final double fScore;
+
+        public Result(boolean isFinished, double seconds, double meanTrackingError, double maxTrackingError, double score) {
+            fIsFinished = isFinished;
+            fSeconds = seconds;
+            fMeanTrackingError = meanTrackingError;
+            fMaxTrackingError = maxTrackingError;
+            fScore = score;
+        }
+
+        public boolean isFinished() {
+            return fIsFinished;
+        }
+
+        // Time to finish the path, or the timeout if it did not finish
+        public double getSeconds() {
+            return fSeconds;
+        }
+
+        public double getMeanTrackingError() {
+            return fMeanTrackingError;
+        }
+
+        public double getMaxTrackingError() {
+            return fMaxTrackingError;
+        }
+
+        // Lower is better, infinite when the path did not finish
+        public double getScore() {
+            return fScore;
+        }
+    }
+}
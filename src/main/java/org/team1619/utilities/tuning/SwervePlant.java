@@ -0,0 +1,187 @@
+package org.team1619.utilities.tuning;
+
+import org.team1619.utilities.recording.FlightRecorder;
+import org.team1619.utilities.swerve.SwerveKinematics;
+import org.team1619.utilities.swerve.SwerveOdometry;
+import org.uacr.models.exceptions.ConfigurationException;
+import org.uacr.shared.abstractions.InputValues;
+import org.uacr.shared.abstractions.OutputValues;
+import org.uacr.shared.abstractions.RobotConfiguration;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A simple simulated swerve drivetrain for tuning, driven by the module speed and angle outputs a behavior sets.
+ * Each module turns towards its angle output at a fixed rate and its wheel velocity follows the speed output with a first order lag.
+ * The module angles and velocities are written to the module inputs and integrated into a pose the same way robot status does,
+ * and the heading is written to the navx angle with the 90 degree offset robot status and Drivetrain_Swerve take off it.
+ * The robot turns in the direction PathFollower and Drivetrain_Swerve expect, a positive rotate lowers the heading.
+ *
+ * Settings from global_sim_drivetrain:
+ * max_velocity: wheel velocity in inches per second at full output
+ * velocity_time_constant: seconds for the wheel velocity to get 63% of the way to a new speed
+ * angle_rate: degrees per second the modules turn
+ */
+
+public class SwervePlant implements OutputValues {
+
+    private final InputValues fSharedInputValues;
+    private final SwerveKinematics fKinematics;
+    private final SwerveOdometry fOdometry;
+    private final Map<String, Integer> fOutputs;
+    private final String[] fAngleInputs;
+    private final String[] fVelocityInputs;
+    private final String fNavx;
+    private final double fMaxVelocity;
+    private final double fVelocityTimeConstant;
+    private final double fAngleRate;
+    private final double fRadiusSquaredSum;
+
+    private final double[] fSpeedOutputs;
+    private final double[] fAngleOutputs;
+    private final double[] fAngles;
+    private final double[] fVelocities;
+
+    private double mHeading;
+
+    public SwervePlant(InputValues inputValues, SwerveKinematics kinematics, RobotConfiguration robotConfiguration) {
+        fSharedInputValues = inputValues;
+        fKinematics = kinematics;
+        fOdometry = new SwerveOdometry(kinematics, 1);
+        fMaxVelocity = robotConfiguration.getDouble("global_sim_drivetrain", "max_velocity");
+        fVelocityTimeConstant = robotConfiguration.getDouble("global_sim_drivetrain", "velocity_time_constant");
+        fAngleRate = robotConfiguration.getDouble("global_sim_drivetrain", "angle_rate");
+        fNavx = robotConfiguration.getString("global_drivetrain", "navx");
+
+        int moduleCount = kinematics.getModuleCount();
+        fOutputs = new HashMap<>();
+        fAngleInputs = new String[moduleCount];
+        fVelocityInputs = new String[moduleCount];
+        double radiusSquaredSum = 0.0;
+        for (int m = 0; m < moduleCount; m++) {
+            String module = kinematics.getModuleName(m);
+            fOutputs.put(SwerveKinematics.getModuleSetting(robotConfiguration, module, "speed_output"), m);
+            fOutputs.put(SwerveKinematics.getModuleSetting(robotConfiguration, module, "angle_output"), moduleCount + m);
+            fAngleInputs[m] = SwerveKinematics.getModuleSetting(robotConfiguration, module, "angle_input");
+            fVelocityInputs[m] = SwerveKinematics.getModuleSetting(robotConfiguration, module, "velocity_input");
+            radiusSquaredSum += kinematics.getModuleX(m) * kinematics.getModuleX(m) + kinematics.getModuleY(m) * kinematics.getModuleY(m);
+        }
+        fRadiusSquaredSum = radiusSquaredSum;
+
+        fSpeedOutputs = new double[moduleCount];
+        fAngleOutputs = new double[moduleCount];
+        fAngles = new double[moduleCount];
+        fVelocities = new double[moduleCount];
+
+        reset(0.0, 0.0, 0.0);
+    }
+
+    /**
+     * Stops the robot at the given pose with every module at 0 degrees
+     */
+    public void reset(double x, double y, double heading) {
+        for (int m = 0; m < fAngles.length; m++) {
+            fSpeedOutputs[m] = 0.0;
+            fAngleOutputs[m] = 0.0;
+            fAngles[m] = 0.0;
+            fVelocities[m] = 0.0;
+        }
+        mHeading = heading;
+        fOdometry.reset(x, y);
+        fOdometry.update(0, mHeading, fAngles, fVelocities);
+        writeInputs();
+    }
+
+    /**
+     * Moves the modules and the robot from the last time to timeNanos
+     */
+    public void step(long timeNanos, long periodNanos) {
+        double seconds = periodNanos / 1_000_000_000.0;
+        double maxTurn = fAngleRate * seconds;
+        double lag = fVelocityTimeConstant > 0.0 ? 1.0 - Math.exp(-seconds / fVelocityTimeConstant) : 1.0;
+
+        // Rotation is the least squares fit of the module velocities to a rigid body spinning around the center
+        double turn = 0.0;
+        for (int m = 0; m < fAngles.length; m++) {
+            fAngles[m] += Math.max(-maxTurn, Math.min(maxTurn, fAngleOutputs[m] - fAngles[m]));
+            fVelocities[m] += (fSpeedOutputs[m] * fMaxVelocity - fVelocities[m]) * lag;
+
+            double angle = Math.toRadians(fAngles[m]);
+            double forward = fVelocities[m] * Math.cos(angle);
+            double strafe = fVelocities[m] * Math.sin(angle);
+            turn += fKinematics.getModuleX(m) * strafe - fKinematics.getModuleY(m) * forward;
+        }
+        if (fRadiusSquaredSum > 0.0) {
+            mHeading -= Math.toDegrees(turn / fRadiusSquaredSum) * seconds;
+        }
+
+        fOdometry.update(timeNanos / 1_000_000, mHeading, fAngles, fVelocities);
+        writeInputs();
+    }
+
+    /**
+     * Takes the module outputs set in the flight recorder's last committed frame, for running the plant under the sim services.
+     * A module output nothing set in that frame keeps its last value.
+     */
+    public void readOutputs(FlightRecorder flightRecorder) {
+        for (String output : fOutputs.keySet()) {
+            int column = flightRecorder.getColumn(output);
+            if (column < 0) {
+                throw new ConfigurationException("Output " + output + " must be in global_flight_recorder -> outputs to run the sim drivetrain");
+            }
+            double value = flightRecorder.getCommitted(column);
+            if (!Double.isNaN(value)) {
+                setNumeric(output, "", value);
+            }
+        }
+    }
+
+    public double getX() {
+        return fOdometry.getX();
+    }
+
+    public double getY() {
+        return fOdometry.getY();
+    }
+
+    public double getHeading() {
+        return mHeading;
+    }
+
+    @Override
+    public void setNumeric(String name, String type, double value) {
+        Integer output = fOutputs.get(name);
+        if (output == null) {
+            return;
+        }
+        if (output < fSpeedOutputs.length) {
+            fSpeedOutputs[output] = Math.max(-1.0, Math.min(1.0, value));
+        } else {
+            fAngleOutputs[output - fSpeedOutputs.length] = value;
+        }
+    }
+
+    @Override
+    public void setNumeric(String name, String type, double value, String profile) {
+        setNumeric(name, type, value);
+    }
+
+    @Override
+    public void setBoolean(String name, boolean value) {
+
+    }
+
+    @Override
+    public void setOutputFlag(String name, String flag) {
+
+    }
+
+    private void writeInputs() {
+        for (int m = 0; m < fAngles.length; m++) {
+            fSharedInputValues.setNumeric(fAngleInputs[m], fAngles[m]);
+            fSharedInputValues.setNumeric(fVelocityInputs[m], fVelocities[m]);
+        }
+        fSharedInputValues.setVector(fNavx, Map.of("angle", mHeading + 90));
+    }
+}
@@ -0,0 +1,73 @@
+package org.team1619.state;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the ids and subsystems StateTable gives the states in states.yaml and general -> states
+ */
+
+public class StateTableTest {
+
+    private static StateTable createTable() {
+        Map<String, Object> statesYaml = new LinkedHashMap<>();
+        statesYaml.put("single_state", Map.of(
+                "st_drivetrain_swerve", Map.of("behavior", "bh_drivetrain_swerve"),
+                "st_drivetrain_zero", Map.of("behavior", "bh_drivetrain_zero")));
+        statesYaml.put("sequencer_state", Map.of("sq_auto_example", Map.of("sequence", List.of("st_drivetrain_zero"))));
+
+        Map<String, Object> generalStates = new LinkedHashMap<>();
+        generalStates.put("ss_drivetrain", Map.of(
+                "priority_level_1", List.of("st_drivetrain_zero"),
+                "default", List.of("st_drivetrain_swerve")));
+        generalStates.put("sequences", Map.of("priority_level_1", List.of("sq_auto_example", "sq_only_in_general")));
+
+        return new StateTable(statesYaml, generalStates);
+    }
+
+    @Test
+    public void givesEveryStateOneId() {
+        StateTable table = createTable();
+
+        assertEquals(4, table.getStateCount());
+        for (String state : List.of("st_drivetrain_swerve", "st_drivetrain_zero", "sq_auto_example", "sq_only_in_general")) {
+            int id = table.getId(state);
+            assertNotEquals(StateTable.NO_STATE, id);
+            assertEquals(state, table.getName(id));
+        }
+        assertEquals(StateTable.NO_STATE, table.getId("st_missing"));
+    }
+
+    @Test
+    public void findsTheSubsystemEachStateIsListedUnder() {
+        StateTable table = createTable();
+
+        assertEquals("ss_drivetrain", table.getSubsystemName(table.getSubsystem(table.getId("st_drivetrain_swerve"))));
+        assertEquals("ss_drivetrain", table.getSubsystemName(table.getSubsystem(table.getId("st_drivetrain_zero"))));
+        assertEquals("sequences", table.getSubsystemName(table.getSubsystem(table.getId("sq_only_in_general"))));
+    }
+
+    @Test
+    public void statesNotInGeneralHaveNoSubsystem() {
+        StateTable table = new StateTable(Map.of("single_state", Map.of("st_unlisted", Map.of())), Map.of());
+
+        assertEquals(StateTable.NO_STATE, table.getSubsystem(table.getId("st_unlisted")));
+    }
+
+    @Test
+    public void matchingFlagsStatesByName() {
+        StateTable table = createTable();
+
+        boolean[] sequences = table.matching(name -> name.startsWith("sq_"));
+
+        assertEquals(table.getStateCount(), sequences.length);
+        assertTrue(sequences[table.getId("sq_auto_example")]);
+        assertTrue(sequences[table.getId("sq_only_in_general")]);
+        assertFalse(sequences[table.getId("st_drivetrain_swerve")]);
+    }
+}
@@ -0,0 +1,128 @@
+package org.team1619.utilities.input;
+
+import org.junit.jupiter.api.Test;
+import org.uacr.models.exceptions.ConfigurationException;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the deadband, curves and slew rate limit StickShaper applies to a joystick vector
+ */
+
+public class StickShaperTest {
+
+    private static final double DELTA = 1e-9;
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    public void deadbandReadsZeroAndRescalesTheRest() {
+        StickShaper shaper = new StickShaper("test", Map.of("deadband", 0.2));
+
+        shaper.shape(0.1, 0.1, 0);
+        assertEquals(0.0, shaper.getX(), DELTA);
+        assertEquals(0.0, shaper.getY(), DELTA);
+
+        shaper.shape(0.6, 0.0, 0);
+        assertEquals(0.5, shaper.getX(), DELTA);
+
+        shaper.shape(0.0, -1.0, 0);
+        assertEquals(-1.0, shaper.getY(), DELTA);
+    }
+
+    @Test
+    public void shapesTheLengthAndKeepsTheDirection() {
+        StickShaper shaper = new StickShaper("test", Map.of("curve", "cubic"));
+
+        shaper.shape(0.3, 0.4, 0);
+
+        // Length 0.5 cubed is 0.125, pointing the same way as the stick
+        assertEquals(0.075, shaper.getX(), DELTA);
+        assertEquals(0.1, shaper.getY(), DELTA);
+    }
+
+    @Test
+    public void expoBlendsLinearAndCubic() {
+        StickShaper shaper = new StickShaper("test", Map.of("curve", "expo", "expo", 0.5));
+
+        shaper.shape(0.5, 0.0, 0);
+
+        assertEquals(0.5 * 0.5 + 0.5 * 0.125, shaper.getX(), DELTA);
+    }
+
+    @Test
+    public void cornersReadTheSameAsTheEdge() {
+        StickShaper shaper = new StickShaper("test", Map.of());
+
+        shaper.shape(1.0, 1.0, 0);
+
+        assertEquals(Math.sqrt(0.5), shaper.getX(), DELTA);
+        assertEquals(Math.sqrt(0.5), shaper.getY(), DELTA);
+    }
+
+    @Test
+    public void slewRateLimitsPushingTheStickOut() {
+        StickShaper shaper = new StickShaper("test", Map.of("slew_rate", 4.0));
+
+        shaper.shape(1.0, 0.0, 0);
+        assertEquals(0.0, shaper.getX(), DELTA);
+
+        shaper.shape(1.0, 0.0, SECOND / 10);
+        assertEquals(0.4, shaper.getX(), DELTA);
+
+        shaper.shape(1.0, 0.0, SECOND / 5);
+        assertEquals(0.8, shaper.getX(), DELTA);
+
+        shaper.shape(1.0, 0.0, SECOND);
+        assertEquals(1.0, shaper.getX(), DELTA);
+    }
+
+    @Test
+    public void slewRateDoesNotLimitPullingBackOrTurning() {
+        StickShaper shaper = new StickShaper("test", Map.of("slew_rate", 4.0));
+        shaper.shape(1.0, 0.0, 0);
+        shaper.shape(1.0, 0.0, SECOND);
+
+        shaper.shape(0.0, -1.0, SECOND + 1);
+        assertEquals(0.0, shaper.getX(), DELTA);
+        assertEquals(-1.0, shaper.getY(), DELTA);
+
+        shaper.shape(0.0, -0.25, SECOND + 2);
+        assertEquals(-0.25, shaper.getY(), DELTA);
+    }
+
+    @Test
+    public void lettingGoStopsRightAwayAndRampsUpAgain() {
+        StickShaper shaper = new StickShaper("test", Map.of("deadband", 0.1, "slew_rate", 4.0));
+        shaper.shape(1.0, 0.0, 0);
+        shaper.shape(1.0, 0.0, SECOND);
+
+        shaper.shape(0.05, 0.0, SECOND + 1);
+        assertEquals(0.0, shaper.getX(), DELTA);
+
+        shaper.shape(1.0, 0.0, SECOND + SECOND / 10);
+        assertEquals(0.4, shaper.getX(), 1e-6);
+    }
+
+    @Test
+    public void resetRampsUpFromZero() {
+        StickShaper shaper = new StickShaper("test", Map.of("slew_rate", 4.0));
+        shaper.shape(1.0, 0.0, 0);
+        shaper.shape(1.0, 0.0, SECOND);
+
+        shaper.reset();
+        shaper.shape(1.0, 0.0, 5 * SECOND);
+
+        assertEquals(0.0, shaper.getX(), DELTA);
+    }
+
+    @Test
+    public void rejectsBadSettings() {
+        assertThrows(ConfigurationException.class, () -> new StickShaper("test", Map.of("deadband", 1.0)));
+        assertThrows(ConfigurationException.class, () -> new StickShaper("test", Map.of("curve", "square")));
+        assertThrows(ConfigurationException.class, () -> new StickShaper("test", Map.of("curve", "expo", "expo", 2.0)));
+        assertThrows(ConfigurationException.class, () -> new StickShaper("test", Map.of("slew_rate", -1.0)));
+        assertThrows(ConfigurationException.class, () -> new StickShaper("test", Map.of("deadband", "small")));
+    }
+}
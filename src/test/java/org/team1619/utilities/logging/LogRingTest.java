@@ -0,0 +1,211 @@
+package org.team1619.utilities.logging;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the claim, publish and take handoff of LogRing, and that a full ring drops and counts records instead of waiting
+ */
+
+public class LogRingTest {
+
+    private static final int CAPACITY = 8;
+    private static final int THREADS = 4;
+    private static final int RECORDS_PER_THREAD = 200_000;
+
+    @Test
+    public void capacityMustBeAPowerOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new LogRing(12));
+        assertThrows(IllegalArgumentException.class, () -> new LogRing(0));
+    }
+
+    @Test
+    public void takesNothingFromAnEmptyRing() {
+        LogRing ring = new LogRing(CAPACITY);
+        Records records = new Records();
+
+        assertFalse(ring.take(records));
+        assertTrue(records.fTemplates.isEmpty());
+    }
+
+    @Test
+    public void takePassesTheRecordAndItsArguments() {
+        LogRing ring = new LogRing(CAPACITY);
+        Records records = new Records();
+
+        long index = ring.claim(null, 3, "{} is {}");
+        ring.setArg(index, 0, "speed");
+        ring.setArg(index, 1, 0.5);
+        ring.publish(index);
+
+        long second = ring.claim(null, 1, "count {}");
+        ring.setArg(second, 0, 42L);
+        ring.publish(second);
+
+        long third = ring.claim(null, 2, "no arguments");
+        ring.publish(third);
+
+        assertTrue(ring.take(records));
+        assertTrue(ring.take(records));
+        assertTrue(ring.take(records));
+        assertFalse(ring.take(records));
+
+        assertEquals(List.of("{} is {}", "count {}", "no arguments"), records.fTemplates);
+        assertEquals(List.of(3, 1, 2), records.fLevels);
+        assertArrayEquals(new Object[]{"speed", 0.5}, records.fArgs.get(0));
+        assertArrayEquals(new Object[]{42L}, records.fArgs.get(1));
+        assertArrayEquals(new Object[0], records.fArgs.get(2));
+    }
+
+    @Test
+    public void takeWaitsForTheOldestClaimToBePublished() {
+        LogRing ring = new LogRing(CAPACITY);
+        Records records = new Records();
+
+        long first = ring.claim(null, 0, "first");
+        long second = ring.claim(null, 0, "second");
+        ring.publish(second);
+
+        assertFalse(ring.take(records));
+
+        ring.publish(first);
+
+        assertTrue(ring.take(records));
+        assertTrue(ring.take(records));
+        assertEquals(List.of("first", "second"), records.fTemplates);
+    }
+
+    @Test
+    public void fullRingDropsAndCountsRecords() {
+        LogRing ring = new LogRing(CAPACITY);
+        Records records = new Records();
+
+        for (int i = 0; i < CAPACITY; i++) {
+            ring.publish(ring.claim(null, 0, "kept"));
+        }
+        assertEquals(-1, ring.claim(null, 0, "dropped"));
+        assertEquals(-1, ring.claim(null, 0, "dropped"));
+        assertEquals(-1, ring.claim(null, 0, "dropped"));
+
+        assertEquals(3, ring.takeDropped());
+        assertEquals(0, ring.takeDropped());
+
+        // Taking one record frees exactly one slot
+        assertTrue(ring.take(records));
+        long index = ring.claim(null, 0, "after");
+        assertNotEquals(-1, index);
+        ring.publish(index);
+        assertEquals(-1, ring.claim(null, 0, "dropped"));
+        assertEquals(1, ring.takeDropped());
+
+        while (ring.take(records)) {
+        }
+        assertEquals(CAPACITY + 1, records.fTemplates.size());
+        assertEquals("after", records.fTemplates.get(CAPACITY));
+    }
+
+    @Test
+    public void slotsAreReusedAcrossManyWraparounds() {
+        LogRing ring = new LogRing(CAPACITY);
+        Records records = new Records();
+
+        long expectedIndex = 0;
+        for (int lap = 0; lap < 100; lap++) {
+            // Leave the ring partly full so the claimed and taken counts wrap at different slots
+            for (int i = 0; i < CAPACITY - 3; i++) {
+                long index = ring.claim(null, 0, "record");
+                assertEquals(expectedIndex++, index);
+                ring.setArg(index, 0, index);
+                if (index % 2 == 0) {
+                    ring.setArg(index, 1, "even");
+                }
+                ring.publish(index);
+            }
+            while (ring.take(records)) {
+            }
+        }
+
+        assertEquals(expectedIndex, records.fArgs.size());
+        assertEquals(0, ring.takeDropped());
+        for (int i = 0; i < records.fArgs.size(); i++) {
+            Object[] args = records.fArgs.get(i);
+            // A slot that held two arguments last lap must not leak its second one into a record with one
+            assertEquals(i % 2 == 0 ? 2 : 1, args.length);
+            assertEquals((long) i, args[0]);
+        }
+    }
+
+    @Test
+    public void concurrentLoggersLoseNothingButCountedDrops() throws InterruptedException {
+        LogRing ring = new LogRing(CAPACITY);
+        Thread[] loggers = new Thread[THREADS];
+        for (int t = 0; t < THREADS; t++) {
+            long thread = t;
+            loggers[t] = new Thread(() -> {
+                for (long sequence = 0; sequence < RECORDS_PER_THREAD; sequence++) {
+                    long index = ring.claim(null, 0, "record");
+                    if (index != -1) {
+                        ring.setArg(index, 0, thread);
+                        ring.setArg(index, 1, sequence);
+                        ring.publish(index);
+                    }
+                }
+            }, "LogRingTest logger " + t);
+        }
+
+        long[] lastSequence = new long[THREADS];
+        Arrays.fill(lastSequence, -1);
+        long[] taken = new long[1];
+        LogRing.Writer writer = (logger, level, template, args) -> {
+            assertEquals(2, args.length);
+            int thread = (int) (long) (Long) args[0];
+            long sequence = (Long) args[1];
+            // Each logger's records must arrive whole and in the order it logged them
+            assertTrue(sequence > lastSequence[thread], "Logger " + thread + " record " + sequence + " after " + lastSequence[thread]);
+            lastSequence[thread] = sequence;
+            taken[0]++;
+        };
+
+        for (Thread logger : loggers) {
+            logger.start();
+        }
+        long dropped = 0;
+        boolean running = true;
+        while (running) {
+            running = false;
+            for (Thread logger : loggers) {
+                running |= logger.isAlive();
+            }
+            while (ring.take(writer)) {
+            }
+            dropped += ring.takeDropped();
+        }
+        for (Thread logger : loggers) {
+            logger.join();
+        }
+        while (ring.take(writer)) {
+        }
+        dropped += ring.takeDropped();
+
+        assertEquals((long) THREADS * RECORDS_PER_THREAD, taken[0] + dropped);
+    }
+
+    private static class Records implements LogRing.Writer {
+
+        private final List<String> fTemplates = new ArrayList<>();
+        private final List<Integer> fLevels = new ArrayList<>();
+        private final List<Object[]> fArgs = new ArrayList<>();
+
+        @Override
+        public void write(AsyncLogger logger, int level, String template, Object[] args) {
+            fTemplates.add(template);
+            fLevels.add(level);
+            fArgs.add(args);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package org.team1619.utilities.swerve;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the module vectors SwerveKinematics calculates for a square robot, and desaturate and optimize on their own
+ */
+
+public class SwerveKinematicsTest {
+
+    private static final double DELTA = 1e-9;
+    private static final double HALF_SQRT_2 = Math.sqrt(2) / 2;
+
+    // A 20 by 20 inch square, x is forward and y is to the right
+    private static final String[] MODULES = {"front_right", "front_left", "back_left", "back_right"};
+    private static final double[] MODULE_X = {10.0, 10.0, -10.0, -10.0};
+    private static final double[] MODULE_Y = {10.0, -10.0, -10.0, 10.0};
+
+    private final SwerveKinematics fKinematics = new SwerveKinematics(MODULES, MODULE_X, MODULE_Y);
+    private final double[] fSpeeds = new double[MODULES.length];
+    private final double[] fAngles = new double[MODULES.length];
+
+    @Test
+    public void moduleNamesAndPositionsMustMatch() {
+        assertThrows(IllegalArgumentException.class, () -> new SwerveKinematics(new String[0], new double[0], new double[0]));
+        assertThrows(IllegalArgumentException.class, () -> new SwerveKinematics(MODULES, new double[]{1.0}, MODULE_Y));
+    }
+
+    @Test
+    public void findsModulesByName() {
+        assertEquals(4, fKinematics.getModuleCount());
+        assertEquals(2, fKinematics.getModuleIndex("back_left"));
+        assertEquals(-1, fKinematics.getModuleIndex("middle"));
+    }
+
+    @Test
+    public void drivingForwardPointsEveryModuleForward() {
+        fKinematics.toModuleStates(0.5, 0.0, 0.0, fSpeeds, fAngles);
+
+        assertArrayEquals(new double[]{0.5, 0.5, 0.5, 0.5}, fSpeeds, DELTA);
+        assertArrayEquals(new double[]{0.0, 0.0, 0.0, 0.0}, fAngles, DELTA);
+    }
+
+    @Test
+    public void strafingPointsEveryModuleSideways() {
+        fKinematics.toModuleStates(0.0, 1.0, 0.0, fSpeeds, fAngles);
+
+        assertArrayEquals(new double[]{1.0, 1.0, 1.0, 1.0}, fSpeeds, DELTA);
+        assertArrayEquals(new double[]{90.0, 90.0, 90.0, 90.0}, fAngles, DELTA);
+    }
+
+    @Test
+    public void fullRotateDrivesTheFurthestModulesAtFullSpeedAroundTheCenter() {
+        fKinematics.toModuleStates(0.0, 0.0, 1.0, fSpeeds, fAngles);
+
+        assertArrayEquals(new double[]{1.0, 1.0, 1.0, 1.0}, fSpeeds, DELTA);
+        assertArrayEquals(new double[]{45.0, 135.0, -135.0, -45.0}, fAngles, DELTA);
+    }
+
+    @Test
+    public void driveAndRotateAddAsVectors() {
+        fKinematics.toModuleStates(HALF_SQRT_2, 0.0, 1.0, fSpeeds, fAngles);
+
+        // Modules on the right side rotate forward, on top of driving forward, the ones on the left rotate backward
+        assertEquals(Math.sqrt(0.5 + 2.0), fSpeeds[0], DELTA);
+        assertEquals(HALF_SQRT_2, fSpeeds[1], DELTA);
+        assertEquals(HALF_SQRT_2, fSpeeds[2], DELTA);
+        assertEquals(Math.sqrt(0.5 + 2.0), fSpeeds[3], DELTA);
+        assertEquals(90.0, fAngles[1], DELTA);
+        assertEquals(-90.0, fAngles[2], DELTA);
+    }
+
+    @Test
+    public void pivotingHoldsThePivotModuleStill() {
+        fKinematics.toModuleStatesAroundModule(1.0, 0, fSpeeds, fAngles);
+
+        // The opposite corner is furthest from the pivot and runs at full speed, the other two are half as far away in each axis
+        assertEquals(0.0, fSpeeds[0], DELTA);
+        assertEquals(HALF_SQRT_2, fSpeeds[1], DELTA);
+        assertEquals(1.0, fSpeeds[2], DELTA);
+        assertEquals(HALF_SQRT_2, fSpeeds[3], DELTA);
+        assertEquals(180.0, fAngles[1], DELTA);
+        assertEquals(-135.0, fAngles[2], DELTA);
+        assertEquals(-90.0, fAngles[3], DELTA);
+    }
+
+    @Test
+    public void desaturateScalesEverySpeedByTheLargest() {
+        double[] speeds = {2.0, 1.0, -0.5, 0.0};
+
+        assertEquals(2.0, SwerveKinematics.desaturate(speeds, 1.0), DELTA);
+        assertArrayEquals(new double[]{1.0, 0.5, -0.25, 0.0}, speeds, DELTA);
+    }
+
+    @Test
+    public void desaturateUsesTheLargestReverseSpeed() {
+        double[] speeds = {0.5, -4.0};
+
+        assertEquals(4.0, SwerveKinematics.desaturate(speeds, 1.0), DELTA);
+        assertArrayEquals(new double[]{0.125, -1.0}, speeds, DELTA);
+    }
+
+    @Test
+    public void desaturateLeavesSpeedsUnderTheMaxAlone() {
+        double[] speeds = {0.8, -0.3};
+
+        assertEquals(0.8, SwerveKinematics.desaturate(speeds, 1.0), DELTA);
+        assertArrayEquals(new double[]{0.8, -0.3}, speeds, DELTA);
+    }
+
+    @Test
+    public void optimizeSlowsModulesThatAreStillTurning() {
+        double[] speeds = {1.0, 1.0};
+        double[] angles = {30.0, 60.0};
+
+        SwerveKinematics.optimize(speeds, angles, new double[]{30.0, 0.0});
+
+        assertArrayEquals(new double[]{1.0, 0.125}, speeds, DELTA);
+        assertArrayEquals(new double[]{30.0, 60.0}, angles, DELTA);
+    }
+
+    @Test
+    public void optimizeReversesModulesThatWouldTurnMoreThan90Degrees() {
+        double[] speeds = {1.0, 0.5};
+        double[] angles = {180.0, 135.0};
+
+        SwerveKinematics.optimize(speeds, angles, new double[]{0.0, 0.0});
+
+        // The wheel drives backwards pointing the other way, which is where it already points
+        assertArrayEquals(new double[]{-1.0, 0.5 * Math.pow(Math.cos(Math.toRadians(135.0)), 3)}, speeds, DELTA);
+        assertArrayEquals(new double[]{360.0, 315.0}, angles, DELTA);
+    }
+}
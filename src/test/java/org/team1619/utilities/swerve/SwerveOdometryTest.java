@@ -0,0 +1,128 @@
+package org.team1619.utilities.swerve;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that SwerveOdometry integrates module velocities into a field pose and keeps its pose history in order
+ */
+
+public class SwerveOdometryTest {
+
+    private static final double DELTA = 1e-9;
+
+    private static final SwerveKinematics KINEMATICS = new SwerveKinematics(new String[]{"front_right", "front_left", "back_left", "back_right"},
+            new double[]{10.0, 10.0, -10.0, -10.0}, new double[]{10.0, -10.0, -10.0, 10.0});
+
+    private static final double[] FORWARD = {0.0, 0.0, 0.0, 0.0};
+    private static final double[] SIDEWAYS = {90.0, 90.0, 90.0, 90.0};
+
+    @Test
+    public void firstUpdateOnlySetsTheStartTime() {
+        SwerveOdometry odometry = new SwerveOdometry(KINEMATICS, 4);
+
+        odometry.update(1000, 0.0, FORWARD, speeds(100.0));
+
+        assertEquals(0.0, odometry.getX(), DELTA);
+        assertEquals(0.0, odometry.getY(), DELTA);
+        assertEquals(100.0, odometry.getVelocityX(), DELTA);
+    }
+
+    @Test
+    public void integratesVelocityOverTheTimeBetweenUpdates() {
+        SwerveOdometry odometry = new SwerveOdometry(KINEMATICS, 4);
+
+        odometry.update(1000, 0.0, FORWARD, speeds(100.0));
+        odometry.update(1020, 0.0, FORWARD, speeds(100.0));
+        odometry.update(1030, 0.0, SIDEWAYS, speeds(50.0));
+
+        assertEquals(2.0, odometry.getX(), DELTA);
+        assertEquals(0.5, odometry.getY(), DELTA);
+    }
+
+    @Test
+    public void averagesTheModules() {
+        SwerveOdometry odometry = new SwerveOdometry(KINEMATICS, 4);
+
+        // Two wheels driving forward and two stopped move the center at half speed
+        odometry.update(0, 0.0, FORWARD, new double[]{100.0, 100.0, 0.0, 0.0});
+
+        assertEquals(50.0, odometry.getVelocityX(), DELTA);
+        assertEquals(0.0, odometry.getVelocityY(), DELTA);
+    }
+
+    @Test
+    public void spinningInPlaceDoesNotMove() {
+        SwerveOdometry odometry = new SwerveOdometry(KINEMATICS, 4);
+        double[] speeds = new double[4];
+        double[] angles = new double[4];
+        KINEMATICS.toModuleStates(0.0, 0.0, 1.0, speeds, angles);
+
+        odometry.update(0, 0.0, angles, speeds);
+        odometry.update(100, 30.0, angles, speeds);
+
+        assertEquals(0.0, odometry.getX(), DELTA);
+        assertEquals(0.0, odometry.getY(), DELTA);
+    }
+
+    @Test
+    public void rotatesRobotVelocityIntoTheFieldFrame() {
+        SwerveOdometry odometry = new SwerveOdometry(KINEMATICS, 4);
+
+        odometry.update(0, 90.0, FORWARD, speeds(10.0));
+        odometry.update(1000, 90.0, FORWARD, speeds(10.0));
+
+        assertEquals(0.0, odometry.getX(), DELTA);
+        assertEquals(10.0, odometry.getY(), DELTA);
+        assertEquals(90.0, odometry.getHeading(), DELTA);
+    }
+
+    @Test
+    public void resetMovesThePoseAndRestartsIntegration() {
+        SwerveOdometry odometry = new SwerveOdometry(KINEMATICS, 4);
+        odometry.update(0, 0.0, FORWARD, speeds(100.0));
+        odometry.update(1000, 0.0, FORWARD, speeds(100.0));
+
+        odometry.reset(5.0, -5.0);
+        odometry.update(2000, 0.0, FORWARD, speeds(100.0));
+
+        assertEquals(5.0, odometry.getX(), DELTA);
+        assertEquals(-5.0, odometry.getY(), DELTA);
+        assertEquals(1, odometry.getHistoryCount());
+    }
+
+    @Test
+    public void historyKeepsTheNewestPosesFirst() {
+        SwerveOdometry odometry = new SwerveOdometry(KINEMATICS, 3);
+
+        for (int update = 0; update < 5; update++) {
+            odometry.update(update * 1000L, 0.0, FORWARD, speeds(1.0));
+        }
+
+        assertEquals(3, odometry.getHistoryCount());
+        assertEquals(4000, odometry.getHistoryTime(0));
+        assertEquals(4.0, odometry.getHistoryX(0), DELTA);
+        assertEquals(2000, odometry.getHistoryTime(2));
+        assertEquals(2.0, odometry.getHistoryX(2), DELTA);
+        assertThrows(IndexOutOfBoundsException.class, () -> odometry.getHistoryX(3));
+    }
+
+    @Test
+    public void findsThePoseAtOrBeforeATime() {
+        SwerveOdometry odometry = new SwerveOdometry(KINEMATICS, 3);
+        for (int update = 0; update < 5; update++) {
+            odometry.update(update * 1000L, 0.0, FORWARD, speeds(1.0));
+        }
+
+        assertEquals(0, odometry.getUpdatesAgo(4500));
+        assertEquals(1, odometry.getUpdatesAgo(3000));
+        assertEquals(1, odometry.getUpdatesAgo(3999));
+        // Older than the history, the oldest stored pose is the closest
+        assertEquals(2, odometry.getUpdatesAgo(0));
+    }
+
+    private static double[] speeds(double speed) {
+        return new double[]{speed, speed, speed, speed};
+    }
+}